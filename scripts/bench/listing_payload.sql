@@ -0,0 +1,61 @@
+-- Bytes read per listing page: full entities versus the list projections.
+--
+-- Run against a database with realistic abstracts (for example after plan_report_seed.sql,
+-- or a copy of production data):
+--   psql -h localhost -U postgres -d research_repo -v preview=300 -f scripts/bench/listing_payload.sql
+--
+-- The entity path loaded every research_papers column, including abstract_text and the
+-- search_vector, and for requests the user, paper and both departments through one
+-- secondary select per distinct association. The projection path selects the list columns
+-- in one joined query and cuts the abstract to :preview + 1 characters in the database.
+
+\set ON_ERROR_STOP on
+\if :{?preview}
+\else
+    \set preview 300
+\endif
+\if :{?size}
+\else
+    \set size 20
+\endif
+
+\echo '=== /api/papers, newest page of' :size 'papers'
+WITH page AS (
+    SELECT p.*, d.department_name
+    FROM research_papers p JOIN departments d ON d.department_id = p.department_id
+    WHERE p.archived = false
+    ORDER BY p.submission_date DESC, p.paper_id DESC
+    LIMIT :size
+)
+SELECT count(*) AS rows,
+       sum(pg_column_size(page.*)) AS entity_bytes,
+       sum(pg_column_size(ROW(paper_id, title, author_name, substring(abstract_text, 1, :preview + 1),
+                              file_path, department_id, department_name, submission_date, archived,
+                              archived_at))) AS projection_bytes
+FROM page;
+
+\echo '=== /api/admin/requests, newest page of' :size 'requests'
+WITH page AS (
+    SELECT r.request_id, r.user_id, r.paper_id
+    FROM document_requests r
+    ORDER BY r.created_at DESC, r.request_id DESC
+    LIMIT :size
+)
+SELECT 1 + count(DISTINCT page.user_id) + count(DISTINCT page.paper_id)
+           + count(DISTINCT u.department_id) + count(DISTINCT p.department_id) AS entity_queries,
+       1 AS projection_queries,
+       sum(pg_column_size(r.*)) + sum(pg_column_size(u.*)) + sum(pg_column_size(p.*))
+           + sum(pg_column_size(pd.*)) + coalesce(sum(pg_column_size(ud.*)), 0) AS entity_bytes,
+       sum(pg_column_size(ROW(r.request_id, r.status, r.rejection_reason, r.request_date, r.created_at,
+                              r.updated_at, u.user_id, u.email, u.full_name, u.role,
+                              u.profile_picture_url, ud.department_id, ud.department_name,
+                              p.paper_id, p.title, p.author_name,
+                              substring(p.abstract_text, 1, :preview + 1), p.file_path,
+                              pd.department_id, pd.department_name, p.submission_date, p.archived,
+                              p.archived_at))) AS projection_bytes
+FROM page
+JOIN document_requests r ON r.request_id = page.request_id
+JOIN users u ON u.user_id = r.user_id
+LEFT JOIN departments ud ON ud.department_id = u.department_id
+JOIN research_papers p ON p.paper_id = r.paper_id
+JOIN departments pd ON pd.department_id = p.department_id;
@@ -0,0 +1,93 @@
+-- Before/after benchmark for the submission year filter (V8__paper_submission_year.sql).
+--
+-- Run against a disposable database that Flyway has migrated, never production:
+--   psql -h localhost -U postgres -d research_repo -v rows=200000 -f scripts/bench/paper_year_filter.sql
+--
+-- Seeds :rows papers spread over every department, 25 years and a 10% archived share, then
+-- prints EXPLAIN (ANALYZE, BUFFERS) for the catalog year filter and /api/filters/years. The
+-- "before" plans run inside a transaction that swaps the V8 indexes for the old single column
+-- index and is rolled back, so both halves see the same data. Seeded rows are removed at the end.
+
+\set ON_ERROR_STOP on
+\if :{?rows}
+\else
+    \set rows 200000
+\endif
+\timing on
+
+INSERT INTO research_papers (title, author_name, abstract_text, file_path, department_id, submission_date, archived)
+SELECT 'Bench paper ' || g,
+       'Bench Author ' || (g % 5000),
+       'Seeded abstract ' || g,
+       'bench/' || g || '.pdf',
+       d.ids[1 + g % array_length(d.ids, 1)],
+       DATE '2000-01-01' + (g % 9125),
+       g % 10 = 0
+FROM generate_series(1, :rows) g,
+     (SELECT array_agg(department_id) AS ids FROM departments) d;
+
+-- Index-only scans need an up to date visibility map
+VACUUM ANALYZE research_papers;
+
+\echo '=== BEFORE: OR of BETWEEN per year, YEAR() over every row ==='
+BEGIN;
+DROP INDEX idx_papers_archived_dept_year_date;
+DROP INDEX idx_papers_archived_year;
+CREATE INDEX idx_papers_archived ON research_papers(archived);
+ANALYZE research_papers;
+
+\echo '--- student catalog, one department, three years, newest first'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT p.* FROM research_papers p
+WHERE p.archived = false
+  AND p.department_id IN (1)
+  AND (p.submission_date BETWEEN DATE '2010-01-01' AND DATE '2010-12-31'
+    OR p.submission_date BETWEEN DATE '2015-01-01' AND DATE '2015-12-31'
+    OR p.submission_date BETWEEN DATE '2020-01-01' AND DATE '2020-12-31')
+ORDER BY p.submission_date DESC, p.paper_id DESC
+LIMIT 21;
+
+\echo '--- distinct years, all departments, students'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT DISTINCT CAST(EXTRACT(YEAR FROM p.submission_date) AS INTEGER) AS y
+FROM research_papers p
+WHERE (false OR p.archived = false)
+ORDER BY y DESC;
+
+\echo '--- distinct years, one department, admins'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT DISTINCT CAST(EXTRACT(YEAR FROM p.submission_date) AS INTEGER) AS y
+FROM research_papers p
+WHERE p.department_id = 1
+ORDER BY y DESC;
+ROLLBACK;
+
+ANALYZE research_papers;
+
+\echo '=== AFTER: submission_year IN (...), composite indexes ==='
+
+\echo '--- student catalog, one department, three years, newest first'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT p.* FROM research_papers p
+WHERE p.archived = false
+  AND p.department_id IN (1)
+  AND p.submission_year IN (2010, 2015, 2020)
+ORDER BY p.submission_date DESC, p.paper_id DESC
+LIMIT 21;
+
+\echo '--- distinct years, all departments, students'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT DISTINCT p.submission_year
+FROM research_papers p
+WHERE p.archived IN (false)
+ORDER BY p.submission_year DESC;
+
+\echo '--- distinct years, one department, admins'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT DISTINCT p.submission_year
+FROM research_papers p
+WHERE p.archived IN (false, true) AND p.department_id = 1
+ORDER BY p.submission_year DESC;
+
+DELETE FROM research_papers WHERE file_path LIKE 'bench/%';
+VACUUM ANALYZE research_papers;
@@ -0,0 +1,41 @@
+#!/bin/sh
+# Query plan report for every filter and sort combination of the paper and request listings.
+#
+# Run against a disposable database that Flyway has migrated, never production:
+#   SPRING_DATASOURCE_URL=jdbc:postgresql://localhost:5432/research_repo \
+#   SPRING_DATASOURCE_USERNAME=postgres SPRING_DATASOURCE_PASSWORD=... \
+#       scripts/bench/plan_report.sh [papers] [requests]
+#
+# Starts the application with the bench Maven profile, which adds src/bench to the build, and
+# the plan-report Spring profile on top of the test profile (dummy credentials, a free port).
+# BenchData seeds synthetic rows over JDBC, then PlanReportRunner sends every combination
+# through PaperSearchService and DocumentRequestService, so the SQL is the one the
+# Specifications generate, including the exact count and the keyset page after the first
+# cursor. Each query is run as EXPLAIN (ANALYZE, BUFFERS) with its real parameters once warm.
+# The seeded rows are removed again before the application exits.
+#
+# Writes plan-report.txt, one line per query ordered by name:
+#   case #query | verdict | scan nodes | shared buffers | ms
+# The first three columns are stable between runs, so `cut -d'|' -f1-3` of two reports diffs
+# cleanly between releases. A query FAILs on a sequential scan of research_papers,
+# document_requests or users, or above PLAN_MAX_BUFFERS (2000) shared buffers or PLAN_MAX_MS
+# (50) ms, and the script then exits non-zero. The baseline for the default sizes is kept in
+# scripts/bench/plan-report-baseline.txt.
+
+set -eu
+
+cd "$(dirname "$0")/../.."
+
+papers="${1:-200000}"
+requests="${2:-100000}"
+
+status=0
+./mvnw -q -Pbench spring-boot:run \
+    -Dspring-boot.run.profiles="${PLAN_PROFILES:-test},plan-report" \
+    -Dspring-boot.run.arguments="--app.plan-report.papers=$papers --app.plan-report.requests=$requests --app.plan-report.max-buffers=${PLAN_MAX_BUFFERS:-2000} --app.plan-report.max-ms=${PLAN_MAX_MS:-50} --app.plan-report.output=plan-report.txt ${PLAN_ARGUMENTS:-}" \
+    || status=$?
+
+if [ "$status" -ne 0 ]; then
+    echo "Query plan report failed, see plan-report.txt and the log above" >&2
+fi
+exit "$status"
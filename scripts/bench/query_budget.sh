@@ -0,0 +1,34 @@
+#!/bin/sh
+# Statement count of every @QueryBudget endpoint against its budget.
+#
+# Run against a disposable database that Flyway has migrated, never production:
+#   SPRING_DATASOURCE_URL=jdbc:postgresql://localhost:5432/research_repo \
+#   SPRING_DATASOURCE_USERNAME=postgres SPRING_DATASOURCE_PASSWORD=... \
+#       scripts/bench/query_budget.sh
+#
+# Starts the application with the bench Maven profile and the query-budget-report Spring
+# profile on top of the test profile, which enforces the budgets. QueryBudgetRunner seeds
+# synthetic rows, calls every budgeted endpoint over HTTP twice, cold and warm, reads the
+# statements QueryBudgetInspector recorded and removes the seeded rows again.
+#
+# Writes query-budget.txt, one line per call:
+#   endpoint | case | run | statements | budget | status | verdict
+# and exits non-zero when a call went over its budget or did not succeed, or a budgeted
+# endpoint was not called, so CI can run it against a throwaway database. Pass
+# --app.query-budget.enforce=false in QUERY_BUDGET_ARGUMENTS to measure the exact count of an
+# endpoint that goes over. The last run is kept in scripts/bench/query-budget-baseline.txt.
+
+set -eu
+
+cd "$(dirname "$0")/../.."
+
+status=0
+./mvnw -q -Pbench spring-boot:run \
+    -Dspring-boot.run.profiles="${QUERY_BUDGET_PROFILES:-test},query-budget-report" \
+    -Dspring-boot.run.arguments="--app.query-budget-report.output=query-budget.txt ${QUERY_BUDGET_ARGUMENTS:-}" \
+    || status=$?
+
+if [ "$status" -ne 0 ]; then
+    echo "Query budget report failed, see query-budget.txt and the log above" >&2
+fi
+exit "$status"
@@ -0,0 +1,38 @@
+#!/bin/sh
+# Lost update check and throughput of the admin request decisions.
+#
+# Run against a disposable database that Flyway has migrated, never production:
+#   SPRING_DATASOURCE_URL=jdbc:postgresql://localhost:5432/research_repo \
+#   SPRING_DATASOURCE_USERNAME=postgres SPRING_DATASOURCE_PASSWORD=... \
+#       scripts/bench/request_transitions.sh [requests] [threads]
+#
+# Starts the application with the bench Maven profile and the transitions-report Spring profile
+# on top of the test profile. RequestTransitionsRunner seeds pending requests, then calls
+# DocumentRequestService.acceptRequest and rejectRequest on the same requests from a thread
+# pool, and repeats the same calls with a SELECT ... FOR UPDATE variant. It checks that no
+# decision was lost, counts the REQUEST_STATE_CONFLICT answers and removes the seeded rows.
+#
+# Writes request-transitions.txt, one line per variant:
+#   variant | verdict | applied | conflict | already final | errors | lost updates |
+#   statistics drift | seconds | calls/s
+# and exits non-zero when a variant lost an update, left the department statistics off or
+# failed a call unexpectedly. A baseline run is kept in
+# scripts/bench/request-transitions-baseline.txt.
+
+set -eu
+
+cd "$(dirname "$0")/../.."
+
+requests="${1:-500}"
+threads="${2:-8}"
+
+status=0
+./mvnw -q -Pbench spring-boot:run \
+    -Dspring-boot.run.profiles="${TRANSITIONS_PROFILES:-test},transitions-report" \
+    -Dspring-boot.run.arguments="--app.transitions-report.requests=$requests --app.transitions-report.threads=$threads --app.transitions-report.output=request-transitions.txt ${TRANSITIONS_ARGUMENTS:-}" \
+    || status=$?
+
+if [ "$status" -ne 0 ]; then
+    echo "Request transitions report failed, see request-transitions.txt and the log above" >&2
+fi
+exit "$status"
@@ -0,0 +1,18 @@
+#!/bin/sh
+# JMH benchmark of SnippetHighlighter, see SnippetHighlighterBenchmark under src/bench.
+#
+#   scripts/bench/snippet_highlighter.sh [JMH options]
+#
+# Compiles with the bench Maven profile, which adds src/bench and JMH to the build, then runs
+# the benchmark in its own forked JVM. Extra arguments go to JMH, for example
+# `-p length=1000` or `-rf json -rff snippet-highlighter.json`. The results for the default
+# parameters are kept in scripts/bench/snippet-highlighter-baseline.txt.
+
+set -eu
+
+cd "$(dirname "$0")/../.."
+
+./mvnw -q -Pbench compile dependency:build-classpath \
+    -Dmdep.outputFile=target/bench-classpath.txt -Dmdep.includeScope=runtime
+
+exec java -cp "target/classes:$(cat target/bench-classpath.txt)" org.openjdk.jmh.Main SnippetHighlighterBenchmark "$@"
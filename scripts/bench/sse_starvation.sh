@@ -0,0 +1,18 @@
+#!/bin/sh
+# Checks that a few stalled event stream clients do not starve the other streams, see
+# SseStarvationCheck under src/bench. Needs no database.
+#
+#   scripts/bench/sse_starvation.sh
+#
+# Compiles with the bench Maven profile and runs the check, which exits non-zero when an idle
+# stream waited longer than the send timeout plus a second for its event. The output of the
+# last run is kept in scripts/bench/sse-starvation-baseline.txt.
+
+set -eu
+
+cd "$(dirname "$0")/../.."
+
+./mvnw -q -Pbench compile dependency:build-classpath \
+    -Dmdep.outputFile=target/bench-classpath.txt -Dmdep.includeScope=runtime
+
+exec java -cp "target/classes:$(cat target/bench-classpath.txt)" com.acd.researchrepo.service.SseStarvationCheck
@@ -0,0 +1,98 @@
+package com.acd.researchrepo.bench;
+
+import com.acd.researchrepo.service.DepartmentStatisticsService;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Synthetic users, papers and requests for the benchmarks, added to a
+ * disposable database that Flyway has migrated, never production. Every seeded
+ * row is recognisable, users by their bench-N@example.invalid email and papers
+ * by their bench/ file path, so {@link #cleanup()} removes exactly what
+ * {@link #seed(int, int, int)} added. Requests go with their papers. The
+ * department statistics are recounted after both, the inserts and deletes
+ * bypass the services that keep them current.
+ */
+@Slf4j
+@Component
+@Profile({ "plan-report", "transitions-report", "query-budget-report" })
+public class BenchData {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DepartmentStatisticsService departmentStatisticsService;
+
+    public BenchData(JdbcTemplate jdbcTemplate, DepartmentStatisticsService departmentStatisticsService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.departmentStatisticsService = departmentStatisticsService;
+    }
+
+    /**
+     * Adds the rows in three set-based inserts and refreshes the planner
+     * statistics, a request for every one of the first requests papers, spread
+     * round robin over the users.
+     */
+    public void seed(int papers, int requests, int users) {
+        cleanup();
+        log.info("Seeding {} users, {} papers and {} requests", users, papers, requests);
+
+        jdbcTemplate.update("""
+                INSERT INTO users (email, full_name, role, department_id)
+                SELECT 'bench-' || g || '@example.invalid',
+                       'Bench User ' || g,
+                       'STUDENT',
+                       d.ids[1 + g % array_length(d.ids, 1)]
+                FROM generate_series(1, ?) g,
+                     (SELECT array_agg(department_id) AS ids FROM departments) d
+                """, users);
+
+        jdbcTemplate.update("""
+                INSERT INTO research_papers (title, author_name, abstract_text, file_path, department_id,
+                                             submission_date, archived)
+                SELECT 'Study of topic' || (g % 1000) || ' in context ' || g,
+                       'Bench Author ' || (g % 5000),
+                       'Seeded abstract ' || g,
+                       'bench/' || g || '.pdf',
+                       d.ids[1 + g % array_length(d.ids, 1)],
+                       DATE '2000-01-01' + (g % 9125),
+                       g % 10 = 0
+                FROM generate_series(1, ?) g,
+                     (SELECT array_agg(department_id) AS ids FROM departments) d
+                """, papers);
+
+        jdbcTemplate.update("""
+                INSERT INTO document_requests (user_id, paper_id, status, created_at)
+                SELECT u.user_id,
+                       p.paper_id,
+                       (ARRAY['PENDING', 'ACCEPTED', 'REJECTED'])[1 + p.rn % 3],
+                       now() - make_interval(mins => p.rn::int)
+                FROM (SELECT paper_id, row_number() OVER (ORDER BY paper_id) AS rn
+                      FROM research_papers WHERE file_path LIKE 'bench/%') p
+                JOIN (SELECT user_id, row_number() OVER (ORDER BY user_id) - 1 AS un
+                      FROM users WHERE email LIKE 'bench-%@example.invalid') u ON u.un = p.rn % ?
+                WHERE p.rn <= ?
+                """, users, requests);
+
+        analyze();
+    }
+
+    /**
+     * Removes every seeded row again.
+     */
+    public void cleanup() {
+        jdbcTemplate.update("DELETE FROM research_papers WHERE file_path LIKE 'bench/%'");
+        jdbcTemplate.update("DELETE FROM users WHERE email LIKE 'bench-%@example.invalid'");
+        analyze();
+    }
+
+    // Outside a transaction, VACUUM refuses to run inside one
+    private void analyze() {
+        jdbcTemplate.execute("VACUUM ANALYZE users");
+        jdbcTemplate.execute("VACUUM ANALYZE research_papers");
+        jdbcTemplate.execute("VACUUM ANALYZE document_requests");
+        departmentStatisticsService.reconcile();
+    }
+}
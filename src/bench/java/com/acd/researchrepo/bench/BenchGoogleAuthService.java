@@ -0,0 +1,36 @@
+package com.acd.researchrepo.bench;
+
+import com.acd.researchrepo.dto.internal.GoogleUserInfo;
+import com.acd.researchrepo.environment.AppProperties;
+import com.acd.researchrepo.service.GoogleAuthService;
+import com.acd.researchrepo.service.PrivilegedUserConfigLoader;
+
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+/**
+ * Stands in for Google during the query budget report, so POST /api/auth/google
+ * runs everything but the code exchange, which talks to Google and runs no
+ * statement. The authorization code is taken as the user's email.
+ */
+@Primary
+@Service
+@Profile("query-budget-report")
+public class BenchGoogleAuthService extends GoogleAuthService {
+
+    public BenchGoogleAuthService(
+            AppProperties appProperties,
+            PrivilegedUserConfigLoader privilegedUserConfigLoader) {
+        super(appProperties, privilegedUserConfigLoader);
+    }
+
+    @Override
+    public GoogleUserInfo validateCodeAndGetUserInfo(String authorizationCode) {
+        return GoogleUserInfo.builder()
+                .email(authorizationCode)
+                .name("Bench Google User")
+                .googleId(authorizationCode)
+                .build();
+    }
+}
@@ -0,0 +1,148 @@
+package com.acd.researchrepo.bench;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Wraps the application DataSource so that, while a capture is open on the
+ * current thread, every query is first run as EXPLAIN (ANALYZE, BUFFERS, FORMAT
+ * JSON) with the same SQL and the same bound parameters, on the same connection
+ * and in the same transaction. The query itself then runs as usual, so the
+ * caller sees no difference. Only loaded with the plan-report profile.
+ */
+@Component
+@Profile("plan-report")
+public class PlanCapture implements BeanPostProcessor {
+
+    private static final String EXPLAIN = "EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON) ";
+    private static final Pattern FROM = Pattern.compile("\\bfrom\\b");
+
+    private static final ThreadLocal<List<CapturedPlan>> CURRENT = new ThreadLocal<>();
+
+    /**
+     * One query Hibernate ran while the capture was open, with its plan.
+     */
+    public record CapturedPlan(String sql, String planJson) {
+    }
+
+    /**
+     * Starts capturing the queries of the current thread.
+     */
+    public void open() {
+        CURRENT.set(new ArrayList<>());
+    }
+
+    /**
+     * @return the queries captured since {@link #open()}, in execution order
+     */
+    public List<CapturedPlan> close() {
+        List<CapturedPlan> captured = CURRENT.get();
+        CURRENT.remove();
+        return captured == null ? List.of() : captured;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof CapturingDataSource)) {
+            return new CapturingDataSource(dataSource);
+        }
+        return bean;
+    }
+
+    private static final class CapturingDataSource extends DelegatingDataSource {
+
+        private CapturingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return connection(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return connection(super.getConnection(username, password));
+        }
+    }
+
+    private static Connection connection(Connection target) {
+        return proxy(Connection.class, (proxy, method, args) -> {
+            Object result = invoke(target, method, args);
+            if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+                return statement(target, (String) args[0], statement);
+            }
+            return result;
+        });
+    }
+
+    // Records the parameter setters so they can be replayed on the EXPLAIN statement
+    private static PreparedStatement statement(Connection connection, String sql, PreparedStatement target) {
+        Map<Integer, Object[]> bindings = new TreeMap<>();
+        return proxy(PreparedStatement.class, (proxy, method, args) -> {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                bindings.put(index, new Object[] { method, args });
+            } else if (name.equals("clearParameters")) {
+                bindings.clear();
+            } else if (name.equals("executeQuery") && args == null) {
+                List<CapturedPlan> captured = CURRENT.get();
+                if (captured != null && readsTables(sql)) {
+                    captured.add(new CapturedPlan(sql, explain(connection, sql, bindings)));
+                }
+            }
+            return invoke(target, method, args);
+        });
+    }
+
+    private static String explain(Connection connection, String sql, Map<Integer, Object[]> bindings)
+            throws SQLException, ReflectiveOperationException {
+        try (PreparedStatement explain = connection.prepareStatement(EXPLAIN + sql)) {
+            for (Object[] binding : bindings.values()) {
+                ((Method) binding[0]).invoke(explain, (Object[]) binding[1]);
+            }
+            try (ResultSet plan = explain.executeQuery()) {
+                plan.next();
+                return plan.getString(1);
+            }
+        }
+    }
+
+    // Skips set_config and similar calls, they have no plan worth checking
+    private static boolean readsTables(String sql) {
+        String normalized = sql.stripLeading().toLowerCase(Locale.ROOT);
+        return (normalized.startsWith("select") || normalized.startsWith("with")) && FROM.matcher(normalized).find();
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(PlanCapture.class.getClassLoader(), new Class<?>[] { type }, handler);
+    }
+}
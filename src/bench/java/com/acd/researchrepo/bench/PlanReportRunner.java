@@ -0,0 +1,369 @@
+package com.acd.researchrepo.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+
+import com.acd.researchrepo.dto.external.papers.PaginatedResponse;
+import com.acd.researchrepo.dto.external.papers.ResearchPaperSearchRequest;
+import com.acd.researchrepo.dto.external.requests.DocumentRequestSearchRequest;
+import com.acd.researchrepo.dto.internal.PaperSearchCriteria;
+import com.acd.researchrepo.model.Department;
+import com.acd.researchrepo.model.RequestStatus;
+import com.acd.researchrepo.model.User;
+import com.acd.researchrepo.model.UserRole;
+import com.acd.researchrepo.repository.DepartmentRepository;
+import com.acd.researchrepo.repository.UserRepository;
+import com.acd.researchrepo.security.CustomUserPrincipal;
+import com.acd.researchrepo.service.DocumentRequestService;
+import com.acd.researchrepo.service.PaperSearchService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Query plan report for every filter and sort combination of the paper and
+ * request listings. Each combination goes through the real search services, so
+ * the SQL is what ResearchPaperSpec.build / buildAdmin and
+ * DocumentRequestSpec.adminRequestFilter / userRequestFilter generate: the
+ * offset page, its exact count and the keyset page that follows the returned
+ * cursor. {@link PlanCapture} explains every query as it runs.
+ * <p>
+ * Runs once at startup with the plan-report profile, see
+ * scripts/bench/plan_report.sh: seeds {@link BenchData}, writes one line per
+ * query, removes the seeded rows and exits non-zero when a query scans
+ * research_papers, document_requests or users sequentially or goes over the
+ * buffer or time budget.
+ */
+@Slf4j
+@Component
+@Profile("plan-report")
+public class PlanReportRunner implements ApplicationRunner {
+
+    private static final Set<String> NO_SEQ_SCAN = Set.of("research_papers", "document_requests", "users");
+
+    // Seeded by BenchData
+    private static final String BENCH_USER_EMAIL = "bench-1@example.invalid";
+    private static final String FTS_TERM = "topic417";
+    private static final String FUZZY_TERM = "topic41";
+    private static final String REQUEST_TERM = "bench user 17";
+
+    private final PaperSearchService paperSearchService;
+    private final DocumentRequestService documentRequestService;
+    private final DepartmentRepository departmentRepository;
+    private final UserRepository userRepository;
+    private final PlanCapture planCapture;
+    private final BenchData benchData;
+    private final ConfigurableApplicationContext context;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final long maxBuffers;
+    private final double maxMs;
+    private final Path output;
+    private final int papers;
+    private final int requests;
+    private final int users;
+
+    public PlanReportRunner(
+            PaperSearchService paperSearchService,
+            DocumentRequestService documentRequestService,
+            DepartmentRepository departmentRepository,
+            UserRepository userRepository,
+            PlanCapture planCapture,
+            BenchData benchData,
+            ConfigurableApplicationContext context,
+            @Value("${app.plan-report.max-buffers:2000}") long maxBuffers,
+            @Value("${app.plan-report.max-ms:50}") double maxMs,
+            @Value("${app.plan-report.output:plan-report.txt}") Path output,
+            @Value("${app.plan-report.papers:200000}") int papers,
+            @Value("${app.plan-report.requests:100000}") int requests,
+            @Value("${app.plan-report.users:5000}") int users) {
+        this.paperSearchService = paperSearchService;
+        this.documentRequestService = documentRequestService;
+        this.departmentRepository = departmentRepository;
+        this.userRepository = userRepository;
+        this.planCapture = planCapture;
+        this.benchData = benchData;
+        this.context = context;
+        this.maxBuffers = maxBuffers;
+        this.maxMs = maxMs;
+        this.output = output;
+        this.papers = papers;
+        this.requests = requests;
+        this.users = users;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        long failed;
+        benchData.seed(papers, requests, users);
+        try {
+            failed = report();
+        } finally {
+            benchData.cleanup();
+        }
+        System.exit(SpringApplication.exit(context, () -> failed > 0 ? 1 : 0));
+    }
+
+    // Number of queries that failed
+    private long report() throws IOException {
+        List<Integer> departmentIds = departmentRepository.findAll(Sort.by("departmentId")).stream()
+                .map(Department::getDepartmentId)
+                .toList();
+        if (departmentIds.size() < 2) {
+            throw new IllegalStateException("The plan report needs at least two departments");
+        }
+        User benchUser = userRepository.findByEmail(BENCH_USER_EMAIL)
+                .orElseThrow(() -> new IllegalStateException("BenchData did not seed " + BENCH_USER_EMAIL));
+
+        List<Line> lines = new ArrayList<>();
+        paperCases(departmentIds).forEach((name, run) -> lines.addAll(measure(name, run)));
+        requestCases(departmentIds.get(0), benchUser).forEach((name, run) -> lines.addAll(measure(name, run)));
+        lines.sort(Comparator.comparing(Line::name));
+
+        List<String> report = new ArrayList<>();
+        for (Line line : lines) {
+            report.add(String.join(" | ", line.name(), line.verdict(), line.scans(),
+                    Long.toString(line.buffers()), String.format("%.2f", line.ms())));
+        }
+        long failed = lines.stream().filter(line -> !line.passed()).count();
+        report.add(failed + " of " + lines.size() + " queries failed");
+        Files.write(output, report);
+
+        log.info("Plan report: {} of {} queries failed, written to {}", failed, lines.size(), output.toAbsolutePath());
+        return failed;
+    }
+
+    // Name of the combination -> the searches it runs, first page then the keyset page after it
+    private Map<String, Runnable> paperCases(List<Integer> departmentIds) {
+        Map<String, Runnable> cases = new TreeMap<>();
+        Map<String, List<Integer>> departments = Map.of(
+                "all", List.of(),
+                "one", List.of(departmentIds.get(0)),
+                "two", departmentIds.subList(0, 2));
+        Map<String, List<Integer>> years = Map.of(
+                "all", List.of(),
+                "one", List.of(2015),
+                "three", List.of(2010, 2015, 2020));
+        Map<String, PaperSearch> searches = Map.of(
+                "none", new PaperSearch(null, false),
+                "fts", new PaperSearch(FTS_TERM, false),
+                "fuzzy", new PaperSearch(FUZZY_TERM, true));
+        Map<String, Boolean> archivedFilters = new HashMap<>();
+        archivedFilters.put("any", null);
+        archivedFilters.put("active", false);
+        archivedFilters.put("archived", true);
+
+        for (boolean admin : new boolean[] { false, true }) {
+            searches.forEach((searchName, search) -> departments.forEach((departmentName, departmentFilter) ->
+                    years.forEach((yearName, yearFilter) -> archivedFilters.forEach((archivedName, archived) -> {
+                        // Students only ever list active papers
+                        if (!admin && !"active".equals(archivedName)) {
+                            return;
+                        }
+                        for (String sortBy : List.of("title", "authorName", "submissionDate", "relevance")) {
+                            for (String sortOrder : List.of("desc", "asc")) {
+                                if ("relevance".equals(sortBy) && (search.term() == null || "asc".equals(sortOrder))) {
+                                    continue;
+                                }
+                                String name = String.format(
+                                        "papers mode=%s search=%s dept=%s years=%s archived=%s sort=%s %s",
+                                        admin ? "admin" : "public", searchName, departmentName, yearName,
+                                        archivedName, sortBy, sortOrder);
+                                cases.put(name, () -> searchPapers(
+                                        admin, search.term(), search.fuzzy(), departmentFilter,
+                                        yearFilter, archived, sortBy, sortOrder));
+                            }
+                        }
+                    }))));
+        }
+        return cases;
+    }
+
+    private Map<String, Runnable> requestCases(Integer departmentId, User benchUser) {
+        Map<String, Runnable> cases = new TreeMap<>();
+        CustomUserPrincipal user = new CustomUserPrincipal(benchUser, Map.of());
+        CustomUserPrincipal superAdmin = new CustomUserPrincipal(
+                User.builder().userId(0).email("plan-report@example.invalid").role(UserRole.SUPER_ADMIN).build(),
+                Map.of());
+        Map<String, List<RequestStatus>> statuses = Map.of(
+                "all", List.of(),
+                "one", List.of(RequestStatus.PENDING),
+                "two", List.of(RequestStatus.PENDING, RequestStatus.ACCEPTED));
+        Map<String, String> searches = new HashMap<>();
+        searches.put("none", null);
+        searches.put("term", REQUEST_TERM);
+
+        for (boolean admin : new boolean[] { false, true }) {
+            for (String departmentName : admin ? List.of("all", "one") : List.of("all")) {
+                Integer departmentFilter = "one".equals(departmentName) ? departmentId : null;
+                statuses.forEach((statusName, statusFilter) -> searches.forEach((searchName, search) -> {
+                    for (String sortBy : List.of("createdAt", "status", "paper.title", "user.fullName")) {
+                        for (String sortOrder : List.of("desc", "asc")) {
+                            String name = String.format(
+                                    "requests mode=%s dept=%s status=%s search=%s sort=%s %s",
+                                    admin ? "admin" : "user", departmentName, statusName, searchName, sortBy,
+                                    sortOrder);
+                            cases.put(name, () -> searchRequests(
+                                    admin ? superAdmin : user, admin, departmentFilter, statusFilter, search,
+                                    sortBy, sortOrder));
+                        }
+                    }
+                }));
+            }
+        }
+        return cases;
+    }
+
+    // Built like ResearchPaperService.getPapers and getAdminPapers, without the result cache in front
+    private void searchPapers(
+            boolean admin,
+            String search,
+            boolean fuzzy,
+            List<Integer> departmentIds,
+            List<Integer> years,
+            Boolean archived,
+            String sortBy,
+            String sortOrder) {
+
+        ResearchPaperSearchRequest request = new ResearchPaperSearchRequest();
+        request.setSearch(search);
+        request.setFuzzy(fuzzy);
+        request.setDepartmentId(departmentIds);
+        request.setYear(years);
+        request.setArchived(archived);
+        request.setCount("exact");
+        request.setSortBy(sortBy);
+        request.setSortOrder(sortOrder);
+
+        Supplier<PaperSearchCriteria> criteria = () -> PaperSearchCriteria.builder()
+                .request(request)
+                .departmentIds(departmentIds)
+                .archived(archived)
+                .admin(admin)
+                .onlyActive(!admin)
+                .build();
+        PaginatedResponse<?> firstPage = paperSearchService.search(criteria.get());
+        if (firstPage.getNextCursor() != null) {
+            request.setAfter(firstPage.getNextCursor());
+            paperSearchService.search(criteria.get());
+        }
+    }
+
+    private void searchRequests(
+            CustomUserPrincipal principal,
+            boolean admin,
+            Integer departmentId,
+            List<RequestStatus> statuses,
+            String search,
+            String sortBy,
+            String sortOrder) {
+
+        DocumentRequestSearchRequest request = new DocumentRequestSearchRequest();
+        request.setDepartmentId(departmentId);
+        request.setStatus(statuses);
+        request.setSearch(search);
+        request.setCount("exact");
+        request.setSortBy(sortBy);
+        request.setSortOrder(sortOrder);
+
+        Supplier<PaginatedResponse<?>> page = () -> admin
+                ? documentRequestService.getAdminRequests(request, principal)
+                : documentRequestService.getUserDocumentRequests(principal, request);
+        PaginatedResponse<?> firstPage = page.get();
+        if (firstPage.getNextCursor() != null) {
+            request.setAfter(firstPage.getNextCursor());
+            page.get();
+        }
+    }
+
+    // Runs the combination once to warm the cache, then again with every query explained
+    private List<Line> measure(String name, Runnable run) {
+        run.run();
+        planCapture.open();
+        List<PlanCapture.CapturedPlan> plans;
+        try {
+            run.run();
+        } finally {
+            plans = planCapture.close();
+        }
+
+        List<Line> lines = new ArrayList<>();
+        for (int i = 0; i < plans.size(); i++) {
+            lines.add(line(String.format("%s #%d", name, i + 1), plans.get(i)));
+        }
+        return lines;
+    }
+
+    private Line line(String name, PlanCapture.CapturedPlan captured) {
+        JsonNode plan;
+        try {
+            plan = objectMapper.readTree(captured.planJson()).get(0);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unreadable plan for " + name, e);
+        }
+
+        Set<String> scans = new TreeSet<>();
+        Set<String> seqScanned = new TreeSet<>();
+        collectScans(plan.get("Plan"), scans, seqScanned);
+        JsonNode root = plan.get("Plan");
+        long buffers = root.path("Shared Hit Blocks").asLong() + root.path("Shared Read Blocks").asLong();
+        double ms = plan.path("Execution Time").asDouble();
+
+        List<String> failures = new ArrayList<>();
+        if (!seqScanned.isEmpty()) {
+            failures.add("seq scan on " + String.join(", ", seqScanned));
+        }
+        if (buffers > maxBuffers) {
+            failures.add("buffers > " + maxBuffers);
+        }
+        if (ms > maxMs) {
+            failures.add("ms > " + maxMs);
+        }
+        String verdict = failures.isEmpty() ? "PASS" : "FAIL (" + String.join(", ", failures) + ")";
+        if (!failures.isEmpty()) {
+            log.warn("{}: {}\n{}", name, verdict, captured.sql());
+        }
+        return new Line(name, failures.isEmpty(), verdict, String.join(", ", scans), buffers, ms);
+    }
+
+    private static void collectScans(JsonNode node, Set<String> scans, Set<String> seqScanned) {
+        String relation = node.path("Relation Name").asText(null);
+        String index = node.path("Index Name").asText(null);
+        String type = node.path("Node Type").asText();
+        if (relation != null || index != null) {
+            scans.add(type + " " + (index != null ? index : relation));
+        }
+        if ("Seq Scan".equals(type) && NO_SEQ_SCAN.contains(relation)) {
+            seqScanned.add(relation);
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectScans(child, scans, seqScanned);
+        }
+    }
+
+    private record PaperSearch(String term, boolean fuzzy) {
+    }
+
+    private record Line(String name, boolean passed, String verdict, String scans, long buffers, double ms) {
+    }
+}
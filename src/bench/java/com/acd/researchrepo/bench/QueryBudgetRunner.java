@@ -0,0 +1,484 @@
+package com.acd.researchrepo.bench;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+import com.acd.researchrepo.config.QueryBudget;
+import com.acd.researchrepo.environment.AppProperties;
+import com.acd.researchrepo.model.User;
+import com.acd.researchrepo.model.UserRole;
+import com.acd.researchrepo.repository.UserRepository;
+import com.acd.researchrepo.service.JwtService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Measures the statements every {@link QueryBudget} endpoint runs and fails
+ * when one goes over its budget. Each endpoint is called over HTTP twice
+ * against the seeded database, the first call on cold caches, with a student or
+ * super admin token minted by JwtService. The count
+ * is the one QueryBudgetInspector records as http.server.requests.statements,
+ * so it includes the after-commit listeners on the request thread.
+ * <p>
+ * Runs once at startup with the query-budget-report profile, which also turns
+ * app.query-budget.enforce on, see scripts/bench/query_budget.sh. Writes one line
+ * per call and exits non-zero when a call went over budget or did not succeed,
+ * or when a budgeted endpoint is not called at all.
+ * POST /api/auth/google goes through {@link BenchGoogleAuthService}, everything
+ * but the exchange with Google.
+ */
+@Slf4j
+@Component
+@Profile("query-budget-report")
+public class QueryBudgetRunner implements ApplicationRunner {
+
+    private static final String STATEMENTS = "http.server.requests.statements";
+    private static final Duration RECORD_TIMEOUT = Duration.ofSeconds(10);
+    private static final int RUNS = 2;
+
+    private final BenchData benchData;
+    private final JdbcTemplate jdbcTemplate;
+    private final UserRepository userRepository;
+    private final JwtService jwtService;
+    private final MeterRegistry meterRegistry;
+    private final RequestMappingHandlerMapping handlerMapping;
+    private final Environment environment;
+    private final ConfigurableApplicationContext context;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    private final String refreshCookie;
+    private final Path uploadDir;
+    private final Path output;
+
+    public QueryBudgetRunner(
+            BenchData benchData,
+            JdbcTemplate jdbcTemplate,
+            UserRepository userRepository,
+            JwtService jwtService,
+            MeterRegistry meterRegistry,
+            @Qualifier("requestMappingHandlerMapping") RequestMappingHandlerMapping handlerMapping,
+            Environment environment,
+            ConfigurableApplicationContext context,
+            AppProperties appProperties,
+            @Value("${app.query-budget-report.output:query-budget.txt}") Path output) {
+        this.benchData = benchData;
+        this.jdbcTemplate = jdbcTemplate;
+        this.userRepository = userRepository;
+        this.jwtService = jwtService;
+        this.meterRegistry = meterRegistry;
+        this.handlerMapping = handlerMapping;
+        this.environment = environment;
+        this.context = context;
+        this.refreshCookie = appProperties.getToken().getRefreshTokenCookieName();
+        this.uploadDir = Path.of(appProperties.getStorage().getUploadDir());
+        this.output = output;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        Map<String, Integer> budgets = budgets();
+        List<Line> lines = new ArrayList<>();
+        Path download = null;
+        benchData.seed(2000, 1000, 50);
+        try {
+            Fixture fixture = fixture();
+            download = uploadDir.resolve(fixture.downloadPath());
+            Files.createDirectories(download.getParent());
+            Files.write(download, "%PDF-1.4\n".getBytes(StandardCharsets.US_ASCII));
+
+            for (Call call : calls(fixture)) {
+                for (int run = 0; run < RUNS; run++) {
+                    lines.add(measure(call, run, budgets.get(call.endpoint())));
+                }
+            }
+        } finally {
+            if (download != null) {
+                Files.deleteIfExists(download);
+            }
+            benchData.cleanup();
+        }
+
+        // A budget no call measures is a number nobody checked
+        List<String> uncalled = new ArrayList<>(budgets.keySet());
+        lines.forEach(line -> uncalled.remove(line.endpoint()));
+        Collections.sort(uncalled);
+
+        List<String> report = new ArrayList<>();
+        report.add("endpoint | case | run | statements | budget | status | verdict");
+        for (Line line : lines) {
+            report.add(String.join(" | ", line.endpoint(), line.name(), line.run() == 0 ? "cold" : "warm",
+                    Long.toString(line.statements()), Integer.toString(line.budget()),
+                    Integer.toString(line.status()), line.passed() ? "PASS" : "FAIL"));
+        }
+        for (String endpoint : uncalled) {
+            log.warn("{} has a budget but no call", endpoint);
+            report.add(endpoint + " | not called | - | - | " + budgets.get(endpoint) + " | - | FAIL");
+        }
+        long failed = lines.stream().filter(line -> !line.passed()).count() + uncalled.size();
+        int checks = lines.size() + uncalled.size();
+        report.add(failed + " of " + checks + " checks failed");
+        Files.write(output, report);
+
+        log.info("Query budget report: {} of {} checks failed, written to {}",
+                failed, checks, output.toAbsolutePath());
+        System.exit(SpringApplication.exit(context, () -> failed > 0 ? 1 : 0));
+    }
+
+    // Rows of the seed the calls work on, each write gets rows of its own
+    private Fixture fixture() {
+        Map<String, Object> accepted = jdbcTemplate.queryForMap("""
+                SELECT dr.user_id, p.paper_id, p.file_path FROM document_requests dr
+                JOIN research_papers p ON p.paper_id = dr.paper_id
+                WHERE p.file_path LIKE 'bench/%' AND NOT p.archived AND dr.status = 'ACCEPTED'
+                ORDER BY dr.request_id LIMIT 1
+                """);
+        User student = userRepository.findById((Integer) accepted.get("user_id")).orElseThrow();
+        User admin = userRepository.findByEmail("bench-2@example.invalid").orElseThrow();
+        admin.setRole(UserRole.SUPER_ADMIN);
+
+        List<Integer> pending = jdbcTemplate.queryForList("""
+                SELECT dr.request_id FROM document_requests dr
+                JOIN research_papers p ON p.paper_id = dr.paper_id
+                WHERE p.file_path LIKE 'bench/%' AND NOT p.archived AND dr.status = 'PENDING'
+                ORDER BY dr.request_id LIMIT ?
+                """, Integer.class, 2 * RUNS);
+        List<Integer> unrequested = jdbcTemplate.queryForList("""
+                SELECT p.paper_id FROM research_papers p
+                WHERE p.file_path LIKE 'bench/%' AND NOT p.archived
+                  AND NOT EXISTS (SELECT 1 FROM document_requests dr WHERE dr.paper_id = p.paper_id)
+                ORDER BY p.paper_id LIMIT ?
+                """, Integer.class, 5 * RUNS);
+        // From the other end of the pending requests, apart from the ones decided above
+        List<Integer> requested = jdbcTemplate.queryForList("""
+                SELECT dr.paper_id FROM document_requests dr
+                JOIN research_papers p ON p.paper_id = dr.paper_id
+                WHERE p.file_path LIKE 'bench/%' AND NOT p.archived AND dr.status = 'PENDING'
+                ORDER BY dr.request_id DESC LIMIT ?
+                """, Integer.class, RUNS);
+
+        // One user per token, issuing a refresh token revokes the user's others
+        List<String> refreshTokens = new ArrayList<>();
+        for (int i = 0; i < 2 * RUNS; i++) {
+            String token = UUID.randomUUID().toString();
+            jdbcTemplate.update("""
+                    INSERT INTO refresh_tokens (user_id, token, expires_at)
+                    SELECT user_id, ?, ? FROM users WHERE email = ?
+                    """, token, LocalDateTime.now().plusHours(1), "bench-" + (10 + i) + "@example.invalid");
+            refreshTokens.add(token);
+        }
+
+        return new Fixture(
+                jwtService.generateAccessToken(student),
+                jwtService.generateAccessToken(admin),
+                student.getDepartment().getDepartmentId(),
+                (Integer) accepted.get("paper_id"),
+                (String) accepted.get("file_path"),
+                pending,
+                unrequested,
+                requested,
+                refreshTokens,
+                Collections.synchronizedList(new ArrayList<>()),
+                Collections.synchronizedList(new ArrayList<>()),
+                Collections.synchronizedList(new ArrayList<>()));
+    }
+
+    private List<Call> calls(Fixture f) {
+        String paper = "/api/papers/" + f.acceptedPaperId();
+        List<Call> calls = new ArrayList<>();
+
+        // Student, reads
+        calls.add(get("GET /api/papers", "list", f.student(), run -> "/api/papers?count=exact"));
+        calls.add(get("GET /api/papers", "search", f.student(),
+                run -> "/api/papers?search=topic417&highlight=true&count=exact"));
+        calls.add(get("GET /api/papers", "fuzzy", f.student(),
+                run -> "/api/papers?search=topic41&fuzzy=true&count=exact"));
+        calls.add(get("GET /api/papers/suggest", "prefix", f.student(), run -> "/api/papers/suggest?q=topic4"));
+        calls.add(get("GET /api/papers/{id}", "accepted", f.student(), run -> paper));
+        calls.add(get("GET /api/papers/{id}/my-request", "accepted", f.student(), run -> paper + "/my-request"));
+        calls.add(get("GET /api/filters/years", "all", f.student(), run -> "/api/filters/years"));
+        calls.add(get("GET /api/filters/departments", "all", f.student(), run -> "/api/filters/departments"));
+        calls.add(get("GET /api/users/me", "student", f.student(), run -> "/api/users/me"));
+        calls.add(get("GET /api/users/me/requests", "student", f.student(), run -> "/api/users/me/requests"));
+        calls.add(get("GET /api/files/{paperId}", "accepted", f.student(), run -> "/api/files/" + f.acceptedPaperId()));
+        calls.add(stream("GET /api/users/me/requests/events", f.student(), "/api/users/me/requests/events"));
+
+        // Sign in, first as a new user and then again as the same user
+        calls.add(new Call("POST /api/auth/google", "new user",
+                run -> google("bench-google-" + run + "@example.invalid"), null));
+        calls.add(new Call("POST /api/auth/google", "returning user",
+                run -> google("bench-google-" + run + "@example.invalid"), null));
+
+        // Student, writes
+        calls.add(new Call("POST /api/requests", "unrequested paper",
+                run -> json(f.student(), "/api/requests")
+                        .POST(body("{\"paperId\":" + f.unrequested().get(run) + "}")).build(),
+                response -> f.createdRequests().add(read(response).path("requestId").asInt())));
+        calls.add(new Call("DELETE /api/requests/{requestId}", "pending",
+                run -> authorized(f.student(), "/api/requests/" + f.createdRequests().get(run)).DELETE().build(),
+                null));
+        calls.add(new Call("POST /api/auth/refresh", "valid token",
+                run -> cookie("/api/auth/refresh", f.refreshTokens().get(run)), null));
+        calls.add(new Call("POST /api/auth/logout", "valid token",
+                run -> cookie("/api/auth/logout", f.refreshTokens().get(RUNS + run)), null));
+
+        // Admin, reads
+        calls.add(get("GET /api/admin/papers", "list", f.admin(), run -> "/api/admin/papers?count=exact"));
+        calls.add(get("GET /api/admin/papers", "search", f.admin(),
+                run -> "/api/admin/papers?search=topic417&count=exact"));
+        calls.add(get("GET /api/admin/requests", "list", f.admin(), run -> "/api/admin/requests?count=exact"));
+        calls.add(get("GET /api/admin/requests", "department", f.admin(),
+                run -> "/api/admin/requests?count=exact&departmentId=" + f.departmentId()));
+        calls.add(get("GET /api/admin/statistics", "all", f.admin(), run -> "/api/admin/statistics"));
+        calls.add(stream("GET /api/admin/requests/events", f.admin(), "/api/admin/requests/events"));
+
+        // Admin, writes
+        calls.add(new Call("PUT /api/admin/requests/{requestId}/accept", "pending",
+                run -> json(f.admin(), "/api/admin/requests/" + f.pending().get(run) + "/accept")
+                        .PUT(HttpRequest.BodyPublishers.noBody()).build(),
+                null));
+        calls.add(new Call("PUT /api/admin/requests/{requestId}/reject", "pending",
+                run -> json(f.admin(), "/api/admin/requests/" + f.pending().get(RUNS + run) + "/reject")
+                        .PUT(body("{\"reason\":\"Query budget report\"}")).build(),
+                null));
+        calls.add(new Call("POST /api/admin/papers", "pdf", run -> multipart(f, run),
+                response -> f.createdPapers().add(read(response).path("paperId").asInt())));
+        calls.add(new Call("PUT /api/admin/papers/{id}", "all fields",
+                run -> json(f.admin(), "/api/admin/papers/" + f.createdPapers().get(run))
+                        .PUT(body("{\"title\":\"Query budget paper " + run + " revised\","
+                                + "\"authorName\":\"Query Budget\",\"abstractText\":\"Revised abstract\","
+                                + "\"departmentId\":" + f.departmentId() + ",\"submissionDate\":\"2021-03-04\"}"))
+                        .build(),
+                null));
+        calls.add(new Call("DELETE /api/admin/papers/{id}", "created",
+                run -> authorized(f.admin(), "/api/admin/papers/" + f.createdPapers().get(run)).DELETE().build(),
+                null));
+        calls.add(new Call("PUT /api/admin/papers/{id}/archive", "sync",
+                run -> authorized(f.admin(), "/api/admin/papers/" + f.unrequested().get(RUNS + run) + "/archive")
+                        .PUT(HttpRequest.BodyPublishers.noBody()).build(),
+                null));
+        calls.add(new Call("PUT /api/admin/papers/{id}/archive", "sync, pending request",
+                run -> authorized(f.admin(), "/api/admin/papers/" + f.requested().get(run) + "/archive")
+                        .PUT(HttpRequest.BodyPublishers.noBody()).build(),
+                null));
+        calls.add(new Call("PUT /api/admin/papers/{id}/unarchive", "archived",
+                run -> authorized(f.admin(), "/api/admin/papers/" + f.unrequested().get(RUNS + run) + "/unarchive")
+                        .PUT(HttpRequest.BodyPublishers.noBody()).build(),
+                null));
+        calls.add(new Call("PUT /api/admin/papers/{id}/archive", "async",
+                run -> authorized(f.admin(),
+                        "/api/admin/papers/" + f.unrequested().get(2 * RUNS + run) + "/archive?async=true")
+                        .PUT(HttpRequest.BodyPublishers.noBody()).build(),
+                response -> f.archiveJobs().add(read(response).path("jobId").asText())));
+        calls.add(get("GET /api/admin/papers/archive-jobs/{jobId}", "started", f.admin(),
+                run -> "/api/admin/papers/archive-jobs/" + f.archiveJobs().get(run)));
+
+        // The filter lists are loaded again on the first read after a paper change, once per role scope
+        calls.add(get("GET /api/filters/years", "after paper change", f.student(), run -> "/api/filters/years"));
+        calls.add(get("GET /api/filters/departments", "after paper change", f.admin(),
+                run -> "/api/filters/departments"));
+        return calls;
+    }
+
+    // Sends the call and reads back what the interceptor recorded for it
+    private Line measure(Call call, int run, Integer budget) throws Exception {
+        if (budget == null) {
+            throw new IllegalStateException("No @QueryBudget on " + call.endpoint());
+        }
+        DistributionSummary before = summary(call.endpoint());
+        long countBefore = before == null ? 0 : before.count();
+        double totalBefore = before == null ? 0 : before.totalAmount();
+
+        HttpRequest request = call.request().apply(run);
+        int status;
+        if (call.stream()) {
+            // The stream never ends, the statements are recorded when the handler returns
+            CompletableFuture<HttpResponse<Void>> response =
+                    httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding());
+            status = awaitRecorded(call.endpoint(), countBefore) ? 200 : 0;
+            response.cancel(true);
+        } else {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            status = response.statusCode();
+            if (status < 300 && call.onResponse() != null) {
+                call.onResponse().accept(response);
+            }
+            awaitRecorded(call.endpoint(), countBefore);
+        }
+
+        DistributionSummary after = summary(call.endpoint());
+        long statements = after == null || after.count() == countBefore ? -1
+                : Math.round(after.totalAmount() - totalBefore);
+        Line line = new Line(call.endpoint(), call.name(), run, statements, budget, status);
+        if (!line.passed()) {
+            log.warn("{} {} run {}: {} statements, budget {}, status {}",
+                    call.endpoint(), call.name(), run, statements, budget, status);
+        }
+        return line;
+    }
+
+    private boolean awaitRecorded(String endpoint, long countBefore) throws InterruptedException {
+        long deadline = System.nanoTime() + RECORD_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            DistributionSummary summary = summary(endpoint);
+            if (summary != null && summary.count() > countBefore) {
+                return true;
+            }
+            Thread.sleep(10);
+        }
+        return false;
+    }
+
+    private DistributionSummary summary(String endpoint) {
+        return meterRegistry.find(STATEMENTS).tag("endpoint", endpoint).summary();
+    }
+
+    // Read off the handlers, keyed like the interceptor tags them, so the report checks the numbers in the code
+    private Map<String, Integer> budgets() {
+        Map<String, Integer> budgets = new HashMap<>();
+        handlerMapping.getHandlerMethods().forEach((mapping, method) -> {
+            QueryBudget budget = method.getMethodAnnotation(QueryBudget.class);
+            if (budget != null) {
+                mapping.getMethodsCondition().getMethods().forEach(httpMethod -> mapping.getPatternValues()
+                        .forEach(pattern -> budgets.put(httpMethod + " " + pattern, budget.value())));
+            }
+        });
+        return budgets;
+    }
+
+    private Call get(String endpoint, String name, String token, IntFunction<String> path) {
+        return new Call(endpoint, name, run -> authorized(token, path.apply(run)).GET().build(), null);
+    }
+
+    private Call stream(String endpoint, String token, String path) {
+        return new Call(endpoint, "connect", run -> authorized(token, path).GET()
+                .header("Accept", "text/event-stream").build(), null, true);
+    }
+
+    private HttpRequest.Builder authorized(String token, String path) {
+        return HttpRequest.newBuilder(uri(path)).header("Authorization", "Bearer " + token);
+    }
+
+    private HttpRequest.Builder json(String token, String path) {
+        return authorized(token, path).header("Content-Type", "application/json");
+    }
+
+    private HttpRequest cookie(String path, String refreshToken) {
+        return HttpRequest.newBuilder(uri(path))
+                .header("Cookie", refreshCookie + "=" + refreshToken)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+    }
+
+    private HttpRequest google(String email) {
+        return HttpRequest.newBuilder(uri("/api/auth/google"))
+                .header("Content-Type", "application/json")
+                .POST(body("{\"code\":\"" + email + "\"}"))
+                .build();
+    }
+
+    private HttpRequest multipart(Fixture f, int run) {
+        String boundary = "query-budget-" + UUID.randomUUID();
+        String metadata = "{\"title\":\"Query budget paper " + run + "\",\"authorName\":\"Query Budget\","
+                + "\"abstractText\":\"Created by the query budget report\",\"departmentId\":" + f.departmentId()
+                + ",\"submissionDate\":\"2021-03-04\"}";
+        String payload = "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"metadata\"\r\n"
+                + "Content-Type: application/json\r\n\r\n"
+                + metadata + "\r\n"
+                + "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"query-budget.pdf\"\r\n"
+                + "Content-Type: application/pdf\r\n\r\n"
+                + "%PDF-1.4\n\r\n"
+                + "--" + boundary + "--\r\n";
+        return authorized(f.admin(), "/api/admin/papers")
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(body(payload))
+                .build();
+    }
+
+    private static HttpRequest.BodyPublisher body(String body) {
+        return HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8);
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + environment.getProperty("local.server.port") + path);
+    }
+
+    private JsonNode read(HttpResponse<String> response) {
+        try {
+            return objectMapper.readTree(response.body());
+        } catch (IOException e) {
+            throw new IllegalStateException("Unreadable response " + response.body(), e);
+        }
+    }
+
+    private record Fixture(
+            String student,
+            String admin,
+            Integer departmentId,
+            Integer acceptedPaperId,
+            String downloadPath,
+            List<Integer> pending,
+            List<Integer> unrequested,
+            List<Integer> requested,
+            List<String> refreshTokens,
+            List<Integer> createdRequests,
+            List<Integer> createdPapers,
+            List<String> archiveJobs) {
+    }
+
+    private record Call(
+            String endpoint,
+            String name,
+            IntFunction<HttpRequest> request,
+            Consumer<HttpResponse<String>> onResponse,
+            boolean stream) {
+
+        Call(String endpoint, String name, IntFunction<HttpRequest> request,
+                Consumer<HttpResponse<String>> onResponse) {
+            this(endpoint, name, request, onResponse, false);
+        }
+    }
+
+    private record Line(String endpoint, String name, int run, long statements, int budget, int status) {
+
+        boolean passed() {
+            return status >= 200 && status < 300 && statements >= 0 && statements <= budget;
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package com.acd.researchrepo.bench;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+
+import com.acd.researchrepo.event.DocumentRequestChangedEvent;
+import com.acd.researchrepo.exception.ApiException;
+import com.acd.researchrepo.exception.ErrorCode;
+import com.acd.researchrepo.model.DocumentRequest;
+import com.acd.researchrepo.model.RequestStatus;
+import com.acd.researchrepo.model.User;
+import com.acd.researchrepo.model.UserRole;
+import com.acd.researchrepo.security.CustomUserPrincipal;
+import com.acd.researchrepo.service.DepartmentStatisticsService;
+import com.acd.researchrepo.service.DocumentRequestService;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Concurrency check of the admin request decisions. Many threads accept and
+ * reject the same pending requests at once, first through
+ * DocumentRequestService.acceptRequest and rejectRequest, whose UPDATE is
+ * guarded by the status read before it, then through a variant that takes a
+ * SELECT ... FOR UPDATE row lock instead and cannot conflict. Both variants get
+ * the same calls in the same order.
+ * <p>
+ * No update may be lost: per request at most one accept and one reject apply,
+ * the stored status is the one the applied calls lead to and the department
+ * statistics need no correction afterwards. Every other call must fail with
+ * REQUEST_STATE_CONFLICT, a decision made between its read and its write, or
+ * REQUEST_ALREADY_FINAL, one made before its read. Runs once at startup with
+ * the transitions-report profile, see scripts/bench/request_transitions.sh,
+ * writes one line per variant with its throughput and exits non-zero when a
+ * check fails.
+ */
+@Slf4j
+@Component
+@Profile("transitions-report")
+public class RequestTransitionsRunner implements ApplicationRunner {
+
+    private static final String REJECTION_REASON = "Rejected by the transitions report";
+
+    private final DocumentRequestService documentRequestService;
+    private final DepartmentStatisticsService departmentStatisticsService;
+    private final BenchData benchData;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ConfigurableApplicationContext context;
+    private final CustomUserPrincipal superAdmin;
+
+    private final int requests;
+    private final int callsPerRequest;
+    private final int threads;
+    private final Path output;
+
+    public RequestTransitionsRunner(
+            DocumentRequestService documentRequestService,
+            DepartmentStatisticsService departmentStatisticsService,
+            BenchData benchData,
+            JdbcTemplate jdbcTemplate,
+            EntityManager entityManager,
+            PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher,
+            ConfigurableApplicationContext context,
+            @Value("${app.transitions-report.requests:500}") int requests,
+            @Value("${app.transitions-report.calls-per-request:8}") int callsPerRequest,
+            @Value("${app.transitions-report.threads:8}") int threads,
+            @Value("${app.transitions-report.output:request-transitions.txt}") Path output) {
+        this.documentRequestService = documentRequestService;
+        this.departmentStatisticsService = departmentStatisticsService;
+        this.benchData = benchData;
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.context = context;
+        this.superAdmin = new CustomUserPrincipal(
+                User.builder().userId(0).email("transitions-report@example.invalid").role(UserRole.SUPER_ADMIN)
+                        .build(),
+                Map.of());
+        this.requests = requests;
+        this.callsPerRequest = callsPerRequest;
+        this.threads = threads;
+        this.output = output;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        List<Result> results = new ArrayList<>();
+        // Every tenth seeded paper is archived, seed enough requests on active ones
+        benchData.seed(requests * 2, requests * 2, 100);
+        try {
+            List<Integer> requestIds = jdbcTemplate.queryForList("""
+                    SELECT dr.request_id FROM document_requests dr
+                    JOIN research_papers p ON p.paper_id = dr.paper_id
+                    WHERE p.file_path LIKE 'bench/%' AND NOT p.archived
+                    ORDER BY dr.request_id LIMIT ?
+                    """, Integer.class, requests);
+            List<Call> calls = calls(requestIds);
+
+            results.add(measure("guarded", requestIds, calls, this::guarded));
+            results.add(measure("locked", requestIds, calls, this::locked));
+        } finally {
+            benchData.cleanup();
+        }
+
+        List<String> report = new ArrayList<>();
+        report.add(String.format("%d requests, %d calls each, %d threads", requests, callsPerRequest, threads));
+        report.add("variant | verdict | applied | conflict | already final | errors | lost updates | "
+                + "statistics drift | seconds | calls/s");
+        for (Result result : results) {
+            report.add(result.line());
+        }
+        Files.write(output, report);
+
+        boolean failed = results.stream().anyMatch(result -> !result.passed());
+        log.info("Transitions report: {}, written to {}", failed ? "FAIL" : "PASS", output.toAbsolutePath());
+        System.exit(SpringApplication.exit(context, () -> failed ? 1 : 0));
+    }
+
+    // Half accepts and half rejects per request, in a fixed shuffled order, the calls of one request
+    // next to each other so the threads pick them up at the same time
+    private List<Call> calls(List<Integer> requestIds) {
+        Random random = new Random(42);
+        List<Call> calls = new ArrayList<>();
+        for (Integer requestId : requestIds) {
+            List<Call> forRequest = new ArrayList<>();
+            for (int i = 0; i < callsPerRequest; i++) {
+                forRequest.add(new Call(requestId, i % 2 == 0 ? RequestStatus.ACCEPTED : RequestStatus.REJECTED));
+            }
+            Collections.shuffle(forRequest, random);
+            calls.addAll(forRequest);
+        }
+        return calls;
+    }
+
+    private Result measure(
+            String variant,
+            List<Integer> requestIds,
+            List<Call> calls,
+            BiFunction<Integer, RequestStatus, Outcome> decide) throws Exception {
+
+        reset(requestIds);
+        log.info("Running {} calls through the {} variant", calls.size(), variant);
+
+        List<Future<Outcome>> futures = new ArrayList<>();
+        long started = System.nanoTime();
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (Call call : calls) {
+                futures.add(executor.submit(() -> decide.apply(call.requestId(), call.decision())));
+            }
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        Map<Outcome, Integer> outcomes = new EnumMap<>(Outcome.class);
+        Map<Integer, int[]> applied = new HashMap<>();
+        for (int i = 0; i < calls.size(); i++) {
+            Outcome outcome = futures.get(i).get();
+            outcomes.merge(outcome, 1, Integer::sum);
+            if (outcome == Outcome.APPLIED) {
+                applied.computeIfAbsent(calls.get(i).requestId(), id -> new int[2])
+                        [calls.get(i).decision() == RequestStatus.ACCEPTED ? 0 : 1]++;
+            }
+        }
+
+        int lostUpdates = 0;
+        Map<Integer, RequestStatus> stored = statuses(requestIds);
+        for (Integer requestId : requestIds) {
+            int[] counts = applied.getOrDefault(requestId, new int[2]);
+            RequestStatus expected = counts[1] > 0 ? RequestStatus.REJECTED
+                    : counts[0] > 0 ? RequestStatus.ACCEPTED : RequestStatus.PENDING;
+            if (counts[0] > 1 || counts[1] > 1 || stored.get(requestId) != expected) {
+                lostUpdates++;
+            }
+        }
+        int drift = departmentStatisticsService.reconcile().getDrift().size();
+
+        return new Result(variant, outcomes, lostUpdates, drift, seconds, calls.size());
+    }
+
+    // The real service path, REQUEST_STATE_CONFLICT when the guarded UPDATE matches no row
+    private Outcome guarded(Integer requestId, RequestStatus decision) {
+        try {
+            if (decision == RequestStatus.ACCEPTED) {
+                documentRequestService.acceptRequest(requestId, superAdmin);
+            } else {
+                documentRequestService.rejectRequest(requestId, REJECTION_REASON, superAdmin);
+            }
+            return Outcome.APPLIED;
+        } catch (ApiException e) {
+            return outcome(e);
+        } catch (RuntimeException e) {
+            log.warn("Guarded {} of request {} failed", decision, requestId, e);
+            return Outcome.ERROR;
+        }
+    }
+
+    // The same decision made under SELECT ... FOR UPDATE, later callers wait and then see it
+    private Outcome locked(Integer requestId, RequestStatus decision) {
+        try {
+            return transactionTemplate.execute(status -> {
+                DocumentRequest request = entityManager.find(
+                        DocumentRequest.class, requestId, LockModeType.PESSIMISTIC_WRITE);
+                RequestStatus previous = request.getStatus();
+                if (previous == RequestStatus.REJECTED
+                        || (decision == RequestStatus.ACCEPTED && previous != RequestStatus.PENDING)) {
+                    return Outcome.ALREADY_FINAL;
+                }
+
+                request.setStatus(decision);
+                request.setRejectionReason(decision == RequestStatus.REJECTED ? REJECTION_REASON : null);
+                request.setUpdatedAt(LocalDateTime.now());
+                entityManager.flush();
+
+                Integer departmentId = request.getPaper().getDepartment().getDepartmentId();
+                departmentStatisticsService.requestsChanged(departmentId, previous, decision, 1);
+                eventPublisher.publishEvent(new DocumentRequestChangedEvent(
+                        requestId,
+                        request.getUser().getUserId(),
+                        request.getPaper().getPaperId(),
+                        departmentId,
+                        decision == RequestStatus.ACCEPTED
+                                ? DocumentRequestChangedEvent.Type.ACCEPTED
+                                : DocumentRequestChangedEvent.Type.REJECTED));
+                return Outcome.APPLIED;
+            });
+        } catch (RuntimeException e) {
+            log.warn("Locked {} of request {} failed", decision, requestId, e);
+            return Outcome.ERROR;
+        }
+    }
+
+    private static Outcome outcome(ApiException e) {
+        if (e.getErrorCode() == ErrorCode.REQUEST_STATE_CONFLICT) {
+            return Outcome.CONFLICT;
+        }
+        if (e.getErrorCode() == ErrorCode.REQUEST_ALREADY_FINAL) {
+            return Outcome.ALREADY_FINAL;
+        }
+        log.warn("Unexpected {}: {}", e.getErrorCode(), e.getMessage());
+        return Outcome.ERROR;
+    }
+
+    // Back to pending with correct statistics, so both variants start from the same state
+    private void reset(List<Integer> requestIds) {
+        jdbcTemplate.update("""
+                UPDATE document_requests SET status = 'PENDING', rejection_reason = NULL
+                WHERE request_id = ANY (?)
+                """, (Object) requestIds.toArray(Integer[]::new));
+        departmentStatisticsService.reconcile();
+    }
+
+    private Map<Integer, RequestStatus> statuses(List<Integer> requestIds) {
+        Map<Integer, RequestStatus> statuses = new HashMap<>();
+        RowCallbackHandler collect = row -> statuses.put(row.getInt(1), RequestStatus.valueOf(row.getString(2)));
+        jdbcTemplate.query("SELECT request_id, status FROM document_requests WHERE request_id = ANY (?)",
+                collect, (Object) requestIds.toArray(Integer[]::new));
+        return statuses;
+    }
+
+    private enum Outcome {
+        APPLIED, CONFLICT, ALREADY_FINAL, ERROR
+    }
+
+    private record Call(Integer requestId, RequestStatus decision) {
+    }
+
+    private record Result(
+            String variant,
+            Map<Outcome, Integer> outcomes,
+            int lostUpdates,
+            int drift,
+            double seconds,
+            int calls) {
+
+        boolean passed() {
+            return lostUpdates == 0 && drift == 0 && outcomes.getOrDefault(Outcome.ERROR, 0) == 0;
+        }
+
+        String line() {
+            return String.join(" | ",
+                    variant,
+                    passed() ? "PASS" : "FAIL",
+                    Integer.toString(outcomes.getOrDefault(Outcome.APPLIED, 0)),
+                    Integer.toString(outcomes.getOrDefault(Outcome.CONFLICT, 0)),
+                    Integer.toString(outcomes.getOrDefault(Outcome.ALREADY_FINAL, 0)),
+                    Integer.toString(outcomes.getOrDefault(Outcome.ERROR, 0)),
+                    Integer.toString(lostUpdates),
+                    Integer.toString(drift),
+                    String.format("%.2f", seconds),
+                    String.format("%.0f", calls / seconds));
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.acd.researchrepo.search;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.acd.researchrepo.dto.external.papers.AbstractSnippet;
+import com.acd.researchrepo.dto.external.papers.TextSpan;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of {@link SnippetHighlighter} on a short abstract and on a very large
+ * one, each with few and with many matches, for full-text and fuzzy searches.
+ * The large text is a thousand times the short one, so the highlighter is linear
+ * when its time grows by about the same factor, whatever the number of matches.
+ * Run with scripts/bench/snippet_highlighter.sh.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnippetHighlighterBenchmark {
+
+    private static final String SEARCH = "neural network";
+    private static final int SNIPPET_LENGTH = 200;
+
+    // Filler that neither stems to nor lies within edit distance 2 of a search word
+    private static final String[] FILLER = {
+            "the", "study", "examines", "students", "results", "using", "survey", "data", "from", "school",
+            "teachers", "across", "regional", "campuses", "were", "analysed", "with", "mixed", "methods", "and",
+    };
+    private static final String[] MATCHES = { "neural", "networks", "network", "neurons" };
+
+    // Characters of the abstract, about 150 words for the short one
+    @Param({ "1000", "1000000" })
+    private int length;
+
+    // few: one word in 500 matches, at least once; many: one word in 4
+    @Param({ "few", "many" })
+    private String matches;
+
+    @Param({ "false", "true" })
+    private boolean fuzzy;
+
+    private String text;
+    private SnippetHighlighter highlighter;
+
+    @Setup
+    public void setUp() {
+        int matchEvery = "few".equals(matches) ? 500 : 4;
+        Random random = new Random(42);
+        StringBuilder builder = new StringBuilder(length + 16);
+        for (int word = 0; builder.length() < length; word++) {
+            if (word > 0) {
+                builder.append(word % 17 == 0 ? ". " : " ");
+            }
+            boolean match = word % matchEvery == Math.min(matchEvery / 2, 75);
+            builder.append(match ? MATCHES[random.nextInt(MATCHES.length)] : FILLER[random.nextInt(FILLER.length)]);
+        }
+        text = builder.toString();
+        highlighter = SnippetHighlighter.of(SEARCH, fuzzy);
+    }
+
+    @Benchmark
+    public List<TextSpan> highlight() {
+        return highlighter.highlight(text);
+    }
+
+    @Benchmark
+    public AbstractSnippet snippet() {
+        return highlighter.snippet(text, SNIPPET_LENGTH);
+    }
+}
@@ -0,0 +1,110 @@
+package com.acd.researchrepo.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Checks that a few stalled clients do not starve thousands of idle streams.
+ * Every stream gets one event, the stalled ones first so they take the sender
+ * threads before anyone else; their writes block like a full socket buffer until
+ * the container's write timeout. The check passes when every other stream has
+ * its event within the send timeout plus a second, while two fixed threads
+ * without the watchdog would leave them waiting for the stalled writes, the
+ * write timeout times the stalled streams per thread. Run with
+ * scripts/bench/sse_starvation.sh, exits non-zero on failure.
+ */
+public final class SseStarvationCheck {
+
+    private static final int THREADS = 2;
+    private static final int IDLE_STREAMS = 5000;
+    private static final int STALLED_STREAMS = 8;
+    private static final int QUEUE_CAPACITY = 32;
+    private static final Duration SEND_TIMEOUT = Duration.ofSeconds(1);
+    private static final Duration WRITE_TIMEOUT = Duration.ofSeconds(10);
+
+    private SseStarvationCheck() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Result result = run(SEND_TIMEOUT);
+
+        long limit = SEND_TIMEOUT.plusSeconds(1).toMillis();
+        boolean passed = result.delivered() == IDLE_STREAMS && result.maxMillis() <= limit
+                && result.closed() == STALLED_STREAMS;
+        System.out.printf("%d idle streams, %d stalled for %ds, %d sender threads, send timeout %dms%n",
+                IDLE_STREAMS, STALLED_STREAMS, WRITE_TIMEOUT.toSeconds(), THREADS, SEND_TIMEOUT.toMillis());
+        System.out.printf("%d delivered, slowest after %dms, stalled closed %d | %s (limit %dms)%n",
+                result.delivered(), result.maxMillis(), result.closed(), passed ? "PASS" : "FAIL", limit);
+        System.exit(passed ? 0 : 1);
+    }
+
+    private static Result run(Duration sendTimeout) throws InterruptedException {
+        SseSender sender = new SseSender("starvation-check", THREADS, sendTimeout);
+        CountDownLatch idleDelivered = new CountDownLatch(IDLE_STREAMS);
+        CountDownLatch stalledClosed = new CountDownLatch(STALLED_STREAMS);
+        AtomicLong slowest = new AtomicLong();
+        long start = System.nanoTime();
+
+        List<SseConnection> connections = new ArrayList<>();
+        for (int i = 0; i < STALLED_STREAMS; i++) {
+            connections.add(new SseConnection(new StalledEmitter(), sender, QUEUE_CAPACITY, stalledClosed::countDown));
+        }
+        for (int i = 0; i < IDLE_STREAMS; i++) {
+            SseEmitter emitter = new IdleEmitter(() -> {
+                slowest.accumulateAndGet(System.nanoTime() - start, Math::max);
+                idleDelivered.countDown();
+            });
+            connections.add(new SseConnection(emitter, sender, QUEUE_CAPACITY, () -> {
+            }));
+        }
+
+        connections.forEach(connection -> connection.send(() -> SseEmitter.event().comment("heartbeat")));
+        idleDelivered.await(WRITE_TIMEOUT.multipliedBy(3).toMillis(), TimeUnit.MILLISECONDS);
+        stalledClosed.await(WRITE_TIMEOUT.multipliedBy(2).toMillis(), TimeUnit.MILLISECONDS);
+        sender.shutdown();
+
+        return new Result(
+                IDLE_STREAMS - idleDelivered.getCount(),
+                TimeUnit.NANOSECONDS.toMillis(slowest.get()),
+                STALLED_STREAMS - stalledClosed.getCount());
+    }
+
+    // A client that reads everything at once
+    private static final class IdleEmitter extends SseEmitter {
+
+        private final Runnable onSend;
+
+        private IdleEmitter(Runnable onSend) {
+            this.onSend = onSend;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            onSend.run();
+        }
+    }
+
+    // A client that stopped reading, the write blocks until the container gives up on it
+    private static final class StalledEmitter extends SseEmitter {
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            try {
+                Thread.sleep(WRITE_TIMEOUT.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IOException("Write timed out");
+        }
+    }
+
+    private record Result(long delivered, long maxMillis, long closed) {
+    }
+}
@@ -0,0 +1,27 @@
+package com.acd.researchrepo.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The most SQL statements an endpoint may run on its request thread, including
+ * the after-commit listeners it triggers. Counted by {@link QueryBudgetInspector}.
+ * Going over is always logged and counted, so a lazy load or N+1 introduced by
+ * a change shows up in the logs instead of in the database load. It only fails
+ * the request when app.query-budget.enforce is on, which is off by default.
+ * The budgets are the counts measured by scripts/bench/query_budget.sh, which
+ * runs every budgeted endpoint with enforcement on and fails on any overrun.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+
+    /**
+     * @return the statement budget
+     */
+    int value();
+}
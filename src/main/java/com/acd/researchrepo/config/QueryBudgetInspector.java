@@ -0,0 +1,82 @@
+package com.acd.researchrepo.config;
+
+import java.util.Map;
+
+import com.acd.researchrepo.environment.AppProperties;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts the statements Hibernate prepares on the current thread while a
+ * {@link QueryBudget} is open. Registered as the session factory's statement
+ * inspector, the budget is opened and closed by {@link QueryBudgetInterceptor}.
+ * Statements of other threads, like background jobs, are not counted.
+ */
+@Component
+public class QueryBudgetInspector implements StatementInspector, HibernatePropertiesCustomizer {
+
+    // StatementInspector is Serializable
+    private static final long serialVersionUID = 1L;
+
+    private static final ThreadLocal<Usage> CURRENT = new ThreadLocal<>();
+
+    private final boolean enforce;
+
+    public QueryBudgetInspector(AppProperties appProperties) {
+        this.enforce = appProperties.getQueryBudget().isEnforce();
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Usage usage = CURRENT.get();
+        if (usage != null && ++usage.statements > usage.budget && enforce) {
+            throw new IllegalStateException("Query budget exceeded: " + usage.endpoint + " ran statement "
+                    + usage.statements + " of " + usage.budget + ": " + sql);
+        }
+        return sql;
+    }
+
+    void open(String endpoint, int budget) {
+        CURRENT.set(new Usage(endpoint, budget));
+    }
+
+    /**
+     * @return the usage of the budget open on this thread, null if there is none
+     */
+    Usage close() {
+        Usage usage = CURRENT.get();
+        CURRENT.remove();
+        return usage;
+    }
+
+    static final class Usage {
+        private final String endpoint;
+        private final int budget;
+        private int statements;
+
+        private Usage(String endpoint, int budget) {
+            this.endpoint = endpoint;
+            this.budget = budget;
+        }
+
+        String endpoint() {
+            return endpoint;
+        }
+
+        int budget() {
+            return budget;
+        }
+
+        int statements() {
+            return statements;
+        }
+    }
+}
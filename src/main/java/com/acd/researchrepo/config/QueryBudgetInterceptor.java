@@ -0,0 +1,89 @@
+package com.acd.researchrepo.config;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import lombok.extern.slf4j.Slf4j;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Opens the {@link QueryBudget} of the handler for the length of the request and
+ * records the statements it ran as http.server.requests.statements, tagged with
+ * the endpoint. Requests over budget are logged and counted as
+ * http.server.requests.query.budget.exceeded.
+ */
+@Slf4j
+@Component
+public class QueryBudgetInterceptor implements AsyncHandlerInterceptor, WebMvcConfigurer {
+
+    private final QueryBudgetInspector inspector;
+    private final MeterRegistry meterRegistry;
+
+    public QueryBudgetInterceptor(QueryBudgetInspector inspector, MeterRegistry meterRegistry) {
+        this.inspector = inspector;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(this).addPathPatterns("/api/**");
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod method) {
+            QueryBudget budget = method.getMethodAnnotation(QueryBudget.class);
+            if (budget != null) {
+                inspector.open(
+                        request.getMethod() + " " + request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE),
+                        budget.value());
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            Object handler,
+            Exception exception) {
+        QueryBudgetInspector.Usage usage = inspector.close();
+        if (usage == null) {
+            return;
+        }
+
+        DistributionSummary.builder("http.server.requests.statements")
+                .description("SQL statements run per request")
+                .tag("endpoint", usage.endpoint())
+                .register(meterRegistry)
+                .record(usage.statements());
+
+        if (usage.statements() > usage.budget()) {
+            log.warn("Query budget exceeded: {} ran {} statements, budget {}",
+                    usage.endpoint(), usage.statements(), usage.budget());
+            Counter.builder("http.server.requests.query.budget.exceeded")
+                    .description("Requests that ran more SQL statements than their endpoint's budget")
+                    .tag("endpoint", usage.endpoint())
+                    .register(meterRegistry)
+                    .increment();
+        }
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+            Object handler) {
+        // The handler returned, the rest of the request runs on other threads
+        afterCompletion(request, response, handler, null);
+    }
+}
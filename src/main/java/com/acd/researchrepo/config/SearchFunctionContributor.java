@@ -0,0 +1,64 @@
+package com.acd.researchrepo.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers the PostgreSQL full-text and trigram search operators, and the row
+ * value comparisons of keyset pagination, as HQL/Criteria functions. The criteria
+ * API has no way to express {@code @@}, {@code <%} or {@code (a, b) > (x, y)}, so
+ * specifications call these through {@code cb.function(...)} instead.
+ * Registered through META-INF/services/org.hibernate.boot.model.FunctionContributor.
+ */
+public class SearchFunctionContributor implements FunctionContributor {
+
+    public static final String FTS_MATCH = "fts_match";
+    public static final String FTS_RANK = "fts_rank";
+    public static final String FUZZY_MATCH = "fuzzy_match";
+    public static final String FUZZY_RANK = "fuzzy_rank";
+    public static final String KEYSET_AFTER = "keyset_after";
+    public static final String KEYSET_BEFORE = "keyset_before";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicTypeRegistry types = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+
+        // fts_match(search_vector, 'user query') -> boolean, served by the GIN index
+        functionContributions.getFunctionRegistry().registerPattern(
+                FTS_MATCH,
+                "(?1 @@ websearch_to_tsquery('english'::regconfig, ?2))",
+                types.resolve(StandardBasicTypes.BOOLEAN));
+
+        // fts_rank(search_vector, 'user query') -> real, higher is more relevant
+        functionContributions.getFunctionRegistry().registerPattern(
+                FTS_RANK,
+                "ts_rank_cd(?1, websearch_to_tsquery('english'::regconfig, ?2))",
+                types.resolve(StandardBasicTypes.FLOAT));
+
+        // fuzzy_match(column, 'user query') -> boolean, pg_trgm word similarity served by the trigram
+        // indexes. The threshold is pg_trgm.word_similarity_threshold of the current transaction.
+        functionContributions.getFunctionRegistry().registerPattern(
+                FUZZY_MATCH,
+                "(?2 <% ?1)",
+                types.resolve(StandardBasicTypes.BOOLEAN));
+
+        // fuzzy_rank(title, author_name, 'user query') -> real, best word similarity of both columns
+        functionContributions.getFunctionRegistry().registerPattern(
+                FUZZY_RANK,
+                "greatest(word_similarity(?3, ?1), word_similarity(?3, ?2))",
+                types.resolve(StandardBasicTypes.FLOAT));
+
+        // keyset_after(key, id, :key, :id) -> boolean, one row value comparison that a (key, id)
+        // index answers with a single range scan starting at the cursor; keyset_before descends
+        functionContributions.getFunctionRegistry().registerPattern(
+                KEYSET_AFTER,
+                "((?1, ?2) > (?3, ?4))",
+                types.resolve(StandardBasicTypes.BOOLEAN));
+        functionContributions.getFunctionRegistry().registerPattern(
+                KEYSET_BEFORE,
+                "((?1, ?2) < (?3, ?4))",
+                types.resolve(StandardBasicTypes.BOOLEAN));
+    }
+}
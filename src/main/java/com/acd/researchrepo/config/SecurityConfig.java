@@ -96,6 +96,11 @@ public class SecurityConfig {
                 // For endpoints docs library
                 .requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html")
                 .permitAll()
+                // Actuator: health for probes, metrics (cache hit/miss/eviction, ...) for super admins
+                .requestMatchers("/actuator/health")
+                .permitAll()
+                .requestMatchers("/actuator/**")
+                .hasRole("SUPER_ADMIN")
                 // Other endpoint will require JWT/Accesstoken
                 .anyRequest()
                 .authenticated();
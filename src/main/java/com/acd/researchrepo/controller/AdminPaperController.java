@@ -1,9 +1,13 @@
 package com.acd.researchrepo.controller;
 
+import com.acd.researchrepo.config.QueryBudget;
 import com.acd.researchrepo.dto.external.model.ResearchPaperDto;
+import com.acd.researchrepo.dto.external.papers.BulkArchiveRequest;
+import com.acd.researchrepo.dto.external.papers.BulkArchiveResponse;
 import com.acd.researchrepo.dto.external.papers.PaginatedResponse;
 import com.acd.researchrepo.dto.external.papers.PaperCreateRequest;
 import com.acd.researchrepo.dto.external.papers.PaperUpdateRequest;
+import com.acd.researchrepo.dto.external.papers.RejectionJobDto;
 import com.acd.researchrepo.dto.external.papers.ResearchPaperSearchRequest;
 import com.acd.researchrepo.exception.ApiException;
 import com.acd.researchrepo.exception.ErrorCode;
@@ -23,6 +27,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
@@ -45,6 +50,7 @@ public class AdminPaperController {
     }
 
     @GetMapping
+    @QueryBudget(2)
     public ResponseEntity<PaginatedResponse<ResearchPaperDto>> getAdminPapers(
             @Valid ResearchPaperSearchRequest request,
             @AuthenticationPrincipal CustomUserPrincipal principal) {
@@ -57,6 +63,7 @@ public class AdminPaperController {
     }
 
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @QueryBudget(4)
     public ResponseEntity<ResearchPaperDto> createPaper(
             @RequestPart("metadata") String metadataJson,
             @RequestPart("file") MultipartFile file,
@@ -78,6 +85,7 @@ public class AdminPaperController {
     }
 
     @PutMapping("/{id}")
+    @QueryBudget(3)
     public ResponseEntity<ResearchPaperDto> updatePaper(
             @PathVariable Integer id,
             @Valid @RequestBody PaperUpdateRequest metadata,
@@ -91,6 +99,7 @@ public class AdminPaperController {
     }
 
     @DeleteMapping("/{id}")
+    @QueryBudget(6)
     public ResponseEntity<Void> deletePaper(
             @PathVariable Integer id,
             @AuthenticationPrincipal CustomUserPrincipal principal) {
@@ -103,15 +112,42 @@ public class AdminPaperController {
     }
 
     @PutMapping("/{id}/archive")
-    public ResponseEntity<Void> archivePaper(
+    @QueryBudget(6)
+    public ResponseEntity<RejectionJobDto> archivePaper(
             @PathVariable Integer id,
+            @RequestParam(defaultValue = "false") boolean async,
             @AuthenticationPrincipal CustomUserPrincipal principal) {
         log.debug("PUT /api/admin/papers/{}/archive endpoint hit", id);
-        researchPaperService.archivePaper(id, principal);
+        RejectionJobDto job = researchPaperService.archivePaper(id, async, principal);
+        if (job != null) {
+            return ResponseEntity.accepted().body(job);
+        }
         return ResponseEntity.ok().build();
     }
 
+    @PostMapping("/bulk-archive")
+    public ResponseEntity<BulkArchiveResponse> bulkArchive(
+            @Valid @RequestBody BulkArchiveRequest request,
+            @AuthenticationPrincipal CustomUserPrincipal principal) {
+        log.debug("POST /api/admin/papers/bulk-archive endpoint hit");
+        BulkArchiveResponse response = researchPaperService.bulkArchive(request, principal);
+        if (response.getJob() != null) {
+            return ResponseEntity.accepted().body(response);
+        }
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/archive-jobs/{jobId}")
+    @QueryBudget(0)
+    public ResponseEntity<RejectionJobDto> getArchiveJob(
+            @PathVariable String jobId,
+            @AuthenticationPrincipal CustomUserPrincipal principal) {
+        log.debug("GET /api/admin/papers/archive-jobs/{} endpoint hit", jobId);
+        return ResponseEntity.ok(researchPaperService.getArchiveJob(jobId, principal));
+    }
+
     @PutMapping("/{id}/unarchive")
+    @QueryBudget(4)
     public ResponseEntity<Void> unarchivePaper(
             @PathVariable Integer id,
             @AuthenticationPrincipal CustomUserPrincipal principal) {
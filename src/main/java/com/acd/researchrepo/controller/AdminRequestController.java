@@ -1,20 +1,29 @@
 package com.acd.researchrepo.controller;
 
+import com.acd.researchrepo.config.QueryBudget;
 import com.acd.researchrepo.dto.external.papers.PaginatedResponse;
 import com.acd.researchrepo.dto.external.requests.AdminRequestResponse;
+import com.acd.researchrepo.dto.external.requests.BulkDecisionRequest;
+import com.acd.researchrepo.dto.external.requests.BulkDecisionResponse;
 import com.acd.researchrepo.dto.external.requests.DocumentRequestSearchRequest;
 import com.acd.researchrepo.dto.external.requests.RejectRequestRequest;
 import com.acd.researchrepo.security.CustomUserPrincipal;
 import com.acd.researchrepo.service.DocumentRequestService;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -32,6 +41,7 @@ public class AdminRequestController {
     }
 
     @GetMapping
+    @QueryBudget(2)
     public ResponseEntity<PaginatedResponse<AdminRequestResponse>> getAdminRequests(
             @Valid DocumentRequestSearchRequest request,
             @AuthenticationPrincipal CustomUserPrincipal principal) {
@@ -43,7 +53,28 @@ public class AdminRequestController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @QueryBudget(0)
+    public ResponseEntity<SseEmitter> streamAdminRequestEvents(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+            @RequestParam(required = false) String lastEventId,
+            @AuthenticationPrincipal CustomUserPrincipal principal) {
+
+        log.debug("GET /api/admin/requests/events endpoint hit");
+
+        // EventSource resends the header on reconnect, fetch-based clients may pass the parameter
+        SseEmitter emitter = documentRequestService.subscribeToAdminRequestEvents(
+                principal, lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
+
+        // Proxies must pass events through as they come
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+    }
+
     @PutMapping("/{requestId}/accept")
+    @QueryBudget(3)
     public ResponseEntity<AdminRequestResponse> acceptRequest(
             @PathVariable Integer requestId,
             @AuthenticationPrincipal CustomUserPrincipal principal) {
@@ -56,6 +87,7 @@ public class AdminRequestController {
     }
 
     @PutMapping("/{requestId}/reject")
+    @QueryBudget(3)
     public ResponseEntity<AdminRequestResponse> rejectRequest(
             @PathVariable Integer requestId,
             @Valid @RequestBody(required = false) RejectRequestRequest request,
@@ -69,4 +101,16 @@ public class AdminRequestController {
 
         return ResponseEntity.ok(response);
     }
+
+    @PostMapping("/bulk-decision")
+    public ResponseEntity<BulkDecisionResponse> bulkDecide(
+            @Valid @RequestBody BulkDecisionRequest request,
+            @AuthenticationPrincipal CustomUserPrincipal principal) {
+
+        log.debug("POST /api/admin/requests/bulk-decision endpoint hit ({} ids)", request.getRequestIds().size());
+
+        BulkDecisionResponse response = documentRequestService.bulkDecide(request, principal);
+
+        return ResponseEntity.ok(response);
+    }
 }
@@ -0,0 +1,54 @@
+package com.acd.researchrepo.controller;
+
+import com.acd.researchrepo.config.QueryBudget;
+import com.acd.researchrepo.dto.external.statistics.DepartmentStatisticsListResponse;
+import com.acd.researchrepo.dto.external.statistics.StatisticsReconciliationResponse;
+import com.acd.researchrepo.exception.ApiException;
+import com.acd.researchrepo.exception.ErrorCode;
+import com.acd.researchrepo.security.CustomUserPrincipal;
+import com.acd.researchrepo.service.DepartmentStatisticsService;
+import com.acd.researchrepo.util.RoleBasedAccess;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/admin/statistics")
+public class AdminStatisticsController {
+
+    private final DepartmentStatisticsService departmentStatisticsService;
+
+    public AdminStatisticsController(DepartmentStatisticsService departmentStatisticsService) {
+        this.departmentStatisticsService = departmentStatisticsService;
+    }
+
+    @GetMapping
+    @QueryBudget(2)
+    public ResponseEntity<DepartmentStatisticsListResponse> getStatistics(
+            @AuthenticationPrincipal CustomUserPrincipal principal) {
+
+        log.debug("GET /api/admin/statistics endpoint hit");
+
+        return ResponseEntity.ok(departmentStatisticsService.getStatistics(principal));
+    }
+
+    @PostMapping("/reconcile")
+    public ResponseEntity<StatisticsReconciliationResponse> reconcile(
+            @AuthenticationPrincipal CustomUserPrincipal principal) {
+
+        log.debug("POST /api/admin/statistics/reconcile endpoint hit");
+
+        if (!RoleBasedAccess.isUserSuperAdmin(principal)) {
+            throw new ApiException(ErrorCode.ACCESS_DENIED, "Super admin privileges required");
+        }
+
+        return ResponseEntity.ok(departmentStatisticsService.reconcile());
+    }
+}
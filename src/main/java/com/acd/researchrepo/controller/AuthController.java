@@ -1,5 +1,6 @@
 package com.acd.researchrepo.controller;
 
+import com.acd.researchrepo.config.QueryBudget;
 import com.acd.researchrepo.dto.external.auth.AuthResponse;
 import com.acd.researchrepo.dto.external.auth.GoogleAuthRequest;
 import com.acd.researchrepo.dto.external.auth.RefreshResponse;
@@ -36,6 +37,7 @@ public class AuthController {
     }
 
     @PostMapping("/google")
+    @QueryBudget(4)
     public ResponseEntity<AuthResponse> loginWithGoogle(
             @Valid @RequestBody GoogleAuthRequest request,
             HttpServletResponse response) {
@@ -53,6 +55,7 @@ public class AuthController {
     }
 
     @PostMapping("/refresh")
+    @QueryBudget(4)
     public ResponseEntity<RefreshResponse> refreshAccessToken(
             HttpServletRequest request,
             HttpServletResponse response) {
@@ -80,6 +83,7 @@ public class AuthController {
     }
 
     @PostMapping("/logout")
+    @QueryBudget(2)
     public ResponseEntity<Void> logout(
             HttpServletRequest request,
             HttpServletResponse response) {
@@ -3,6 +3,7 @@ package com.acd.researchrepo.controller;
 import java.net.MalformedURLException;
 import java.nio.file.Path;
 
+import com.acd.researchrepo.config.QueryBudget;
 import com.acd.researchrepo.exception.ApiException;
 import com.acd.researchrepo.exception.ErrorCode;
 import com.acd.researchrepo.security.CustomUserPrincipal;
@@ -34,6 +35,7 @@ public class FileController {
 
     @GetMapping("/{paperId}")
     @Operation(summary = "Download or view a research paper file")
+    @QueryBudget(2)
     public ResponseEntity<Resource> downloadFile(
             @PathVariable Integer paperId,
             @RequestParam(defaultValue = "false") boolean view,
@@ -1,14 +1,16 @@
 package com.acd.researchrepo.controller;
 
-import java.util.List;
-
+import com.acd.researchrepo.config.QueryBudget;
 import com.acd.researchrepo.dto.external.filters.DepartmentListResponse;
 import com.acd.researchrepo.dto.external.filters.YearListResponse;
-import com.acd.researchrepo.dto.external.model.DepartmentDto;
+import com.acd.researchrepo.environment.AppProperties;
 import com.acd.researchrepo.security.CustomUserPrincipal;
-import com.acd.researchrepo.service.DepartmentService;
-import com.acd.researchrepo.service.ResearchPaperService;
+import com.acd.researchrepo.service.FilterMetadataCache;
+import com.acd.researchrepo.service.FilterMetadataCache.FilterMetadata;
+import com.acd.researchrepo.util.HttpCaching;
+import com.acd.researchrepo.util.RoleBasedAccess;
 
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -22,35 +24,50 @@ import lombok.extern.slf4j.Slf4j;
 @RequestMapping("/api/filters")
 public class FilterController {
 
-    private final DepartmentService departmentService;
-    private final ResearchPaperService researchPaperService;
+    private final FilterMetadataCache filterMetadataCache;
+    private final AppProperties appProperties;
 
-    public FilterController(DepartmentService departmentService, ResearchPaperService researchPaperService) {
-        this.departmentService = departmentService;
-        this.researchPaperService = researchPaperService;
+    public FilterController(FilterMetadataCache filterMetadataCache, AppProperties appProperties) {
+        this.filterMetadataCache = filterMetadataCache;
+        this.appProperties = appProperties;
     }
 
     @GetMapping("/years")
+    @QueryBudget(2)
     public ResponseEntity<YearListResponse> getAvailableYears(
             @AuthenticationPrincipal CustomUserPrincipal userPrincipal) {
         log.debug("api/filters/years endpoint hit");
 
-        List<Integer> years = researchPaperService.getAvailableYears(userPrincipal);
+        FilterMetadata metadata = filterMetadataCache.get(userPrincipal);
 
-        return years.isEmpty()
+        return metadata.years().isEmpty()
                 ? ResponseEntity.noContent().build()
-                : ResponseEntity.ok(YearListResponse.builder().years(years).build());
+                : ResponseEntity.ok()
+                        .eTag(metadata.etag())
+                        .cacheControl(cacheControl(userPrincipal))
+                        .body(YearListResponse.builder().years(metadata.years()).build());
     }
 
     @GetMapping("/departments")
+    @QueryBudget(2)
     public ResponseEntity<DepartmentListResponse> getDepartments(
             @AuthenticationPrincipal CustomUserPrincipal userPrincipal) {
         log.debug("api/filters/departments endpoint hit");
 
-        List<DepartmentDto> departments = departmentService.getAvailableDepartments(userPrincipal);
+        FilterMetadata metadata = filterMetadataCache.get(userPrincipal);
 
-        return departments.isEmpty()
+        return metadata.departments().isEmpty()
                 ? ResponseEntity.noContent().build()
-                : ResponseEntity.ok(DepartmentListResponse.builder().departments(departments).build());
+                : ResponseEntity.ok()
+                        .eTag(metadata.etag())
+                        .cacheControl(cacheControl(userPrincipal))
+                        .body(DepartmentListResponse.builder().departments(metadata.departments()).build());
+    }
+
+    // Admins manage the papers behind the filters and always revalidate
+    private CacheControl cacheControl(CustomUserPrincipal userPrincipal) {
+        return RoleBasedAccess.isUserAdmin(userPrincipal)
+                ? HttpCaching.revalidate()
+                : HttpCaching.reuseFor(appProperties.getHttpCache().getFilterMaxAge());
     }
 }
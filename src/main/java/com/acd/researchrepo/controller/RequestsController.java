@@ -1,5 +1,8 @@
 package com.acd.researchrepo.controller;
 
+import com.acd.researchrepo.config.QueryBudget;
+import com.acd.researchrepo.dto.external.requests.BulkCreateRequest;
+import com.acd.researchrepo.dto.external.requests.BulkCreateResponse;
 import com.acd.researchrepo.dto.external.requests.CreateRequestRequest;
 import com.acd.researchrepo.dto.external.requests.CreateRequestResponse;
 import com.acd.researchrepo.security.CustomUserPrincipal;
@@ -31,6 +34,7 @@ public class RequestsController {
     }
 
     @PostMapping
+    @QueryBudget(2)
     public ResponseEntity<CreateRequestResponse> createRequest(
             @Valid @RequestBody CreateRequestRequest request,
             @AuthenticationPrincipal CustomUserPrincipal user) {
@@ -39,7 +43,17 @@ public class RequestsController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkCreateResponse> bulkCreateRequests(
+            @Valid @RequestBody BulkCreateRequest request,
+            @AuthenticationPrincipal CustomUserPrincipal user) {
+        log.debug("api/requests/bulk endpoint hit ({} papers)", request.getPaperIds().size());
+        BulkCreateResponse response = requestService.bulkCreate(request, user);
+        return ResponseEntity.ok(response);
+    }
+
     @DeleteMapping("/{requestId}")
+    @QueryBudget(3)
     public ResponseEntity<Void> deleteRequest(
             @PathVariable Integer requestId,
             @AuthenticationPrincipal CustomUserPrincipal user) {
@@ -1,17 +1,29 @@
 package com.acd.researchrepo.controller;
 
+import java.util.List;
+
+import com.acd.researchrepo.config.QueryBudget;
 import com.acd.researchrepo.dto.external.model.ResearchPaperDto;
 import com.acd.researchrepo.dto.external.papers.PaginatedResponse;
+import com.acd.researchrepo.dto.external.papers.PaperSuggestion;
+import com.acd.researchrepo.dto.external.papers.PaperSuggestionListResponse;
 import com.acd.researchrepo.dto.external.papers.PaperUserRequestResponse;
 import com.acd.researchrepo.dto.external.papers.ResearchPaperSearchRequest;
+import com.acd.researchrepo.environment.AppProperties;
 import com.acd.researchrepo.security.CustomUserPrincipal;
 import com.acd.researchrepo.service.ResearchPaperService;
+import com.acd.researchrepo.util.HttpCaching;
+import com.acd.researchrepo.util.RoleBasedAccess;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import lombok.extern.slf4j.Slf4j;
@@ -23,30 +35,70 @@ import jakarta.validation.Valid;
 @RequestMapping("/api/papers")
 public class ResearchPaperController {
     private final ResearchPaperService researchPaperService;
+    private final AppProperties appProperties;
 
-    public ResearchPaperController(ResearchPaperService service) {
+    public ResearchPaperController(ResearchPaperService service, AppProperties appProperties) {
         this.researchPaperService = service;
+        this.appProperties = appProperties;
     }
 
     @GetMapping
+    @QueryBudget(3)
     public ResponseEntity<PaginatedResponse<ResearchPaperDto>> listPapers(
             @Valid ResearchPaperSearchRequest request,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
             @AuthenticationPrincipal CustomUserPrincipal userPrincipal) {
         log.debug("api/papers endpoint hit");
 
-        return ResponseEntity.ok(researchPaperService.getPapers(request, userPrincipal));
+        String etag = researchPaperService.getPapersEtag(userPrincipal);
+        CacheControl cacheControl = HttpCaching.revalidate();
+        if (HttpCaching.matches(ifNoneMatch, etag)) {
+            return HttpCaching.notModified(etag, cacheControl);
+        }
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .body(researchPaperService.getPapers(request, userPrincipal));
+    }
+
+    @GetMapping("/suggest")
+    @QueryBudget(0)
+    public ResponseEntity<PaperSuggestionListResponse> suggest(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "10") int limit,
+            @AuthenticationPrincipal CustomUserPrincipal userPrincipal) {
+        log.debug("api/papers/suggest endpoint hit");
+
+        List<PaperSuggestion> suggestions = researchPaperService.suggest(query, limit, userPrincipal);
+        return ResponseEntity.ok(PaperSuggestionListResponse.builder().suggestions(suggestions).build());
     }
 
     @GetMapping("/{id}")
+    @QueryBudget(2)
     public ResponseEntity<ResearchPaperDto> getPaperById(
             @PathVariable Integer id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
             @AuthenticationPrincipal CustomUserPrincipal userPrincipal) {
         log.debug("api/papers/{} endpoint hit", id);
 
-        return ResponseEntity.ok(researchPaperService.getPaperById(id, userPrincipal));
+        String etag = researchPaperService.getPaperEtag(id, userPrincipal);
+        // Admins edit papers and should see their changes at once
+        CacheControl cacheControl = RoleBasedAccess.isUserAdmin(userPrincipal)
+                ? HttpCaching.revalidate()
+                : HttpCaching.reuseFor(appProperties.getHttpCache().getPaperMaxAge());
+        if (HttpCaching.matches(ifNoneMatch, etag)) {
+            return HttpCaching.notModified(etag, cacheControl);
+        }
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .body(researchPaperService.getPaperById(id, userPrincipal));
     }
 
     @GetMapping("/{id}/my-request")
+    @QueryBudget(2)
     public ResponseEntity<PaperUserRequestResponse> getUserRequestForPaper(
             @PathVariable Integer id,
             @AuthenticationPrincipal CustomUserPrincipal userPrincipal) {
@@ -1,5 +1,6 @@
 package com.acd.researchrepo.controller;
 
+import com.acd.researchrepo.config.QueryBudget;
 import com.acd.researchrepo.dto.external.model.UserDocumentRequestDto;
 import com.acd.researchrepo.dto.external.model.UserDto;
 import com.acd.researchrepo.dto.external.papers.PaginatedResponse;
@@ -9,13 +10,21 @@ import com.acd.researchrepo.exception.ErrorCode;
 import com.acd.researchrepo.mapper.UserMapper;
 import com.acd.researchrepo.security.CustomUserPrincipal;
 import com.acd.researchrepo.service.DocumentRequestService;
+import com.acd.researchrepo.service.RequestEventStream;
+import com.acd.researchrepo.util.HttpCaching;
 import com.acd.researchrepo.util.RoleBasedAccess;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -28,13 +37,19 @@ public class UsersController {
 
     private final UserMapper userMapper;
     private final DocumentRequestService documentRequestService;
+    private final RequestEventStream requestEventStream;
 
-    public UsersController(UserMapper userMapper, DocumentRequestService documentRequestService) {
+    public UsersController(
+            UserMapper userMapper,
+            DocumentRequestService documentRequestService,
+            RequestEventStream requestEventStream) {
         this.userMapper = userMapper;
         this.documentRequestService = documentRequestService;
+        this.requestEventStream = requestEventStream;
     }
 
     @GetMapping("/me")
+    @QueryBudget(0)
     public ResponseEntity<UserDto> getCurrentUser(@AuthenticationPrincipal CustomUserPrincipal principal) {
         log.debug("api/users/me endpoint hit");
 
@@ -43,15 +58,43 @@ public class UsersController {
     }
 
     @GetMapping("/me/requests")
+    @QueryBudget(2)
     public ResponseEntity<PaginatedResponse<UserDocumentRequestDto>> getUserRequests(
             @AuthenticationPrincipal CustomUserPrincipal principal,
-            @Valid DocumentRequestSearchRequest request) {
+            @Valid DocumentRequestSearchRequest request,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.debug("api/users/me/requests endpoint hit");
 
         if (!RoleBasedAccess.isUserStudentOrTeacher(principal)) {
             throw new ApiException(ErrorCode.ACCESS_DENIED, "Access denied");
         }
 
-        return ResponseEntity.ok(documentRequestService.getUserDocumentRequests(principal, request));
+        // Status changes must show at once, always revalidate
+        String etag = documentRequestService.getUserDocumentRequestsEtag(principal);
+        CacheControl cacheControl = HttpCaching.revalidate();
+        if (HttpCaching.matches(ifNoneMatch, etag)) {
+            return HttpCaching.notModified(etag, cacheControl);
+        }
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .body(documentRequestService.getUserDocumentRequests(principal, request));
+    }
+
+    @GetMapping(value = "/me/requests/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @QueryBudget(0)
+    public ResponseEntity<SseEmitter> streamUserRequestEvents(
+            @AuthenticationPrincipal CustomUserPrincipal principal,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+            @RequestParam(required = false) String lastEventId) {
+        log.debug("api/users/me/requests/events endpoint hit");
+
+        // Proxies must pass events through as they come
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .header("X-Accel-Buffering", "no")
+                .body(requestEventStream.subscribe(
+                        principal, lastEventIdHeader != null ? lastEventIdHeader : lastEventId));
     }
 }
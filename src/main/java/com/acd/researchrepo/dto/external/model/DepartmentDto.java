@@ -1,5 +1,7 @@
 package com.acd.researchrepo.dto.external.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import lombok.Builder;
 import lombok.Getter;
 import lombok.extern.jackson.Jacksonized;
@@ -10,4 +12,7 @@ import lombok.extern.jackson.Jacksonized;
 public class DepartmentDto {
     private final Integer departmentId;
     private final String departmentName;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final Long paperCount; // Only set by /api/filters/departments
 }
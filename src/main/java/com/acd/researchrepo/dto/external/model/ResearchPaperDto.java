@@ -3,19 +3,29 @@ package com.acd.researchrepo.dto.external.model;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
+import com.acd.researchrepo.dto.external.papers.PaperHighlights;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import lombok.Builder;
 import lombok.Getter;
 
 @Getter
-@Builder
+@Builder(toBuilder = true)
 public class ResearchPaperDto {
     private Integer paperId;
     private String title;
     private String authorName;
-    private String abstractText;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String abstractText; // Left out with highlight=true, see highlights
     private DepartmentDto department;
     private LocalDate submissionDate;
     private String filePath;
     private Boolean archived;
     private LocalDateTime archivedAt;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean abstractTruncated; // Only set on listings, which return an abstract preview
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private PaperHighlights highlights; // Only set on searches with highlight=true
 }
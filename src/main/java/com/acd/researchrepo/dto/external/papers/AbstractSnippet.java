@@ -0,0 +1,21 @@
+package com.acd.researchrepo.dto.external.papers;
+
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * A bounded window of the abstract around its best cluster of matches. start
+ * and end locate the window in the full abstract, highlights are relative to
+ * text.
+ */
+@Getter
+@Builder
+public class AbstractSnippet {
+    private final String text;
+    private final int start;
+    private final int end;
+    private final boolean truncated; // the window is not the whole abstract
+    private final List<TextSpan> highlights;
+}
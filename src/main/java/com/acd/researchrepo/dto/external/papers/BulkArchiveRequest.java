@@ -0,0 +1,29 @@
+package com.acd.researchrepo.dto.external.papers;
+
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.extern.jackson.Jacksonized;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Archives every active paper matching all given filters. Department admins are
+ * always scoped to their department.
+ */
+@Getter
+@Jacksonized
+@Builder
+public class BulkArchiveRequest {
+    private Integer departmentId;
+
+    private List<@NotNull Integer> years;
+
+    @Size(max = 5000, message = "At most 5000 papers per call")
+    private List<@NotNull Integer> paperIds;
+
+    // Reject the requests of the archived papers in the background
+    private boolean async;
+}
@@ -0,0 +1,17 @@
+package com.acd.researchrepo.dto.external.papers;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkArchiveResponse {
+    private final List<Integer> archivedPaperIds;
+    private final Long rejectedRequests; // Only without async
+    private final RejectionJobDto job; // Only with async
+}
@@ -4,29 +4,106 @@ import java.util.List;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import com.acd.researchrepo.util.enums.CountMode;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import lombok.Builder;
 import lombok.Getter;
 
 @Getter
-@Builder
+@Builder(toBuilder = true)
 public class PaginatedResponse<T> {
     private List<T> content;
-    private int totalElements;
-    private int totalPages;
+    private Long totalElements; // null when countMode is none
+    private Integer totalPages; // null when countMode is none
     private int number; // Current page number (0-indexed)
     private int size; // Page size
+    private boolean hasNext;
+    private CountMode countMode; // How totalElements was obtained
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor; // Pass as "after" to get the next page, null on the last page
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String suggestion; // "Did you mean", only set when a search returned nothing
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private PaperFacets facets; // Only set for paper searches with facets=true
 
     public static <Entity, Dto> PaginatedResponse<Dto> fromPage(
             Page<Entity> page,
             Function<Entity, Dto> mapper) {
+        return fromPage(page, mapper, null);
+    }
+
+    /**
+     * Same as {@link #fromPage(Page, Function)}, plus a cursor to continue from the
+     * last row in keyset mode.
+     */
+    public static <Entity, Dto> PaginatedResponse<Dto> fromPage(
+            Page<Entity> page,
+            Function<Entity, Dto> mapper,
+            Function<Entity, String> cursorOf) {
+        return fromSlice(page, mapper, cursorOf).withTotal(page.getTotalElements(), CountMode.EXACT);
+    }
+
+    /**
+     * Builds an uncounted page. The slice was read with one extra row, which only
+     * tells whether a next page exists.
+     */
+    public static <Entity, Dto> PaginatedResponse<Dto> fromSlice(
+            Slice<Entity> slice,
+            Function<Entity, Dto> mapper,
+            Function<Entity, String> cursorOf) {
+        String nextCursor = null;
+        if (cursorOf != null && slice.hasNext() && slice.hasContent()) {
+            nextCursor = cursorOf.apply(slice.getContent().get(slice.getNumberOfElements() - 1));
+        }
+        return PaginatedResponse.<Dto>builder()
+                .content(slice.getContent().stream().map(mapper).collect(Collectors.toList()))
+                .number(slice.getNumber())
+                .size(slice.getSize())
+                .hasNext(slice.hasNext())
+                .countMode(CountMode.NONE)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Builds a keyset page from up to size + 1 rows fetched after a cursor. The
+     * extra row only tells that a next page exists, it is not returned.
+     */
+    public static <Entity, Dto> PaginatedResponse<Dto> fromKeyset(
+            List<Entity> rows,
+            int size,
+            Function<Entity, Dto> mapper,
+            Function<Entity, String> cursorOf) {
+        boolean hasNext = rows.size() > size;
+        List<Entity> pageRows = hasNext ? rows.subList(0, size) : rows;
         return PaginatedResponse.<Dto>builder()
-                .content(page.getContent().stream().map(mapper).collect(Collectors.toList()))
-                .totalElements((int) page.getTotalElements())
-                .totalPages(page.getTotalPages())
-                .number(page.getNumber())
-                .size(page.getSize())
+                .content(pageRows.stream().map(mapper).collect(Collectors.toList()))
+                .number(0)
+                .size(size)
+                .hasNext(hasNext)
+                .countMode(CountMode.NONE)
+                .nextCursor(hasNext ? cursorOf.apply(pageRows.get(pageRows.size() - 1)) : null)
+                .build();
+    }
+
+    /**
+     * Returns a copy reporting the given total. An estimate is raised to at least
+     * the rows this page proves to exist, so it never contradicts hasNext.
+     */
+    public PaginatedResponse<T> withTotal(long total, CountMode mode) {
+        long seen = (long) number * size + content.size() + (hasNext ? 1 : 0);
+        long effectiveTotal = mode == CountMode.EXACT ? total : Math.max(total, seen);
+        return toBuilder()
+                .totalElements(effectiveTotal)
+                .totalPages(size == 0 ? 1 : (int) Math.ceil((double) effectiveTotal / size))
+                .countMode(mode)
                 .build();
     }
 }
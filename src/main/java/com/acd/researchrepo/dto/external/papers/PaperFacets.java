@@ -0,0 +1,42 @@
+package com.acd.researchrepo.dto.external.papers;
+
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Facet counts for the current paper search. Each dimension is counted with the
+ * search, the role scope and the filters of the other dimensions, but not its
+ * own filter, so selecting a department still shows what the other departments
+ * would return.
+ */
+@Getter
+@Builder
+public class PaperFacets {
+    private final List<DepartmentCount> departments;
+    private final List<YearCount> years;
+    private final List<ArchivedCount> archived;
+
+    @Getter
+    @Builder
+    public static class DepartmentCount {
+        private final Integer departmentId;
+        private final String departmentName;
+        private final long count;
+    }
+
+    @Getter
+    @Builder
+    public static class YearCount {
+        private final Integer year;
+        private final long count;
+    }
+
+    @Getter
+    @Builder
+    public static class ArchivedCount {
+        private final boolean archived;
+        private final long count;
+    }
+}
@@ -0,0 +1,18 @@
+package com.acd.researchrepo.dto.external.papers;
+
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Where the search terms occur in a paper, returned with highlight=true in
+ * place of the abstract.
+ */
+@Getter
+@Builder
+public class PaperHighlights {
+    private final List<TextSpan> title;
+    private final List<TextSpan> authorName;
+    private final AbstractSnippet abstractSnippet;
+}
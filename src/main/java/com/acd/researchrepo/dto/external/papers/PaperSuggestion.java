@@ -0,0 +1,13 @@
+package com.acd.researchrepo.dto.external.papers;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+@Getter
+@Builder
+@EqualsAndHashCode
+public class PaperSuggestion {
+    private final String text;
+    private final String type; // title or author
+}
@@ -0,0 +1,12 @@
+package com.acd.researchrepo.dto.external.papers;
+
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class PaperSuggestionListResponse {
+    private final List<PaperSuggestion> suggestions;
+}
@@ -0,0 +1,25 @@
+package com.acd.researchrepo.dto.external.papers;
+
+import java.time.LocalDateTime;
+
+import com.acd.researchrepo.util.enums.JobStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Progress of the background rejection of the requests of archived papers.
+ */
+@Getter
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RejectionJobDto {
+    private final String jobId;
+    private final JobStatus status;
+    private final int paperCount;
+    private final long rejectedCount; // Requests rejected so far
+    private final LocalDateTime startedAt;
+    private final LocalDateTime finishedAt;
+    private final String error;
+}
@@ -2,6 +2,7 @@ package com.acd.researchrepo.dto.external.papers;
 
 import java.util.List;
 
+import com.acd.researchrepo.util.enums.CountMode;
 import com.acd.researchrepo.util.enums.ResearchPaperSortField;
 
 import org.springframework.data.domain.PageRequest;
@@ -18,9 +19,21 @@ import jakarta.validation.constraints.Pattern;
 public class ResearchPaperSearchRequest {
 
     private String search;
+    // Typo tolerant trigram search on title and author instead of full-text
+    private boolean fuzzy = false;
     private List<Integer> departmentId;
     private List<@Min(value = 1900, message = "Year must be at least 1900") @Max(value = 2100, message = "Year cannot exceed 2100") Integer> year;
     private Boolean archived;
+    // Also return department/year/archived counts for this search
+    private boolean facets = false;
+    // Return match offsets and an abstract snippet around the matches instead of the abstract
+    private boolean highlight = false;
+
+    // Keyset cursor, the nextCursor of the previous page. page is ignored when set.
+    private String after;
+
+    @Pattern(regexp = "(?i)exact|estimated|none", message = "Invalid count mode. Must be: exact, estimated, none")
+    private String count;
 
     @Min(value = 0, message = "Page number cannot be negative")
     private int page = 0;
@@ -29,15 +42,54 @@ public class ResearchPaperSearchRequest {
     @Max(value = 100, message = "Page size cannot exceed 100")
     private int size = 20;
 
-    @Pattern(regexp = "submissionDate|title|authorName", message = "Invalid sort field. Must be: submissionDate, title, authorName")
+    @Pattern(regexp = "submissionDate|title|authorName|relevance", message = "Invalid sort field. Must be: submissionDate, title, authorName, relevance")
     private String sortBy = "submissionDate";
 
     @Pattern(regexp = "(?i)asc|desc", message = "Invalid sort order. Must be: asc, desc")
     private String sortOrder = "desc";
 
+    /**
+     * Relevance ordering only applies when there is a search term to rank against.
+     * It always puts the best match first, sortOrder is ignored.
+     */
+    public boolean isRelevanceSort() {
+        return ResearchPaperSortField.RELEVANCE.getApiField().equalsIgnoreCase(sortBy)
+                && search != null && !search.trim().isEmpty();
+    }
+
+    public boolean isCursorMode() {
+        return after != null && !after.isBlank();
+    }
+
+    public CountMode resolveCountMode() {
+        return CountMode.resolve(count, isCursorMode());
+    }
+
+    /**
+     * The effective sort field. Relevance without a search term falls back to
+     * submissionDate.
+     */
+    public ResearchPaperSortField resolveSortField() {
+        if (isRelevanceSort()) {
+            return ResearchPaperSortField.RELEVANCE;
+        }
+        ResearchPaperSortField field = ResearchPaperSortField.resolve(sortBy, ResearchPaperSortField.SUBMISSION_DATE);
+        return field == ResearchPaperSortField.RELEVANCE ? ResearchPaperSortField.SUBMISSION_DATE : field;
+    }
+
+    public boolean isAscendingSort() {
+        return !isRelevanceSort() && "asc".equalsIgnoreCase(sortOrder);
+    }
+
     public Pageable toPageable() {
-        Sort.Direction direction = "asc".equalsIgnoreCase(sortOrder) ? Sort.Direction.ASC : Sort.Direction.DESC;
-        String mappedField = ResearchPaperSortField.fromApiField(sortBy, "submissionDate");
-        return PageRequest.of(page, size, Sort.by(direction, mappedField));
+        if (isRelevanceSort()) {
+            // Ordering is applied by ResearchPaperSpec, rank is not an entity attribute
+            return PageRequest.of(page, size);
+        }
+
+        // paperId breaks ties so the order is total, which keyset cursors rely on
+        Sort.Direction direction = isAscendingSort() ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Sort sort = Sort.by(direction, resolveSortField().getEntityField()).and(Sort.by(direction, "paperId"));
+        return PageRequest.of(page, size, sort);
     }
 }
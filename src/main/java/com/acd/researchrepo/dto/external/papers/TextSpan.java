@@ -0,0 +1,14 @@
+package com.acd.researchrepo.dto.external.papers;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * A matched term as character offsets into a text, end exclusive.
+ */
+@Getter
+@Builder
+public class TextSpan {
+    private final int start;
+    private final int end;
+}
@@ -0,0 +1,21 @@
+package com.acd.researchrepo.dto.external.requests;
+
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.extern.jackson.Jacksonized;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+@Getter
+@Jacksonized
+@Builder
+public class BulkCreateRequest {
+    @NotEmpty(message = "paperIds must not be empty")
+    @Size(max = 200, message = "At most 200 papers per call")
+    private List<@NotNull @Positive Integer> paperIds;
+}
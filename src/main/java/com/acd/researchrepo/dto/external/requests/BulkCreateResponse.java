@@ -0,0 +1,13 @@
+package com.acd.researchrepo.dto.external.requests;
+
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class BulkCreateResponse {
+    private final int created;
+    private final List<BulkCreateResult> results; // One per distinct paper id, in request order
+}
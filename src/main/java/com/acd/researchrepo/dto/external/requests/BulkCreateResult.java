@@ -0,0 +1,16 @@
+package com.acd.researchrepo.dto.external.requests;
+
+import com.acd.researchrepo.util.enums.BulkCreateOutcome;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkCreateResult {
+    private final Integer paperId;
+    private final BulkCreateOutcome outcome;
+    private final Integer requestId; // Only for created requests
+}
@@ -0,0 +1,29 @@
+package com.acd.researchrepo.dto.external.requests;
+
+import java.util.List;
+
+import com.acd.researchrepo.util.enums.RequestDecision;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.extern.jackson.Jacksonized;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+@Getter
+@Jacksonized
+@Builder
+public class BulkDecisionRequest {
+    @NotEmpty(message = "requestIds must not be empty")
+    @Size(max = 5000, message = "At most 5000 requests per call")
+    private List<@NotNull Integer> requestIds;
+
+    @NotNull(message = "decision must be accept or reject")
+    private RequestDecision decision;
+
+    // Only used when rejecting
+    @Size(max = 255, message = "Reason must be at most 255 characters")
+    private String reason;
+}
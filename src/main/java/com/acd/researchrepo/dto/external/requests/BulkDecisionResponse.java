@@ -0,0 +1,13 @@
+package com.acd.researchrepo.dto.external.requests;
+
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class BulkDecisionResponse {
+    private final int updated;
+    private final List<BulkDecisionResult> results; // One per distinct request id, in request order
+}
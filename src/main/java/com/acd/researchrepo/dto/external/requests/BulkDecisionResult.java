@@ -0,0 +1,13 @@
+package com.acd.researchrepo.dto.external.requests;
+
+import com.acd.researchrepo.util.enums.BulkDecisionOutcome;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class BulkDecisionResult {
+    private final Integer requestId;
+    private final BulkDecisionOutcome outcome;
+}
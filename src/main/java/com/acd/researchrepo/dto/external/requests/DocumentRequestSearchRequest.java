@@ -3,6 +3,7 @@ package com.acd.researchrepo.dto.external.requests;
 import java.util.List;
 
 import com.acd.researchrepo.model.RequestStatus;
+import com.acd.researchrepo.util.enums.CountMode;
 import com.acd.researchrepo.util.enums.DocumentRequestSortField;
 
 import org.springframework.data.domain.PageRequest;
@@ -22,6 +23,12 @@ public class DocumentRequestSearchRequest {
     private List<RequestStatus> status;
     private Integer departmentId;
 
+    // Keyset cursor, the nextCursor of the previous page. page is ignored when set.
+    private String after;
+
+    @Pattern(regexp = "(?i)exact|estimated|none", message = "Invalid count mode. Must be: exact, estimated, none")
+    private String count;
+
     @Min(value = 0, message = "Page number cannot be negative")
     private int page = 0;
 
@@ -35,9 +42,26 @@ public class DocumentRequestSearchRequest {
     @Pattern(regexp = "(?i)asc|desc", message = "Invalid sort order. Must be: asc, desc")
     private String sortOrder = "desc";
 
+    public boolean isCursorMode() {
+        return after != null && !after.isBlank();
+    }
+
+    public CountMode resolveCountMode() {
+        return CountMode.resolve(count, isCursorMode());
+    }
+
+    public DocumentRequestSortField resolveSortField() {
+        return DocumentRequestSortField.resolve(sortBy, DocumentRequestSortField.CREATED_AT);
+    }
+
+    public boolean isAscendingSort() {
+        return "asc".equalsIgnoreCase(sortOrder);
+    }
+
     public Pageable toPageable() {
-        Sort.Direction direction = "asc".equalsIgnoreCase(sortOrder) ? Sort.Direction.ASC : Sort.Direction.DESC;
-        String mappedField = DocumentRequestSortField.fromApiField(sortBy, "createdAt");
-        return PageRequest.of(page, size, Sort.by(direction, mappedField));
+        // requestId breaks ties so the order is total, which keyset cursors rely on
+        Sort.Direction direction = isAscendingSort() ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Sort sort = Sort.by(direction, resolveSortField().getEntityField()).and(Sort.by(direction, "requestId"));
+        return PageRequest.of(page, size, sort);
     }
 }
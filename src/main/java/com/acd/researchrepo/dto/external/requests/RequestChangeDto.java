@@ -0,0 +1,26 @@
+package com.acd.researchrepo.dto.external.requests;
+
+import java.time.LocalDateTime;
+
+import com.acd.researchrepo.model.RequestStatus;
+import com.acd.researchrepo.util.enums.RequestChangeType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * One committed change to a document request, pushed as a "request" event.
+ */
+@Getter
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RequestChangeDto {
+    private final Integer requestId;
+    private final Integer userId;
+    private final Integer paperId;
+    private final Integer departmentId;
+    private final RequestChangeType change;
+    private final RequestStatus status; // Absent for deleted requests
+    private final LocalDateTime changedAt;
+}
@@ -0,0 +1,20 @@
+package com.acd.researchrepo.dto.external.statistics;
+
+import java.time.LocalDateTime;
+
+import com.acd.researchrepo.dto.external.model.DepartmentDto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class DepartmentStatisticsDto {
+    private final DepartmentDto department;
+    private final long paperCount; // Including archived papers
+    private final long archivedPaperCount;
+    private final long pendingRequestCount;
+    private final long acceptedRequestCount;
+    private final long rejectedRequestCount;
+    private final LocalDateTime updatedAt;
+}
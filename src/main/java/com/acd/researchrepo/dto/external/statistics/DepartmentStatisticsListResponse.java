@@ -0,0 +1,12 @@
+package com.acd.researchrepo.dto.external.statistics;
+
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class DepartmentStatisticsListResponse {
+    private final List<DepartmentStatisticsDto> departments;
+}
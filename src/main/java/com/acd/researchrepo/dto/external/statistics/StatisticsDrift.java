@@ -0,0 +1,16 @@
+package com.acd.researchrepo.dto.external.statistics;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * One counter the reconciliation found wrong, and the value it was corrected to.
+ */
+@Getter
+@Builder
+public class StatisticsDrift {
+    private final Integer departmentId;
+    private final String counter;
+    private final long stored;
+    private final long actual;
+}
@@ -0,0 +1,13 @@
+package com.acd.researchrepo.dto.external.statistics;
+
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class StatisticsReconciliationResponse {
+    private final int departmentsChecked;
+    private final List<StatisticsDrift> drift;
+}
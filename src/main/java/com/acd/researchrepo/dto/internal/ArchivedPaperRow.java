@@ -0,0 +1,7 @@
+package com.acd.researchrepo.dto.internal;
+
+/**
+ * A paper archived by a bulk archive, with the attributes its change event needs.
+ */
+public record ArchivedPaperRow(Integer paperId, Integer departmentId, Integer year) {
+}
@@ -0,0 +1,7 @@
+package com.acd.researchrepo.dto.internal;
+
+/**
+ * The full abstract of one paper, read for snippet highlighting only.
+ */
+public record PaperAbstract(Integer paperId, String abstractText) {
+}
@@ -0,0 +1,7 @@
+package com.acd.researchrepo.dto.internal;
+
+/**
+ * Number of papers sharing a department, submission year and archived flag.
+ */
+public record PaperCountRow(Integer departmentId, Integer year, Boolean archived, Long count) {
+}
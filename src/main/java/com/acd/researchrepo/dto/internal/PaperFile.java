@@ -0,0 +1,8 @@
+package com.acd.researchrepo.dto.internal;
+
+/**
+ * What a download needs of a paper: the columns the access check reads and the
+ * stored file.
+ */
+public record PaperFile(Integer paperId, Integer departmentId, Boolean archived, String filePath) {
+}
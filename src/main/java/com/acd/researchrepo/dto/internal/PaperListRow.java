@@ -0,0 +1,22 @@
+package com.acd.researchrepo.dto.internal;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * The columns a paper listing shows, selected straight into this record instead
+ * of loading the entity. abstractPreview holds at most the configured preview
+ * length plus one character, so the mapper can tell whether it was cut.
+ */
+public record PaperListRow(
+        Integer paperId,
+        String title,
+        String authorName,
+        String abstractPreview,
+        String filePath,
+        Integer departmentId,
+        String departmentName,
+        LocalDate submissionDate,
+        Boolean archived,
+        LocalDateTime archivedAt) {
+}
@@ -0,0 +1,27 @@
+package com.acd.researchrepo.dto.internal;
+
+import java.util.List;
+
+import com.acd.researchrepo.dto.external.papers.ResearchPaperSearchRequest;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * A paper search with role scoping already applied. Built by
+ * ResearchPaperService and executed by whichever search engine is configured.
+ */
+@Getter
+@Builder
+public class PaperSearchCriteria {
+    private final ResearchPaperSearchRequest request;
+
+    // Effective filters (request filters after role scoping)
+    private final List<Integer> departmentIds;
+    private final Boolean archived;
+
+    // Role scope of the caller
+    private final boolean admin;
+    private final boolean onlyActive;
+    private final Integer scopeDepartmentId;
+}
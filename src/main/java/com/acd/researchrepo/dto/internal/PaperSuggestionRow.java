@@ -0,0 +1,7 @@
+package com.acd.researchrepo.dto.internal;
+
+/**
+ * The columns the suggestion index keeps of a paper.
+ */
+public record PaperSuggestionRow(Integer paperId, String title, String authorName, Boolean archived) {
+}
@@ -0,0 +1,10 @@
+package com.acd.researchrepo.dto.internal;
+
+import java.time.LocalDateTime;
+
+/**
+ * The columns a paper's ETag is derived from, read before the paper itself so a
+ * conditional request can be answered without loading the entity.
+ */
+public record PaperVersion(Integer paperId, Boolean archived, LocalDateTime archivedAt, LocalDateTime updatedAt) {
+}
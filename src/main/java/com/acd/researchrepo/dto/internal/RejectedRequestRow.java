@@ -0,0 +1,15 @@
+package com.acd.researchrepo.dto.internal;
+
+import com.acd.researchrepo.model.RequestStatus;
+
+/**
+ * A request rejected because its paper was archived, with the status it had
+ * before and the department of its paper.
+ */
+public record RejectedRequestRow(
+        Integer requestId,
+        Integer userId,
+        Integer paperId,
+        Integer departmentId,
+        RequestStatus previousStatus) {
+}
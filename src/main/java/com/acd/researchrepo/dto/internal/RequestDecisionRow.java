@@ -0,0 +1,16 @@
+package com.acd.researchrepo.dto.internal;
+
+import com.acd.researchrepo.model.RequestStatus;
+
+/**
+ * What a bulk decision checks about one request: its status and the department
+ * and archived flag of its paper.
+ */
+public record RequestDecisionRow(
+        Integer requestId,
+        Integer userId,
+        Integer paperId,
+        Integer departmentId,
+        RequestStatus status,
+        Boolean paperArchived) {
+}
@@ -0,0 +1,53 @@
+package com.acd.researchrepo.dto.internal;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.acd.researchrepo.model.RequestStatus;
+import com.acd.researchrepo.model.UserRole;
+
+/**
+ * The columns a request listing shows, with its requester and paper. JPA
+ * constructor expressions cannot nest, so the query selects flat columns through
+ * the second constructor.
+ */
+public record RequestListRow(
+        Integer requestId,
+        RequestStatus status,
+        String rejectionReason,
+        LocalDateTime requestDate,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        UserListRow user,
+        PaperListRow paper) {
+
+    public RequestListRow(
+            Integer requestId,
+            RequestStatus status,
+            String rejectionReason,
+            LocalDateTime requestDate,
+            LocalDateTime createdAt,
+            LocalDateTime updatedAt,
+            Integer userId,
+            String email,
+            String fullName,
+            UserRole role,
+            String profilePictureUrl,
+            Integer userDepartmentId,
+            String userDepartmentName,
+            Integer paperId,
+            String title,
+            String authorName,
+            String abstractPreview,
+            String filePath,
+            Integer paperDepartmentId,
+            String paperDepartmentName,
+            LocalDate submissionDate,
+            Boolean archived,
+            LocalDateTime archivedAt) {
+        this(requestId, status, rejectionReason, requestDate, createdAt, updatedAt,
+                new UserListRow(userId, email, fullName, role, profilePictureUrl, userDepartmentId, userDepartmentName),
+                new PaperListRow(paperId, title, authorName, abstractPreview, filePath,
+                        paperDepartmentId, paperDepartmentName, submissionDate, archived, archivedAt));
+    }
+}
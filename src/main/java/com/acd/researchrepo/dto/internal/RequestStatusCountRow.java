@@ -0,0 +1,9 @@
+package com.acd.researchrepo.dto.internal;
+
+import com.acd.researchrepo.model.RequestStatus;
+
+/**
+ * Number of document requests with one status on the papers of a department.
+ */
+public record RequestStatusCountRow(Integer departmentId, RequestStatus status, Long count) {
+}
@@ -0,0 +1,12 @@
+package com.acd.researchrepo.dto.internal;
+
+/**
+ * One paper of a request submission: the paper's department and archived flag,
+ * and the id of the request created for it, null if none was created.
+ */
+public record RequestSubmissionRow(
+        Integer paperId,
+        Integer departmentId,
+        Boolean paperArchived,
+        Integer requestId) {
+}
@@ -0,0 +1,17 @@
+package com.acd.researchrepo.dto.internal;
+
+import com.acd.researchrepo.model.UserRole;
+
+/**
+ * The requester columns a request listing shows. The department is null for
+ * users without one.
+ */
+public record UserListRow(
+        Integer userId,
+        String email,
+        String fullName,
+        UserRole role,
+        String profilePictureUrl,
+        Integer departmentId,
+        String departmentName) {
+}
@@ -1,7 +1,10 @@
 package com.acd.researchrepo.environment;
 
+import java.time.Duration;
 import java.util.List;
 
+import com.acd.researchrepo.util.enums.SearchEngine;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.validation.annotation.Validated;
 
@@ -9,6 +12,9 @@ import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
@@ -36,6 +42,24 @@ public class AppProperties {
     @Valid
     @NotNull
     private final Storage storage;
+    @Valid
+    @NotNull
+    private final Search search;
+    @Valid
+    @NotNull
+    private final Pagination pagination;
+    @Valid
+    @NotNull
+    private final HttpCache httpCache;
+    @Valid
+    @NotNull
+    private final QueryBudget queryBudget;
+    @Valid
+    @NotNull
+    private final Sse sse;
+    @Valid
+    @NotNull
+    private final Entitlements entitlements;
 
     @Getter
     @RequiredArgsConstructor
@@ -85,4 +109,94 @@ public class AppProperties {
         @NotBlank(message = "APP_STORAGE_UPLOAD_DIR must be set.")
         private final String uploadDir;
     }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Search {
+        @NotNull
+        private final SearchEngine engine;
+        // pg_trgm word similarity a fuzzy match must reach (0..1)
+        @DecimalMin("0.0")
+        @DecimalMax("1.0")
+        private final double fuzzyThreshold;
+        // lower bound used for "did you mean" suggestions on empty results
+        @DecimalMin("0.0")
+        @DecimalMax("1.0")
+        private final double suggestionThreshold;
+        // maximum characters of the abstract snippet returned with highlight=true
+        @Min(20)
+        private final int snippetLength;
+        // how long a cached listing page is served, paper writes evict affected pages earlier
+        @NotNull
+        private final Duration resultCacheTtl;
+        @Min(1)
+        private final long resultCacheMaxSize;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Pagination {
+        // how long an estimated (count=estimated) total is reused for the same filters
+        @NotNull
+        private final Duration countCacheTtl;
+        @Min(1)
+        private final long countCacheMaxSize;
+        // characters of the abstract listings return, the full text is on the detail endpoint
+        @Min(1)
+        private final int abstractPreviewLength;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class HttpCache {
+        // how long students and teachers reuse a paper without revalidating, admins always revalidate
+        @NotNull
+        private final Duration paperMaxAge;
+        // same for the filter metadata, a new paper shows up in their filters after at most this long
+        @NotNull
+        private final Duration filterMaxAge;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class QueryBudget {
+        // fail requests that run more statements than their @QueryBudget instead of only logging them
+        private final boolean enforce;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Sse {
+        // how long a stream stays open, the client reconnects after it ends
+        @NotNull
+        private final Duration timeout;
+        // comment sent on idle streams so proxies keep them open and dead clients are noticed
+        @NotNull
+        private final Duration heartbeatInterval;
+        // streams one user may hold open, the oldest is closed beyond that
+        @Min(1)
+        private final int maxStreamsPerUser;
+        // events buffered for a slow client, past this they are dropped and the client told to resync
+        @Min(1)
+        private final int queueCapacity;
+        // longest a single write to a client may block, a client that stops reading is dropped after it
+        @NotNull
+        private final Duration sendTimeout;
+        // recent events kept so a reconnecting client can resume from its Last-Event-ID
+        @Min(1)
+        private final int replayCapacity;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Entitlements {
+        // how long a cached download grant is trusted: another instance's archive or reject is seen here
+        // up to this late
+        @NotNull
+        private final Duration cacheTtl;
+        @Min(1)
+        private final long maxUsers;
+        @Min(1)
+        private final long maxPapers;
+    }
 }
@@ -0,0 +1,25 @@
+package com.acd.researchrepo.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Published by DocumentRequestService whenever a document request is written.
+ * Carries the requesting user, the paper and its department so per-user and
+ * per-department views can be invalidated; listeners should use
+ * {@code @TransactionalEventListener} to only see committed changes.
+ */
+@Getter
+@RequiredArgsConstructor
+public class DocumentRequestChangedEvent {
+
+    public enum Type {
+        CREATED, ACCEPTED, REJECTED, DELETED
+    }
+
+    private final Integer requestId;
+    private final Integer userId;
+    private final Integer paperId;
+    private final Integer departmentId; // Of the paper
+    private final Type type;
+}
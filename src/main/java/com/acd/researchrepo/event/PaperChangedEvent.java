@@ -0,0 +1,40 @@
+package com.acd.researchrepo.event;
+
+import com.acd.researchrepo.model.ResearchPaper;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Published by ResearchPaperService whenever a paper is written. Listeners that
+ * keep in-memory views of the catalog in sync should use
+ * {@code @TransactionalEventListener} so they only see committed changes. A
+ * bulk archive publishes a single {@link PapersArchivedEvent} instead.
+ */
+@Getter
+@RequiredArgsConstructor
+public class PaperChangedEvent {
+
+    public enum Type {
+        CREATED, UPDATED, ARCHIVED, UNARCHIVED, DELETED
+    }
+
+    /**
+     * The filterable attributes of a paper at one point in time, enough to tell
+     * which listings it appears in.
+     */
+    public record Snapshot(Integer departmentId, Integer year, boolean archived) {
+
+        public static Snapshot of(ResearchPaper paper) {
+            return new Snapshot(
+                    paper.getDepartment().getDepartmentId(),
+                    paper.getSubmissionDate().getYear(),
+                    Boolean.TRUE.equals(paper.getArchived()));
+        }
+    }
+
+    private final Integer paperId;
+    private final Type type;
+    private final Snapshot before; // null for CREATED
+    private final Snapshot after; // null for DELETED
+}
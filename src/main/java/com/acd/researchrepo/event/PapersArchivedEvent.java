@@ -0,0 +1,25 @@
+package com.acd.researchrepo.event;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Published by ResearchPaperService once per bulk archive instead of one
+ * {@link PaperChangedEvent} per paper. Every change is an ARCHIVED one with both
+ * snapshots set, so listeners can apply the new flag without reloading the
+ * papers and sweep their caches once for the whole batch.
+ */
+@Getter
+@RequiredArgsConstructor
+public class PapersArchivedEvent {
+
+    private final List<PaperChangedEvent> changes;
+    private final LocalDateTime archivedAt;
+
+    public List<Integer> getPaperIds() {
+        return changes.stream().map(PaperChangedEvent::getPaperId).toList();
+    }
+}
@@ -33,6 +33,7 @@ public enum ErrorCode {
     // HTTP 409
     DUPLICATE_REQUEST(HttpStatus.CONFLICT, "Duplicate active request exists"),
     REQUEST_ALREADY_FINAL(HttpStatus.CONFLICT, "Request in terminal state"),
+    REQUEST_STATE_CONFLICT(HttpStatus.CONFLICT, "Request was changed concurrently"),
 
     // HTTP 413/415
     FILE_TOO_LARGE(HttpStatus.PAYLOAD_TOO_LARGE, "File exceeds 20MB limit"),
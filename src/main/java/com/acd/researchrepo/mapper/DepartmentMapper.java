@@ -1,7 +1,9 @@
 package com.acd.researchrepo.mapper;
 
 import com.acd.researchrepo.dto.external.model.DepartmentDto;
+import com.acd.researchrepo.dto.external.statistics.DepartmentStatisticsDto;
 import com.acd.researchrepo.model.Department;
+import com.acd.researchrepo.model.DepartmentStatistics;
 
 import org.springframework.stereotype.Component;
 
@@ -19,4 +21,42 @@ public class DepartmentMapper {
                 .build();
     }
 
+    public DepartmentDto toDto(Department department, Long paperCount) {
+        if (department == null) {
+            return null;
+        }
+
+        return DepartmentDto.builder()
+                .departmentId(department.getDepartmentId())
+                .departmentName(department.getDepartmentName())
+                .paperCount(paperCount)
+                .build();
+    }
+
+    public DepartmentDto toDto(Integer departmentId, String departmentName) {
+        if (departmentId == null) {
+            return null;
+        }
+
+        return DepartmentDto.builder()
+                .departmentId(departmentId)
+                .departmentName(departmentName)
+                .build();
+    }
+
+    public DepartmentStatisticsDto toStatisticsDto(DepartmentStatistics statistics, String departmentName) {
+        if (statistics == null) {
+            return null;
+        }
+
+        return DepartmentStatisticsDto.builder()
+                .department(toDto(statistics.getDepartmentId(), departmentName))
+                .paperCount(statistics.getPaperCount())
+                .archivedPaperCount(statistics.getArchivedPaperCount())
+                .pendingRequestCount(statistics.getPendingRequestCount())
+                .acceptedRequestCount(statistics.getAcceptedRequestCount())
+                .rejectedRequestCount(statistics.getRejectedRequestCount())
+                .updatedAt(statistics.getUpdatedAt())
+                .build();
+    }
 }
@@ -1,10 +1,17 @@
 package com.acd.researchrepo.mapper;
 
+import java.time.LocalDateTime;
+
 import com.acd.researchrepo.dto.external.model.ResearchPaperDto;
 import com.acd.researchrepo.dto.external.model.UserDocumentRequestDto;
 import com.acd.researchrepo.dto.external.papers.PaperUserRequestResponse;
 import com.acd.researchrepo.dto.external.requests.AdminRequestResponse;
+import com.acd.researchrepo.dto.external.requests.RequestChangeDto;
+import com.acd.researchrepo.dto.internal.RequestListRow;
+import com.acd.researchrepo.event.DocumentRequestChangedEvent;
 import com.acd.researchrepo.model.DocumentRequest;
+import com.acd.researchrepo.model.RequestStatus;
+import com.acd.researchrepo.util.enums.RequestChangeType;
 
 import org.springframework.stereotype.Component;
 
@@ -49,6 +56,35 @@ public class DocumentRequestMapper {
                 .build();
     }
 
+    public UserDocumentRequestDto toDto(RequestListRow request) {
+        if (request == null) {
+            return null;
+        }
+
+        return UserDocumentRequestDto.builder()
+                .requestId(request.requestId())
+                .status(request.status())
+                .createdAt(request.createdAt() != null ? request.createdAt() : request.requestDate())
+                .updatedAt(request.updatedAt() != null ? request.updatedAt() : request.requestDate())
+                .paper(researchPaperMapper.toListDto(request.paper()))
+                .build();
+    }
+
+    public AdminRequestResponse toAdminDto(RequestListRow request) {
+        if (request == null)
+            return null;
+
+        return AdminRequestResponse.builder()
+                .requestId(request.requestId())
+                .status(request.status())
+                .rejectionReason(request.rejectionReason())
+                .createdAt(request.createdAt() != null ? request.createdAt() : request.requestDate())
+                .updatedAt(request.updatedAt() != null ? request.updatedAt() : request.requestDate())
+                .user(userMapper.toDto(request.user()))
+                .paper(researchPaperMapper.toListDto(request.paper()))
+                .build();
+    }
+
     public PaperUserRequestResponse toPaperUserRequestResponse(DocumentRequest request) {
         if (request == null)
             return null;
@@ -59,4 +95,32 @@ public class DocumentRequestMapper {
                 .updatedAt(request.getUpdatedAt())
                 .build();
     }
+
+    public RequestChangeDto toChangeDto(DocumentRequestChangedEvent event) {
+        if (event == null)
+            return null;
+
+        RequestChangeType change = switch (event.getType()) {
+            case CREATED -> RequestChangeType.CREATED;
+            case ACCEPTED -> RequestChangeType.ACCEPTED;
+            case REJECTED -> RequestChangeType.REJECTED;
+            case DELETED -> RequestChangeType.DELETED;
+        };
+        RequestStatus status = switch (event.getType()) {
+            case CREATED -> RequestStatus.PENDING;
+            case ACCEPTED -> RequestStatus.ACCEPTED;
+            case REJECTED -> RequestStatus.REJECTED;
+            case DELETED -> null;
+        };
+
+        return RequestChangeDto.builder()
+                .requestId(event.getRequestId())
+                .userId(event.getUserId())
+                .paperId(event.getPaperId())
+                .departmentId(event.getDepartmentId())
+                .change(change)
+                .status(status)
+                .changedAt(LocalDateTime.now())
+                .build();
+    }
 }
@@ -1,6 +1,8 @@
 package com.acd.researchrepo.mapper;
 
 import com.acd.researchrepo.dto.external.model.ResearchPaperDto;
+import com.acd.researchrepo.dto.internal.PaperListRow;
+import com.acd.researchrepo.environment.AppProperties;
 import com.acd.researchrepo.model.ResearchPaper;
 
 import org.springframework.stereotype.Component;
@@ -9,9 +11,11 @@ import org.springframework.stereotype.Component;
 public class ResearchPaperMapper {
 
     private final DepartmentMapper departmentMapper;
+    private final AppProperties appProperties;
 
-    public ResearchPaperMapper(DepartmentMapper departmentMapper) {
+    public ResearchPaperMapper(DepartmentMapper departmentMapper, AppProperties appProperties) {
         this.departmentMapper = departmentMapper;
+        this.appProperties = appProperties;
     }
 
     public ResearchPaperDto toDto(ResearchPaper paper) {
@@ -31,4 +35,63 @@ public class ResearchPaperMapper {
                 .archivedAt(paper.getArchivedAt())
                 .build();
     }
+
+    /**
+     * Listing variant of {@link #toDto(ResearchPaper)}: the abstract is cut to the
+     * configured preview length and abstractTruncated tells whether it was.
+     */
+    public ResearchPaperDto toListDto(ResearchPaper paper) {
+        if (paper == null) {
+            return null;
+        }
+
+        String preview = preview(paper.getAbstractText());
+        return ResearchPaperDto.builder()
+                .paperId(paper.getPaperId())
+                .title(paper.getTitle())
+                .authorName(paper.getAuthorName())
+                .abstractText(preview)
+                .abstractTruncated(isTruncated(paper.getAbstractText(), preview))
+                .department(departmentMapper.toDto(paper.getDepartment()))
+                .submissionDate(paper.getSubmissionDate())
+                .filePath(paper.getFilePath())
+                .archived(paper.getArchived())
+                .archivedAt(paper.getArchivedAt())
+                .build();
+    }
+
+    public ResearchPaperDto toListDto(PaperListRow paper) {
+        if (paper == null) {
+            return null;
+        }
+
+        String preview = preview(paper.abstractPreview());
+        return ResearchPaperDto.builder()
+                .paperId(paper.paperId())
+                .title(paper.title())
+                .authorName(paper.authorName())
+                .abstractText(preview)
+                .abstractTruncated(isTruncated(paper.abstractPreview(), preview))
+                .department(departmentMapper.toDto(paper.departmentId(), paper.departmentName()))
+                .submissionDate(paper.submissionDate())
+                .filePath(paper.filePath())
+                .archived(paper.archived())
+                .archivedAt(paper.archivedAt())
+                .build();
+    }
+
+    private String preview(String abstractText) {
+        int length = appProperties.getPagination().getAbstractPreviewLength();
+        if (abstractText == null || abstractText.length() <= length) {
+            return abstractText;
+        }
+
+        // Never split a surrogate pair
+        int end = Character.isHighSurrogate(abstractText.charAt(length - 1)) ? length - 1 : length;
+        return abstractText.substring(0, end).stripTrailing();
+    }
+
+    private static boolean isTruncated(String abstractText, String preview) {
+        return abstractText != null && abstractText.length() != preview.length();
+    }
 }
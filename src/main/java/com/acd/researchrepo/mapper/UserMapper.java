@@ -1,6 +1,7 @@
 package com.acd.researchrepo.mapper;
 
 import com.acd.researchrepo.dto.external.model.UserDto;
+import com.acd.researchrepo.dto.internal.UserListRow;
 import com.acd.researchrepo.model.User;
 import com.acd.researchrepo.model.UserRole;
 
@@ -34,4 +35,24 @@ public class UserMapper {
 
         return builder.build();
     }
+
+    public UserDto toDto(UserListRow user) {
+        if (user == null) {
+            return null;
+        }
+
+        UserDto.UserDtoBuilder builder = UserDto.builder()
+                .userId(user.userId())
+                .email(user.email())
+                .fullName(user.fullName())
+                .role(user.role())
+                .profilePictureUrl(user.profilePictureUrl());
+
+        // Same rule as for the entity, only a DEPARTMENT_ADMIN shows its department
+        if (UserRole.DEPARTMENT_ADMIN.equals(user.role())) {
+            builder.department(departmentMapper.toDto(user.departmentId(), user.departmentName()));
+        }
+
+        return builder.build();
+    }
 }
@@ -7,7 +7,8 @@ import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
-import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
 
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
@@ -22,9 +23,15 @@ import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 
+/**
+ * Entities keep to getters and setters instead of @Data, whose equals, hashCode
+ * and toString would walk the lazy relationships and load them. Compare entities
+ * by id.
+ */
 @Entity
 @Table(name = "departments", indexes = @Index(name = "idx_departments_name", columnList = "department_name"))
-@Data
+@Getter
+@Setter
 @EntityListeners(AuditingEntityListener.class)
 public class Department {
 
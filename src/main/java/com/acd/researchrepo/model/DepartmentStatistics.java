@@ -0,0 +1,45 @@
+package com.acd.researchrepo.model;
+
+import java.time.LocalDateTime;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Paper and request totals of one department. Written through
+ * DepartmentStatisticsRepository.add in the transaction of each paper or request
+ * change, corrected by the nightly reconciliation.
+ */
+@Entity
+@Table(name = "department_statistics")
+@Getter
+@Setter
+public class DepartmentStatistics {
+
+    @Id
+    @Column(name = "department_id")
+    private Integer departmentId;
+
+    @Column(name = "paper_count", nullable = false)
+    private long paperCount;
+
+    @Column(name = "archived_paper_count", nullable = false)
+    private long archivedPaperCount;
+
+    @Column(name = "pending_request_count", nullable = false)
+    private long pendingRequestCount;
+
+    @Column(name = "accepted_request_count", nullable = false)
+    private long acceptedRequestCount;
+
+    @Column(name = "rejected_request_count", nullable = false)
+    private long rejectedRequestCount;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -6,7 +6,8 @@ import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
-import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -27,21 +28,25 @@ import jakarta.validation.constraints.Size;
 @Entity
 @Table(name = "document_requests", indexes = {
         @Index(name = "idx_requests_user", columnList = "user_id"),
-        @Index(name = "idx_requests_paper", columnList = "paper_id")
+        @Index(name = "idx_requests_paper", columnList = "paper_id"),
+        @Index(name = "idx_requests_created_at_id", columnList = "created_at, request_id"),
+        @Index(name = "idx_requests_status_id", columnList = "status, request_id"),
+        @Index(name = "idx_requests_user_created_at_id", columnList = "user_id, created_at, request_id")
 })
-@Data
+@Getter
+@Setter
 @EntityListeners(AuditingEntityListener.class)
 public class DocumentRequest {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer requestId;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     @NotNull
     private User user;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "paper_id", nullable = false)
     @NotNull
     private ResearchPaper paper;
@@ -59,6 +64,11 @@ public class DocumentRequest {
     @Size(max = 255)
     private String rejectionReason;
 
+    // Requester name and email and paper title, lowercased. Maintained by the
+    // trg_*_request_search_text triggers, read-only here
+    @Column(name = "search_text", insertable = false, updatable = false, columnDefinition = "TEXT")
+    private String searchText;
+
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
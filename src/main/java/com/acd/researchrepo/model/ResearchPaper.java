@@ -8,7 +8,8 @@ import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
-import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
 
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
@@ -29,10 +30,15 @@ import jakarta.validation.constraints.Size;
 @Entity
 @Table(name = "research_papers", indexes = {
         @Index(name = "idx_papers_department", columnList = "department_id"),
-        @Index(name = "idx_papers_submission_date", columnList = "submission_date"),
-        @Index(name = "idx_papers_archived", columnList = "archived")
+        @Index(name = "idx_papers_submission_date_id", columnList = "submission_date, paper_id"),
+        @Index(name = "idx_papers_title_id", columnList = "title, paper_id"),
+        @Index(name = "idx_papers_author_id", columnList = "author_name, paper_id"),
+        @Index(name = "idx_papers_archived_dept_year_date",
+                columnList = "archived, department_id, submission_year, submission_date"),
+        @Index(name = "idx_papers_archived_year", columnList = "archived, submission_year")
 })
-@Data
+@Getter
+@Setter
 @EntityListeners(AuditingEntityListener.class)
 public class ResearchPaper {
     @Id
@@ -57,7 +63,7 @@ public class ResearchPaper {
     @Size(max = 512)
     private String filePath;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "department_id", nullable = false)
     @NotNull
     private Department department;
@@ -66,6 +72,10 @@ public class ResearchPaper {
     @NotNull
     private LocalDate submissionDate;
 
+    // Generated from submission_date by the database, read-only here
+    @Column(name = "submission_year", insertable = false, updatable = false)
+    private Integer submissionYear;
+
     @Column(name = "archived", nullable = false)
     @NotNull
     private Boolean archived = false;
@@ -73,6 +83,10 @@ public class ResearchPaper {
     @Column(name = "archived_at")
     private LocalDateTime archivedAt;
 
+    // Maintained by the trg_research_papers_search_vector trigger, read-only here
+    @Column(name = "search_vector", insertable = false, updatable = false, columnDefinition = "tsvector")
+    private String searchVector;
+
     @OneToMany(mappedBy = "paper", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<DocumentRequest> documentRequests;
 
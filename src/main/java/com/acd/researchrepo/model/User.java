@@ -10,8 +10,9 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Builder.Default;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
@@ -34,7 +35,8 @@ import jakarta.validation.constraints.Size;
 
 @Entity
 @Table(name = "users", indexes = @Index(name = "idx_users_department", columnList = "department_id"))
-@Data
+@Getter
+@Setter
 @EntityListeners(AuditingEntityListener.class)
 @Builder
 @NoArgsConstructor
@@ -65,7 +67,7 @@ public class User {
     @Default
     private UserRole role = UserRole.STUDENT;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "department_id")
     private Department department;
 
@@ -0,0 +1,44 @@
+package com.acd.researchrepo.repository;
+
+import com.acd.researchrepo.model.DepartmentStatistics;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface DepartmentStatisticsRepository extends JpaRepository<DepartmentStatistics, Integer> {
+
+    /**
+     * Adds deltas to a department's counters in one statement. Concurrent writers
+     * serialize on the row lock instead of losing updates, and a department
+     * without a row yet gets one.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO department_statistics AS s (department_id, paper_count, archived_paper_count, " +
+            "pending_request_count, accepted_request_count, rejected_request_count, updated_at) " +
+            "VALUES (:departmentId, :papers, :archived, :pending, :accepted, :rejected, now()) " +
+            "ON CONFLICT (department_id) DO UPDATE SET " +
+            "paper_count = s.paper_count + EXCLUDED.paper_count, " +
+            "archived_paper_count = s.archived_paper_count + EXCLUDED.archived_paper_count, " +
+            "pending_request_count = s.pending_request_count + EXCLUDED.pending_request_count, " +
+            "accepted_request_count = s.accepted_request_count + EXCLUDED.accepted_request_count, " +
+            "rejected_request_count = s.rejected_request_count + EXCLUDED.rejected_request_count, " +
+            "updated_at = now()", nativeQuery = true)
+    void add(
+            @Param("departmentId") Integer departmentId,
+            @Param("papers") long papers,
+            @Param("archived") long archived,
+            @Param("pending") long pending,
+            @Param("accepted") long accepted,
+            @Param("rejected") long rejected);
+
+    /**
+     * Blocks counter updates until the end of the transaction, after waiting for
+     * writers that already applied a delta to commit. Lets the reconciliation
+     * recount both tables without racing a delta.
+     */
+    @Modifying
+    @Query(value = "LOCK TABLE department_statistics IN EXCLUSIVE MODE", nativeQuery = true)
+    void lockForReconciliation();
+}
@@ -1,27 +1,41 @@
 package com.acd.researchrepo.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import com.acd.researchrepo.dto.internal.RequestDecisionRow;
+import com.acd.researchrepo.dto.internal.RequestStatusCountRow;
 import com.acd.researchrepo.model.DocumentRequest;
 import com.acd.researchrepo.model.RequestStatus;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 public interface DocumentRequestRepository
-        extends JpaRepository<DocumentRequest, Integer>, JpaSpecificationExecutor<DocumentRequest> {
+        extends JpaRepository<DocumentRequest, Integer>, JpaSpecificationExecutor<DocumentRequest>,
+        DocumentRequestRepositoryCustom {
 
-    @Query("SELECT dr FROM DocumentRequest dr JOIN dr.paper p WHERE dr.user.userId = :userId AND p.archived = false")
-    List<DocumentRequest> findByUserIdAndPaperNotArchived(@Param("userId") Integer userId);
+    // findById leaves user and paper lazy proxies, each method below declares what it loads
 
-    @Query("SELECT dr FROM DocumentRequest dr JOIN dr.paper p WHERE dr.user.userId = :userId AND dr.paper.paperId = :paperId AND (dr.status = 'PENDING' OR dr.status = 'ACCEPTED')")
-    List<DocumentRequest> findByUserIdAndPaperIdAndActiveStatus(
-            @Param("userId") Integer userId,
-            @Param("paperId") Integer paperId);
+    /**
+     * Loads a request with its user, paper and both departments, for the admin
+     * decision endpoints that return them after detaching the request.
+     */
+    @EntityGraph(attributePaths = { "user", "user.department", "paper", "paper.department" })
+    Optional<DocumentRequest> findWithUserAndPaperByRequestId(Integer requestId);
 
+    @Query("SELECT dr FROM DocumentRequest dr JOIN FETCH dr.paper p JOIN FETCH p.department " +
+            "WHERE dr.user.userId = :userId AND p.archived = false")
+    List<DocumentRequest> findByUserIdAndPaperNotArchived(@Param("userId") Integer userId);
+
+    // With the paper, whose department the statistics are kept for
+    @EntityGraph(attributePaths = "paper")
     @Query("SELECT dr FROM DocumentRequest dr WHERE dr.requestId = :requestId AND dr.user.userId = :userId")
     Optional<DocumentRequest> findByIdAndUserId(
             @Param("requestId") Integer requestId,
@@ -32,9 +46,90 @@ public interface DocumentRequestRepository
             @Param("userId") Integer userId,
             @Param("paperId") Integer paperId);
 
-    List<DocumentRequest> findByPaperPaperIdAndStatusIn(Integer paperId,
-            List<RequestStatus> statuses);
+    /**
+     * Deletes the requests of a paper in one statement, before the paper itself,
+     * so the cascade over its request collection has nothing left to delete one
+     * row at a time.
+     *
+     * @return the number of deleted requests
+     */
+    @Modifying
+    @Query("DELETE FROM DocumentRequest dr WHERE dr.paper.paperId = :paperId")
+    int deleteByPaperId(@Param("paperId") Integer paperId);
 
     boolean existsByPaperPaperIdAndUserUserIdAndStatus(Integer paperId, Integer userId,
             RequestStatus status);
+
+    /**
+     * The papers a user holds a request of the given status for, served by
+     * idx_requests_user.
+     */
+    @Query("SELECT dr.paper.paperId FROM DocumentRequest dr WHERE dr.user.userId = :userId AND dr.status = :status")
+    List<Integer> findPaperIdsByUserIdAndStatus(
+            @Param("userId") Integer userId,
+            @Param("status") RequestStatus status);
+
+    /**
+     * Counts the requests of one paper per status, before the paper is deleted or
+     * moved to another department.
+     */
+    @Query("SELECT new com.acd.researchrepo.dto.internal.RequestStatusCountRow(" +
+            "p.department.departmentId, dr.status, count(dr)) " +
+            "FROM DocumentRequest dr JOIN dr.paper p WHERE p.paperId = :paperId " +
+            "GROUP BY p.department.departmentId, dr.status")
+    List<RequestStatusCountRow> countByStatusForPaper(@Param("paperId") Integer paperId);
+
+    /**
+     * Counts all requests per paper department and status, for the statistics
+     * reconciliation.
+     */
+    @Query("SELECT new com.acd.researchrepo.dto.internal.RequestStatusCountRow(" +
+            "p.department.departmentId, dr.status, count(dr)) " +
+            "FROM DocumentRequest dr JOIN dr.paper p " +
+            "GROUP BY p.department.departmentId, dr.status")
+    List<RequestStatusCountRow> countByDepartmentAndStatus();
+
+    /**
+     * Reads what a bulk decision checks for a batch of requests, one row per
+     * existing request, without loading entities.
+     */
+    @Query("SELECT new com.acd.researchrepo.dto.internal.RequestDecisionRow(" +
+            "dr.requestId, dr.user.userId, p.paperId, p.department.departmentId, dr.status, p.archived) " +
+            "FROM DocumentRequest dr JOIN dr.paper p WHERE dr.requestId IN :requestIds")
+    List<RequestDecisionRow> findDecisionRows(@Param("requestIds") Collection<Integer> requestIds);
+
+    /**
+     * Moves one request to a new status if it still has the expected one, so two
+     * admins deciding the same request cannot both succeed. Clears the
+     * persistence context, requests loaded before are detached and must not be
+     * saved.
+     *
+     * @return 1 if the request moved, 0 if its status changed first or it is gone
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE DocumentRequest dr " +
+            "SET dr.status = :status, dr.rejectionReason = :reason, dr.updatedAt = :updatedAt " +
+            "WHERE dr.requestId = :requestId AND dr.status = :expected")
+    int transition(
+            @Param("requestId") Integer requestId,
+            @Param("expected") RequestStatus expected,
+            @Param("status") RequestStatus status,
+            @Param("reason") String reason,
+            @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Moves a batch of requests out of PENDING in one statement. Requests a
+     * concurrent transaction decided first no longer match the guard and are left
+     * out of the returned ids. Not {@code @Modifying}: with RETURNING the
+     * statement yields rows and runs as a query.
+     *
+     * @return the ids that were updated
+     */
+    @Query(value = "UPDATE document_requests SET status = :status, rejection_reason = :reason, updated_at = now() " +
+            "WHERE request_id IN (:requestIds) AND status = 'PENDING' " +
+            "RETURNING request_id", nativeQuery = true)
+    List<Integer> decidePending(
+            @Param("requestIds") Collection<Integer> requestIds,
+            @Param("status") String status,
+            @Param("reason") String reason);
 }
@@ -0,0 +1,68 @@
+package com.acd.researchrepo.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import com.acd.researchrepo.dto.internal.RejectedRequestRow;
+import com.acd.researchrepo.dto.internal.RequestListRow;
+import com.acd.researchrepo.dto.internal.RequestSubmissionRow;
+import com.acd.researchrepo.model.DocumentRequest;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Hand written queries of DocumentRequestRepository that neither derived
+ * queries nor Specifications can express.
+ */
+public interface DocumentRequestRepositoryCustom {
+
+    /**
+     * Reads one page of a request listing as read-only rows: the request, its
+     * requester and its paper joined in one query, with the paper abstract cut
+     * in the database.
+     *
+     * @param spec                  the listing filters
+     * @param sort                  the order
+     * @param offset                rows to skip
+     * @param limit                 rows to read
+     * @param abstractPreviewLength the preview length, one more character is
+     *                              read to detect a cut
+     * @return the rows in order
+     */
+    List<RequestListRow> findListRows(
+            Specification<DocumentRequest> spec,
+            Sort sort,
+            long offset,
+            int limit,
+            int abstractPreviewLength);
+
+    /**
+     * Rejects the PENDING and ACCEPTED requests of the given papers in one
+     * statement. The rows are locked and re-checked before the update, so a
+     * request decided concurrently is not overwritten. Only papers that are
+     * still archived are touched, a paper unarchived since the caller read it
+     * keeps its requests.
+     *
+     * @param paperIds the archived papers
+     * @param reason   the rejection reason
+     * @param limit    rejects at most this many, oldest first, null for all
+     * @return the rejected requests with their previous status
+     */
+    List<RejectedRequestRow> rejectActiveRequests(Collection<Integer> paperIds, String reason, Integer limit);
+
+    /**
+     * Creates pending requests of one user for the given papers in one
+     * statement. Archived and missing papers are skipped, and papers the user
+     * already holds a pending or accepted request for are left to
+     * idx_unique_pending_accepted_request (ON CONFLICT DO NOTHING), so
+     * concurrent submissions cannot create duplicates. The papers are share
+     * locked until commit, a concurrent archive waits and then rejects the new
+     * requests.
+     *
+     * @param userId   the requesting user
+     * @param paperIds the papers, without duplicates
+     * @return one row per existing paper, missing papers are left out
+     */
+    List<RequestSubmissionRow> insertPending(Integer userId, Collection<Integer> paperIds);
+}
@@ -0,0 +1,136 @@
+package com.acd.researchrepo.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import com.acd.researchrepo.dto.internal.RejectedRequestRow;
+import com.acd.researchrepo.dto.internal.RequestListRow;
+import com.acd.researchrepo.dto.internal.RequestSubmissionRow;
+import com.acd.researchrepo.model.Department;
+import com.acd.researchrepo.model.DocumentRequest;
+import com.acd.researchrepo.model.RequestStatus;
+import com.acd.researchrepo.model.ResearchPaper;
+import com.acd.researchrepo.model.User;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+
+public class DocumentRequestRepositoryCustomImpl implements DocumentRequestRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<RequestListRow> findListRows(
+            Specification<DocumentRequest> spec,
+            Sort sort,
+            long offset,
+            int limit,
+            int abstractPreviewLength) {
+
+        return ListProjection.find(entityManager, DocumentRequest.class, RequestListRow.class, spec, sort, offset, limit,
+                (root, cb) -> {
+                    // Named joins, so sorting on paper.title or user.fullName reuses them
+                    Join<DocumentRequest, User> user = root.join("user");
+                    Join<User, Department> userDepartment = user.join("department", JoinType.LEFT);
+                    Join<DocumentRequest, ResearchPaper> paper = root.join("paper");
+                    Join<ResearchPaper, Department> paperDepartment = paper.join("department");
+                    return List.of(
+                            root.get("requestId"),
+                            root.get("status"),
+                            root.get("rejectionReason"),
+                            root.get("requestDate"),
+                            root.get("createdAt"),
+                            root.get("updatedAt"),
+                            user.get("userId"),
+                            user.get("email"),
+                            user.get("fullName"),
+                            user.get("role"),
+                            user.get("profilePictureUrl"),
+                            userDepartment.get("departmentId"),
+                            userDepartment.get("departmentName"),
+                            paper.get("paperId"),
+                            paper.get("title"),
+                            paper.get("authorName"),
+                            cb.substring(paper.get("abstractText"), 1, abstractPreviewLength + 1),
+                            paper.get("filePath"),
+                            paperDepartment.get("departmentId"),
+                            paperDepartment.get("departmentName"),
+                            paper.get("submissionDate"),
+                            paper.get("archived"),
+                            paper.get("archivedAt"));
+                });
+    }
+
+    @Override
+    public List<RejectedRequestRow> rejectActiveRequests(Collection<Integer> paperIds, String reason, Integer limit) {
+        // The CTE keeps the old status, RETURNING only sees the new row. Background
+        // batches run after the archive committed, so the paper is re-checked and
+        // share locked against an unarchive until the batch commits.
+        String sql = "WITH target AS (" +
+                "SELECT dr.request_id, dr.status FROM document_requests dr " +
+                "JOIN research_papers p ON p.paper_id = dr.paper_id " +
+                "WHERE dr.paper_id IN (:paperIds) AND dr.status IN ('PENDING', 'ACCEPTED') AND p.archived " +
+                "ORDER BY dr.request_id " +
+                (limit == null ? "" : "LIMIT :limit ") +
+                "FOR UPDATE OF dr FOR SHARE OF p) " +
+                "UPDATE document_requests dr " +
+                "SET status = 'REJECTED', rejection_reason = :reason, updated_at = now() " +
+                "FROM target t, research_papers p " +
+                "WHERE dr.request_id = t.request_id AND p.paper_id = dr.paper_id " +
+                "RETURNING dr.request_id, dr.user_id, dr.paper_id, p.department_id, t.status";
+
+        Query query = entityManager.createNativeQuery(sql)
+                .setParameter("paperIds", paperIds)
+                .setParameter("reason", reason);
+        if (limit != null) {
+            query.setParameter("limit", limit);
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = query.getResultList();
+        return rows.stream()
+                .map(row -> new RejectedRequestRow(
+                        ((Number) row[0]).intValue(),
+                        ((Number) row[1]).intValue(),
+                        ((Number) row[2]).intValue(),
+                        ((Number) row[3]).intValue(),
+                        RequestStatus.valueOf((String) row[4])))
+                .toList();
+    }
+
+    @Override
+    public List<RequestSubmissionRow> insertPending(Integer userId, Collection<Integer> paperIds) {
+        // The conflict target names the partial index predicate, status and dates take their defaults
+        String sql = "WITH papers AS (" +
+                "SELECT p.paper_id, p.department_id, p.archived FROM research_papers p " +
+                "WHERE p.paper_id IN (:paperIds) " +
+                "FOR SHARE), " +
+                "inserted AS (" +
+                "INSERT INTO document_requests (user_id, paper_id) " +
+                "SELECT :userId, papers.paper_id FROM papers WHERE NOT papers.archived " +
+                "ON CONFLICT (user_id, paper_id) WHERE status IN ('PENDING', 'ACCEPTED') DO NOTHING " +
+                "RETURNING request_id, paper_id) " +
+                "SELECT papers.paper_id, papers.department_id, papers.archived, inserted.request_id " +
+                "FROM papers LEFT JOIN inserted ON inserted.paper_id = papers.paper_id";
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = entityManager.createNativeQuery(sql)
+                .setParameter("userId", userId)
+                .setParameter("paperIds", paperIds)
+                .getResultList();
+        return rows.stream()
+                .map(row -> new RequestSubmissionRow(
+                        ((Number) row[0]).intValue(),
+                        ((Number) row[1]).intValue(),
+                        (Boolean) row[2],
+                        row[3] == null ? null : ((Number) row[3]).intValue()))
+                .toList();
+    }
+}
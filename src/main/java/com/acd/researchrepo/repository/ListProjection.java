@@ -0,0 +1,60 @@
+package com.acd.researchrepo.repository;
+
+import java.util.List;
+import java.util.function.BiFunction;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+/**
+ * Runs a Specification as a constructor expression query: only the selected
+ * columns are read and the rows are plain records, so nothing enters the
+ * persistence context and no dirty check snapshots are taken.
+ */
+final class ListProjection {
+
+    private ListProjection() {
+    }
+
+    /**
+     * @param columns the constructor arguments of rowType, in order
+     * @param sort    applied unless unsorted, which keeps an orderBy set by the
+     *                Specification (relevance)
+     */
+    static <E, R> List<R> find(
+            EntityManager entityManager,
+            Class<E> entityType,
+            Class<R> rowType,
+            Specification<E> spec,
+            Sort sort,
+            long offset,
+            int limit,
+            BiFunction<Root<E>, CriteriaBuilder, List<Selection<?>>> columns) {
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<R> query = cb.createQuery(rowType);
+        Root<E> root = query.from(entityType);
+
+        query.select(cb.construct(rowType, columns.apply(root, cb).toArray(new Selection<?>[0])));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+
+        return entityManager.createQuery(query)
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -5,12 +5,18 @@ import java.util.Optional;
 
 import com.acd.researchrepo.model.RefreshToken;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Integer> {
+
+    /**
+     * Loads a token with its user, whom a refresh issues the new access token for.
+     */
+    @EntityGraph(attributePaths = "user")
     Optional<RefreshToken> findByToken(String token);
 
     @Modifying
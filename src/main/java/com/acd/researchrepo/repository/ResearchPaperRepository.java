@@ -1,29 +1,197 @@
 package com.acd.researchrepo.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import com.acd.researchrepo.dto.internal.PaperAbstract;
+import com.acd.researchrepo.dto.internal.PaperCountRow;
+import com.acd.researchrepo.dto.internal.PaperFile;
+import com.acd.researchrepo.dto.internal.PaperSuggestionRow;
+import com.acd.researchrepo.dto.internal.PaperVersion;
 import com.acd.researchrepo.model.ResearchPaper;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 public interface ResearchPaperRepository
-        extends JpaRepository<ResearchPaper, Integer>, JpaSpecificationExecutor<ResearchPaper> {
+        extends JpaRepository<ResearchPaper, Integer>, JpaSpecificationExecutor<ResearchPaper>,
+        ResearchPaperRepositoryCustom {
+
+    // findById leaves the department a lazy proxy: enough for access checks and
+    // statistics, which only read its id
 
     /**
-     * Retrieves a list of distinct years in which research papers were submitted,
-     * optionally filtered by department and active status.
+     * Loads a paper with its department, for responses that carry the
+     * department name.
      *
-     * @param deptId     the department ID to filter by, or null for all departments
-     * @param onlyActive if true, only include non-archived papers; if false,
-     *                   include all
+     * @param paperId the paper
+     * @return the paper, empty if it does not exist
+     */
+    @EntityGraph(attributePaths = "department")
+    Optional<ResearchPaper> findWithDepartmentByPaperId(Integer paperId);
+
+    /**
+     * Loads every paper with its department in one query, for building the
+     * in-memory indexes.
+     *
+     * @return all papers
+     */
+    @EntityGraph(attributePaths = "department")
+    List<ResearchPaper> findAllWithDepartmentBy();
+
+    /**
+     * Retrieves the distinct years in which research papers were submitted,
+     * across all departments. Served by an index-only scan of
+     * idx_papers_archived_year.
+     *
+     * @param archived the archived flags to include, [false] for active papers
+     *                 only or [false, true] for all
      * @return a list of distinct submission years in descending order
      */
-    @Query("SELECT DISTINCT YEAR(p.submissionDate) FROM ResearchPaper p " +
-            "WHERE (:deptId IS NULL OR p.department.departmentId = :deptId) " +
+    @Query("SELECT DISTINCT p.submissionYear FROM ResearchPaper p " +
+            "WHERE p.archived IN :archived " +
+            "ORDER BY p.submissionYear DESC")
+    List<Integer> findDistinctYears(@Param("archived") List<Boolean> archived);
+
+    /**
+     * Retrieves the distinct years in which research papers of one department
+     * were submitted. Served by an index-only scan of
+     * idx_papers_archived_dept_year_date.
+     *
+     * @param deptId   the department ID to filter by
+     * @param archived the archived flags to include, [false] for active papers
+     *                 only or [false, true] for all
+     * @return a list of distinct submission years in descending order
+     */
+    @Query("SELECT DISTINCT p.submissionYear FROM ResearchPaper p " +
+            "WHERE p.archived IN :archived AND p.department.departmentId = :deptId " +
+            "ORDER BY p.submissionYear DESC")
+    List<Integer> findDistinctYearsByDepartment(
+            @Param("deptId") Integer deptId,
+            @Param("archived") List<Boolean> archived);
+
+    /**
+     * Sets pg_trgm.word_similarity_threshold for the current transaction only, so
+     * it must be called inside the same transaction as the fuzzy query.
+     *
+     * @param threshold the similarity (0..1) a match must reach
+     * @return the applied setting
+     */
+    @Query(value = "SELECT set_config('pg_trgm.word_similarity_threshold', :threshold, true)", nativeQuery = true)
+    String setWordSimilarityThreshold(@Param("threshold") String threshold);
+
+    /**
+     * Finds the title or author name closest to the given term, for "did you mean"
+     * suggestions. Both branches are served by the trigram GIN indexes.
+     *
+     * @param term       the search term that returned no results
+     * @param onlyActive if true, only consider non-archived papers
+     * @param deptId     the department ID to scope to, or null for all departments
+     * @return the most similar title or author name, if any reaches the threshold
+     */
+    @Query(value = "SELECT s.term FROM ( " +
+            "(SELECT p.title AS term, word_similarity(:term, p.title) AS score FROM research_papers p " +
+            "WHERE :term <% p.title " +
             "AND (:onlyActive = false OR p.archived = false) " +
-            "ORDER BY YEAR(p.submissionDate) DESC")
-    List<Integer> findDistinctYears(@Param("deptId") Integer deptId, @Param("onlyActive") boolean onlyActive);
+            "AND (CAST(:deptId AS INTEGER) IS NULL OR p.department_id = CAST(:deptId AS INTEGER)) " +
+            "ORDER BY score DESC LIMIT 1) " +
+            "UNION ALL " +
+            "(SELECT p.author_name AS term, word_similarity(:term, p.author_name) AS score FROM research_papers p " +
+            "WHERE :term <% p.author_name " +
+            "AND (:onlyActive = false OR p.archived = false) " +
+            "AND (CAST(:deptId AS INTEGER) IS NULL OR p.department_id = CAST(:deptId AS INTEGER)) " +
+            "ORDER BY score DESC LIMIT 1) " +
+            ") s ORDER BY s.score DESC LIMIT 1", nativeQuery = true)
+    Optional<String> findClosestTitleOrAuthor(
+            @Param("term") String term,
+            @Param("onlyActive") boolean onlyActive,
+            @Param("deptId") Integer deptId);
+
+    /**
+     * Computes the search rank of one paper, exactly as the relevance ordering
+     * does, so it can be written into a keyset cursor.
+     *
+     * @param paperId the paper to rank
+     * @param term    the search term
+     * @param fuzzy   trigram similarity instead of ts_rank_cd
+     * @return the rank, or null if the paper does not exist
+     */
+    @Query(value = "SELECT CASE WHEN :fuzzy " +
+            "THEN greatest(word_similarity(:term, p.title), word_similarity(:term, p.author_name)) " +
+            "ELSE ts_rank_cd(p.search_vector, websearch_to_tsquery('english'::regconfig, :term)) END " +
+            "FROM research_papers p WHERE p.paper_id = :paperId", nativeQuery = true)
+    Float findRelevance(
+            @Param("paperId") Integer paperId,
+            @Param("term") String term,
+            @Param("fuzzy") boolean fuzzy);
+
+    /**
+     * Reads the full abstracts of a page of papers, which listings only carry as
+     * a preview, for snippet highlighting.
+     *
+     * @param paperIds the papers of the page
+     * @return one row per existing paper, in no particular order
+     */
+    @Query("SELECT new com.acd.researchrepo.dto.internal.PaperAbstract(p.paperId, p.abstractText) " +
+            "FROM ResearchPaper p WHERE p.paperId IN :paperIds")
+    List<PaperAbstract> findAbstracts(@Param("paperIds") Collection<Integer> paperIds);
+
+    /**
+     * Reads the title, author and archived flag of every paper for the suggestion
+     * index, without loading entities or the abstract.
+     */
+    @Query("SELECT new com.acd.researchrepo.dto.internal.PaperSuggestionRow(" +
+            "p.paperId, p.title, p.authorName, p.archived) FROM ResearchPaper p")
+    List<PaperSuggestionRow> findAllSuggestionRows();
+
+    /**
+     * Reads the title, author and archived flag of one paper, a primary key
+     * lookup that does not load the department or the abstract.
+     *
+     * @param paperId the paper
+     * @return the paper's suggestion columns, empty if it does not exist
+     */
+    @Query("SELECT new com.acd.researchrepo.dto.internal.PaperSuggestionRow(" +
+            "p.paperId, p.title, p.authorName, p.archived) FROM ResearchPaper p WHERE p.paperId = :paperId")
+    Optional<PaperSuggestionRow> findSuggestionRowById(@Param("paperId") Integer paperId);
+
+    /**
+     * Reads the validator columns of one paper, a primary key lookup that does
+     * not load the department or the abstract.
+     *
+     * @param paperId the paper
+     * @return the paper's version, empty if it does not exist
+     */
+    @Query("SELECT new com.acd.researchrepo.dto.internal.PaperVersion(" +
+            "p.paperId, p.archived, p.archivedAt, p.updatedAt) " +
+            "FROM ResearchPaper p WHERE p.paperId = :paperId")
+    Optional<PaperVersion> findVersionById(@Param("paperId") Integer paperId);
+
+    /**
+     * Reads what a download needs of one paper, a primary key lookup that does
+     * not load the department or the abstract.
+     *
+     * @param paperId the paper
+     * @return the paper's file, empty if it does not exist
+     */
+    @Query("SELECT new com.acd.researchrepo.dto.internal.PaperFile(" +
+            "p.paperId, p.department.departmentId, p.archived, p.filePath) " +
+            "FROM ResearchPaper p WHERE p.paperId = :paperId")
+    Optional<PaperFile> findFileById(@Param("paperId") Integer paperId);
+
+    /**
+     * Counts all papers per department, submission year and archived flag. One
+     * aggregate query, used to seed the in-memory PaperCountAggregate.
+     *
+     * @return one row per non-empty (department, year, archived) cell
+     */
+    @Query("SELECT new com.acd.researchrepo.dto.internal.PaperCountRow(" +
+            "p.department.departmentId, p.submissionYear, p.archived, count(p)) " +
+            "FROM ResearchPaper p " +
+            "GROUP BY p.department.departmentId, p.submissionYear, p.archived")
+    List<PaperCountRow> countByDepartmentYearArchived();
 }
@@ -0,0 +1,69 @@
+package com.acd.researchrepo.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import com.acd.researchrepo.dto.external.papers.PaperFacets;
+import com.acd.researchrepo.dto.internal.ArchivedPaperRow;
+import com.acd.researchrepo.dto.internal.PaperListRow;
+import com.acd.researchrepo.dto.internal.PaperSearchCriteria;
+import com.acd.researchrepo.model.ResearchPaper;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Hand written queries of ResearchPaperRepository that neither derived queries
+ * nor Specifications can express.
+ */
+public interface ResearchPaperRepositoryCustom {
+
+    /**
+     * Counts the papers matching the search per department, year and archived
+     * flag in one GROUPING SETS query. Each dimension ignores its own filter.
+     * Fuzzy searches must run in the transaction that set the similarity
+     * threshold.
+     *
+     * @param criteria the search, with role scoping applied
+     * @return the facet counts, zero counts left out
+     */
+    PaperFacets findFacets(PaperSearchCriteria criteria);
+
+    /**
+     * Reads one page of a paper listing as read-only rows: the list columns and
+     * the department name, with the abstract cut in the database. Fuzzy
+     * searches must run in the transaction that set the similarity threshold.
+     *
+     * @param spec                  the listing filters
+     * @param sort                  the order, unsorted keeps the relevance order
+     *                              of the spec
+     * @param offset                rows to skip
+     * @param limit                 rows to read
+     * @param abstractPreviewLength the preview length, one more character is
+     *                              read to detect a cut
+     * @return the rows in order
+     */
+    List<PaperListRow> findListRows(
+            Specification<ResearchPaper> spec,
+            Sort sort,
+            long offset,
+            int limit,
+            int abstractPreviewLength);
+
+    /**
+     * Archives every active paper matching all given filters in one statement.
+     * Null or empty filters are not applied, at least one must be given.
+     *
+     * @param departmentId only papers of this department
+     * @param years        only papers submitted in these years
+     * @param paperIds     only these papers
+     * @param archivedAt   stored as the archive time of every archived paper
+     * @return the papers that were archived, already archived ones are left out
+     */
+    List<ArchivedPaperRow> archiveMatching(
+            Integer departmentId,
+            List<Integer> years,
+            Collection<Integer> paperIds,
+            LocalDateTime archivedAt);
+}
@@ -0,0 +1,203 @@
+package com.acd.researchrepo.repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.acd.researchrepo.dto.external.papers.PaperFacets;
+import com.acd.researchrepo.dto.external.papers.ResearchPaperSearchRequest;
+import com.acd.researchrepo.dto.internal.ArchivedPaperRow;
+import com.acd.researchrepo.dto.internal.PaperListRow;
+import com.acd.researchrepo.dto.internal.PaperSearchCriteria;
+import com.acd.researchrepo.model.ResearchPaper;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+public class ResearchPaperRepositoryCustomImpl implements ResearchPaperRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public PaperFacets findFacets(PaperSearchCriteria criteria) {
+        ResearchPaperSearchRequest request = criteria.getRequest();
+        Map<String, Object> parameters = new HashMap<>();
+
+        // Hard filters: the search itself and the caller's role scope
+        List<String> where = new ArrayList<>();
+        String search = request.getSearch();
+        if (search != null && !search.trim().isEmpty()) {
+            where.add(request.isFuzzy()
+                    ? "(:term <% p.title OR :term <% p.author_name)"
+                    : "p.search_vector @@ websearch_to_tsquery('english'::regconfig, :term)");
+            parameters.put("term", search.trim());
+        }
+        if (criteria.getScopeDepartmentId() != null) {
+            where.add("p.department_id = :scopeDepartmentId");
+            parameters.put("scopeDepartmentId", criteria.getScopeDepartmentId());
+        }
+        if (criteria.isOnlyActive()) {
+            where.add("p.archived = false");
+        }
+
+        // Facet filters: each one is applied to every dimension but its own
+        String departmentOk = "TRUE";
+        List<Integer> departmentIds = criteria.getDepartmentIds();
+        if (criteria.getScopeDepartmentId() == null && departmentIds != null && !departmentIds.isEmpty()) {
+            departmentOk = "p.department_id IN (:departmentIds)";
+            parameters.put("departmentIds", departmentIds);
+        }
+        String yearOk = "TRUE";
+        if (request.getYear() != null && !request.getYear().isEmpty()) {
+            yearOk = "p.submission_year IN (:years)";
+            parameters.put("years", request.getYear());
+        }
+        String archivedOk = "TRUE";
+        if (!criteria.isOnlyActive() && criteria.getArchived() != null) {
+            archivedOk = "p.archived = :archived";
+            parameters.put("archived", criteria.getArchived());
+        }
+
+        String sql = "SELECT f.department_id, f.department_name, f.year, f.archived, " +
+                "GROUPING(f.department_id) AS by_department, " +
+                "GROUPING(f.year) AS by_year, " +
+                "count(*) FILTER (WHERE f.year_ok AND f.archived_ok) AS department_count, " +
+                "count(*) FILTER (WHERE f.department_ok AND f.archived_ok) AS year_count, " +
+                "count(*) FILTER (WHERE f.department_ok AND f.year_ok) AS archived_count " +
+                "FROM (" +
+                "SELECT p.department_id, d.department_name, " +
+                "p.submission_year AS year, p.archived, " +
+                departmentOk + " AS department_ok, " +
+                yearOk + " AS year_ok, " +
+                archivedOk + " AS archived_ok " +
+                "FROM research_papers p JOIN departments d ON d.department_id = p.department_id " +
+                (where.isEmpty() ? "" : "WHERE " + String.join(" AND ", where)) +
+                ") f " +
+                "GROUP BY GROUPING SETS ((f.department_id, f.department_name), (f.year), (f.archived))";
+
+        Query query = entityManager.createNativeQuery(sql);
+        parameters.forEach(query::setParameter);
+
+        List<PaperFacets.DepartmentCount> departments = new ArrayList<>();
+        List<PaperFacets.YearCount> years = new ArrayList<>();
+        List<PaperFacets.ArchivedCount> archived = new ArrayList<>();
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = query.getResultList();
+        for (Object[] row : rows) {
+            // GROUPING(col) is 0 for the grouping set that groups by col
+            if (((Number) row[4]).intValue() == 0) {
+                long count = ((Number) row[6]).longValue();
+                if (count > 0) {
+                    departments.add(PaperFacets.DepartmentCount.builder()
+                            .departmentId(((Number) row[0]).intValue())
+                            .departmentName((String) row[1])
+                            .count(count)
+                            .build());
+                }
+            } else if (((Number) row[5]).intValue() == 0) {
+                long count = ((Number) row[7]).longValue();
+                if (count > 0) {
+                    years.add(PaperFacets.YearCount.builder()
+                            .year(((Number) row[2]).intValue())
+                            .count(count)
+                            .build());
+                }
+            } else {
+                long count = ((Number) row[8]).longValue();
+                if (count > 0) {
+                    archived.add(PaperFacets.ArchivedCount.builder()
+                            .archived((Boolean) row[3])
+                            .count(count)
+                            .build());
+                }
+            }
+        }
+
+        departments.sort(Comparator.comparing(PaperFacets.DepartmentCount::getDepartmentName));
+        years.sort(Comparator.comparing(PaperFacets.YearCount::getYear).reversed());
+        archived.sort(Comparator.comparing(PaperFacets.ArchivedCount::isArchived));
+
+        return PaperFacets.builder()
+                .departments(departments)
+                .years(years)
+                .archived(archived)
+                .build();
+    }
+
+    @Override
+    public List<PaperListRow> findListRows(
+            Specification<ResearchPaper> spec,
+            Sort sort,
+            long offset,
+            int limit,
+            int abstractPreviewLength) {
+
+        return ListProjection.find(entityManager, ResearchPaper.class, PaperListRow.class, spec, sort, offset, limit,
+                (root, cb) -> List.of(
+                        root.get("paperId"),
+                        root.get("title"),
+                        root.get("authorName"),
+                        cb.substring(root.get("abstractText"), 1, abstractPreviewLength + 1),
+                        root.get("filePath"),
+                        root.get("department").get("departmentId"),
+                        root.get("department").get("departmentName"),
+                        root.get("submissionDate"),
+                        root.get("archived"),
+                        root.get("archivedAt")));
+    }
+
+    @Override
+    public List<ArchivedPaperRow> archiveMatching(
+            Integer departmentId,
+            List<Integer> years,
+            Collection<Integer> paperIds,
+            LocalDateTime archivedAt) {
+
+        Map<String, Object> parameters = new HashMap<>();
+        List<String> where = new ArrayList<>();
+        where.add("archived = false");
+        if (departmentId != null) {
+            where.add("department_id = :departmentId");
+            parameters.put("departmentId", departmentId);
+        }
+        if (years != null && !years.isEmpty()) {
+            where.add("submission_year IN (:years)");
+            parameters.put("years", years);
+        }
+        if (paperIds != null && !paperIds.isEmpty()) {
+            where.add("paper_id IN (:paperIds)");
+            parameters.put("paperIds", paperIds);
+        }
+        if (parameters.isEmpty()) {
+            throw new IllegalArgumentException("archiveMatching needs at least one filter");
+        }
+
+        String sql = "UPDATE research_papers " +
+                "SET archived = true, archived_at = :archivedAt, updated_at = now() " +
+                "WHERE " + String.join(" AND ", where) + " " +
+                "RETURNING paper_id, department_id, submission_year";
+
+        Query query = entityManager.createNativeQuery(sql);
+        parameters.forEach(query::setParameter);
+        query.setParameter("archivedAt", archivedAt);
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = query.getResultList();
+        return rows.stream()
+                .map(row -> new ArchivedPaperRow(
+                        ((Number) row[0]).intValue(),
+                        ((Number) row[1]).intValue(),
+                        ((Number) row[2]).intValue()))
+                .toList();
+    }
+}
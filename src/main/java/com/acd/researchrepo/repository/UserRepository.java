@@ -4,9 +4,16 @@ import java.util.Optional;
 
 import com.acd.researchrepo.model.User;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 public interface UserRepository extends JpaRepository<User, Integer> {
+
+    /**
+     * Loads a user with their department, for login, which puts the department
+     * into the token and the response.
+     */
+    @EntityGraph(attributePaths = "department")
     Optional<User> findByEmail(String email);
 
     Optional<User> findById(Integer userId);
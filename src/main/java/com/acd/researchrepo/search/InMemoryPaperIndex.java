@@ -0,0 +1,460 @@
+package com.acd.researchrepo.search;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.acd.researchrepo.dto.external.model.ResearchPaperDto;
+import com.acd.researchrepo.dto.external.papers.PaginatedResponse;
+import com.acd.researchrepo.dto.external.papers.PaperFacets;
+import com.acd.researchrepo.dto.external.papers.ResearchPaperSearchRequest;
+import com.acd.researchrepo.dto.internal.PaperSearchCriteria;
+import com.acd.researchrepo.event.PaperChangedEvent;
+import com.acd.researchrepo.event.PapersArchivedEvent;
+import com.acd.researchrepo.mapper.ResearchPaperMapper;
+import com.acd.researchrepo.model.ResearchPaper;
+import com.acd.researchrepo.repository.ResearchPaperRepository;
+import com.acd.researchrepo.util.PageCursor;
+import com.acd.researchrepo.util.enums.CountMode;
+import com.acd.researchrepo.util.enums.ResearchPaperSortField;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-process search engine for the paper catalog (app.search.engine=memory).
+ *
+ * Title, author and abstract are analyzed into one inverted index with field
+ * weights applied to the term frequency, and matches are ranked with BM25. All
+ * query terms must match, like websearch_to_tsquery. Department, year and
+ * archived filters are post-filters over the matches. The index is loaded once
+ * at startup and kept current from committed {@link PaperChangedEvent}s, so a
+ * search never touches the database.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.search", name = "engine", havingValue = "memory")
+public class InMemoryPaperIndex implements InitializingBean {
+
+    // BM25 parameters, the usual defaults
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // Field weights, same order as the A/B/C weights of the search_vector
+    private static final int TITLE_WEIGHT = 3;
+    private static final int AUTHOR_WEIGHT = 2;
+    private static final int ABSTRACT_WEIGHT = 1;
+
+    private final ResearchPaperRepository researchPaperRepository;
+    private final ResearchPaperMapper researchPaperMapper;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, PostingsList> postings = new HashMap<>();
+    private final Map<Integer, IndexedPaper> documents = new HashMap<>();
+    private long totalLength = 0;
+
+    public InMemoryPaperIndex(
+            ResearchPaperRepository researchPaperRepository,
+            ResearchPaperMapper researchPaperMapper) {
+        this.researchPaperRepository = researchPaperRepository;
+        this.researchPaperMapper = researchPaperMapper;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        long start = System.nanoTime();
+        List<ResearchPaper> papers = researchPaperRepository.findAllWithDepartmentBy();
+
+        lock.writeLock().lock();
+        try {
+            // One builder per term fed in ascending paper id order, so every list is
+            // encoded once instead of being copied for each paper it gains
+            List<ResearchPaper> ordered = new ArrayList<>(papers);
+            ordered.sort(Comparator.comparing(ResearchPaper::getPaperId));
+            Map<String, PostingsList.Builder> builders = new HashMap<>();
+            for (ResearchPaper paper : ordered) {
+                addDocument(paper).forEach((term, tf) -> builders
+                        .computeIfAbsent(term, ignored -> new PostingsList.Builder())
+                        .add(paper.getPaperId(), tf));
+            }
+            builders.forEach((term, builder) -> postings.put(term, builder.build()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("Indexed {} papers ({} terms) in {} ms",
+                papers.size(), postings.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPaperChanged(PaperChangedEvent event) {
+        if (event.getType() == PaperChangedEvent.Type.DELETED) {
+            remove(event.getPaperId());
+            return;
+        }
+
+        researchPaperRepository.findWithDepartmentByPaperId(event.getPaperId())
+                .ifPresentOrElse(this::upsert, () -> remove(event.getPaperId()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPapersArchived(PapersArchivedEvent event) {
+        // Archiving changes no indexed text, only the flag and the listed dto
+        lock.writeLock().lock();
+        try {
+            for (Integer paperId : event.getPaperIds()) {
+                documents.computeIfPresent(paperId, (id, paper) -> paper.archived(event.getArchivedAt()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void upsert(ResearchPaper paper) {
+        lock.writeLock().lock();
+        try {
+            unindex(paper.getPaperId());
+            index(paper);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Integer paperId) {
+        lock.writeLock().lock();
+        try {
+            unindex(paperId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public PaginatedResponse<ResearchPaperDto> search(PaperSearchCriteria criteria) {
+        ResearchPaperSearchRequest request = criteria.getRequest();
+        String search = request.getSearch();
+        boolean hasSearch = search != null && !search.trim().isEmpty();
+
+        List<ScoredPaper> matches = new ArrayList<>();
+        FacetCounter facets = request.isFacets() ? new FacetCounter() : null;
+        lock.readLock().lock();
+        try {
+            if (hasSearch) {
+                score(search).forEach((paperId, score) -> collect(
+                        documents.get(paperId), score, criteria, matches, facets));
+            } else {
+                for (IndexedPaper paper : documents.values()) {
+                    collect(paper, 0, criteria, matches, facets);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Comparator<ScoredPaper> order = comparator(request);
+        matches.sort(order);
+
+        PaginatedResponse<ResearchPaperDto> response;
+        if (request.isCursorMode()) {
+            int from = firstAfter(matches, cursorProbe(request), order);
+            int to = Math.min(from + request.getSize() + 1, matches.size());
+            // The total is known without counting, so every count mode gets the exact one
+            response = PaginatedResponse.fromKeyset(
+                    matches.subList(from, to),
+                    request.getSize(),
+                    match -> match.paper().dto(),
+                    match -> cursorOf(match, request))
+                    .withTotal(matches.size(), CountMode.EXACT);
+        } else {
+            Pageable pageable = request.toPageable();
+            int from = (int) Math.min(pageable.getOffset(), matches.size());
+            int to = Math.min(from + pageable.getPageSize(), matches.size());
+            response = PaginatedResponse.fromPage(
+                    new PageImpl<>(matches.subList(from, to), pageable, matches.size()),
+                    match -> match.paper().dto(),
+                    match -> cursorOf(match, request));
+        }
+
+        return facets == null ? response : response.toBuilder().facets(facets.build()).build();
+    }
+
+    /**
+     * Post-filters one search hit: papers outside the caller's scope are dropped,
+     * the rest are counted for the facets and kept if they pass all filters.
+     */
+    private static void collect(
+            IndexedPaper paper,
+            double score,
+            PaperSearchCriteria criteria,
+            List<ScoredPaper> matches,
+            FacetCounter facets) {
+
+        if (criteria.getScopeDepartmentId() != null && !criteria.getScopeDepartmentId().equals(paper.departmentId())) {
+            return;
+        }
+        if (criteria.isOnlyActive() && paper.archived()) {
+            return;
+        }
+
+        List<Integer> departmentIds = criteria.getDepartmentIds();
+        boolean departmentOk = departmentIds == null || departmentIds.isEmpty()
+                || departmentIds.contains(paper.departmentId());
+        List<Integer> years = criteria.getRequest().getYear();
+        boolean yearOk = years == null || years.isEmpty() || years.contains(paper.year());
+        boolean archivedOk = criteria.getArchived() == null || criteria.getArchived() == paper.archived();
+
+        if (departmentOk && yearOk && archivedOk) {
+            matches.add(new ScoredPaper(paper, score));
+        }
+        if (facets != null) {
+            facets.add(paper, departmentOk, yearOk, archivedOk);
+        }
+    }
+
+    // BM25 over the AND of all query terms. A query of only stop words matches nothing,
+    // same as websearch_to_tsquery.
+    private Map<Integer, Double> score(String search) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(TextAnalyzer.analyze(search)));
+        Map<Integer, Double> scores = new HashMap<>();
+        if (terms.isEmpty()) {
+            return scores;
+        }
+
+        List<PostingsList> lists = new ArrayList<>(terms.size());
+        for (String term : terms) {
+            PostingsList list = postings.get(term);
+            if (list == null) {
+                return scores;
+            }
+            lists.add(list);
+        }
+        // Rarest term first keeps the candidate set small
+        lists.sort(Comparator.comparingInt(PostingsList::documentFrequency));
+
+        int documentCount = documents.size();
+        double averageLength = documentCount == 0 ? 1 : (double) totalLength / documentCount;
+
+        boolean first = true;
+        for (PostingsList list : lists) {
+            double idf = Math.log(1 + (documentCount - list.documentFrequency() + 0.5)
+                    / (list.documentFrequency() + 0.5));
+            Map<Integer, Double> next = new HashMap<>();
+            boolean seed = first;
+            Map<Integer, Double> previous = scores;
+            list.forEach((paperId, tf) -> {
+                Double sofar = seed ? Double.valueOf(0) : previous.get(paperId);
+                if (sofar == null) {
+                    return;
+                }
+                double length = documents.get(paperId).length();
+                double norm = tf + K1 * (1 - B + B * length / averageLength);
+                next.put(paperId, sofar + idf * tf * (K1 + 1) / norm);
+            });
+            scores = next;
+            first = false;
+            if (scores.isEmpty()) {
+                break;
+            }
+        }
+        return scores;
+    }
+
+    private Comparator<ScoredPaper> comparator(ResearchPaperSearchRequest request) {
+        Comparator<ScoredPaper> byId = Comparator.comparing(match -> match.paper().dto().getPaperId());
+        if (request.isRelevanceSort()) {
+            return Comparator.comparingDouble(ScoredPaper::score).thenComparing(byId).reversed();
+        }
+
+        Comparator<ScoredPaper> byField = switch (request.resolveSortField()) {
+            case TITLE -> Comparator.comparing(match -> match.paper().dto().getTitle(), String.CASE_INSENSITIVE_ORDER);
+            case AUTHOR_NAME -> Comparator.comparing(
+                    match -> match.paper().dto().getAuthorName(), String.CASE_INSENSITIVE_ORDER);
+            default -> Comparator.comparing(match -> match.paper().dto().getSubmissionDate());
+        };
+
+        Comparator<ScoredPaper> ordered = byField.thenComparing(byId);
+        return request.isAscendingSort() ? ordered : ordered.reversed();
+    }
+
+    // A stand-in for the last paper of the previous page, holding only its sort key and id
+    private ScoredPaper cursorProbe(ResearchPaperSearchRequest request) {
+        ResearchPaperSortField sortField = request.resolveSortField();
+        PageCursor cursor = PageCursor.decode(request.getAfter(), sortField.getApiField(), request.isAscendingSort());
+
+        ResearchPaperDto.ResearchPaperDtoBuilder dto = ResearchPaperDto.builder().paperId(cursor.getId());
+        double score = 0;
+        switch (sortField) {
+            case RELEVANCE -> score = cursor.value(Double::valueOf);
+            case TITLE -> dto.title(cursor.getValue());
+            case AUTHOR_NAME -> dto.authorName(cursor.getValue());
+            case SUBMISSION_DATE -> dto.submissionDate(cursor.value(LocalDate::parse));
+        }
+        return new ScoredPaper(new IndexedPaper(dto.build(), null, null, false, 0, List.of()), score);
+    }
+
+    // Index of the first match ordered after the probe, matches are sorted by the same order
+    private static int firstAfter(List<ScoredPaper> matches, ScoredPaper probe, Comparator<ScoredPaper> order) {
+        int low = 0;
+        int high = matches.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (order.compare(matches.get(mid), probe) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private String cursorOf(ScoredPaper match, ResearchPaperSearchRequest request) {
+        ResearchPaperSortField sortField = request.resolveSortField();
+        ResearchPaperDto dto = match.paper().dto();
+        Object value = switch (sortField) {
+            case RELEVANCE -> match.score();
+            case TITLE -> dto.getTitle();
+            case AUTHOR_NAME -> dto.getAuthorName();
+            case SUBMISSION_DATE -> dto.getSubmissionDate();
+        };
+        return PageCursor.of(sortField.getApiField(), request.isAscendingSort(), dto.getPaperId(), value).encode();
+    }
+
+    // Callers hold the write lock
+    private void index(ResearchPaper paper) {
+        addDocument(paper).forEach((term, tf) -> postings.merge(term,
+                PostingsList.EMPTY.with(paper.getPaperId(), tf),
+                (existing, ignored) -> existing.with(paper.getPaperId(), tf)));
+    }
+
+    // Callers hold the write lock. Registers the document and returns its term
+    // frequencies, the postings are left to the caller.
+    private Map<String, Integer> addDocument(ResearchPaper paper) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        addField(frequencies, paper.getTitle(), TITLE_WEIGHT);
+        addField(frequencies, paper.getAuthorName(), AUTHOR_WEIGHT);
+        addField(frequencies, paper.getAbstractText(), ABSTRACT_WEIGHT);
+
+        int length = 0;
+        for (int tf : frequencies.values()) {
+            length += tf;
+        }
+
+        documents.put(paper.getPaperId(), new IndexedPaper(
+                researchPaperMapper.toListDto(paper),
+                paper.getDepartment().getDepartmentId(),
+                paper.getSubmissionDate().getYear(),
+                Boolean.TRUE.equals(paper.getArchived()),
+                length,
+                List.copyOf(frequencies.keySet())));
+        totalLength += length;
+        return frequencies;
+    }
+
+    // Callers hold the write lock
+    private void unindex(Integer paperId) {
+        IndexedPaper existing = documents.remove(paperId);
+        if (existing == null) {
+            return;
+        }
+
+        for (String term : existing.terms()) {
+            PostingsList list = postings.get(term);
+            if (list == null) {
+                continue;
+            }
+            PostingsList updated = list.without(paperId);
+            if (updated.isEmpty()) {
+                postings.remove(term);
+            } else {
+                postings.put(term, updated);
+            }
+        }
+        totalLength -= existing.length();
+    }
+
+    private static void addField(Map<String, Integer> frequencies, String text, int weight) {
+        for (String term : TextAnalyzer.analyze(text)) {
+            frequencies.merge(term, weight, Integer::sum);
+        }
+    }
+
+    // Same semantics as ResearchPaperRepository.findFacets: each dimension ignores its own filter
+    private static class FacetCounter {
+        private final Map<Integer, PaperFacets.DepartmentCount.DepartmentCountBuilder> departments = new HashMap<>();
+        private final Map<Integer, Long> departmentCounts = new HashMap<>();
+        private final Map<Integer, Long> yearCounts = new HashMap<>();
+        private final long[] archivedCounts = new long[2];
+
+        void add(IndexedPaper paper, boolean departmentOk, boolean yearOk, boolean archivedOk) {
+            if (yearOk && archivedOk) {
+                departmentCounts.merge(paper.departmentId(), 1L, Long::sum);
+                departments.computeIfAbsent(paper.departmentId(), id -> PaperFacets.DepartmentCount.builder()
+                        .departmentId(id)
+                        .departmentName(paper.dto().getDepartment().getDepartmentName()));
+            }
+            if (departmentOk && archivedOk) {
+                yearCounts.merge(paper.year(), 1L, Long::sum);
+            }
+            if (departmentOk && yearOk) {
+                archivedCounts[paper.archived() ? 1 : 0]++;
+            }
+        }
+
+        PaperFacets build() {
+            List<PaperFacets.DepartmentCount> departmentFacets = new ArrayList<>();
+            departmentCounts.forEach((id, count) -> departmentFacets.add(departments.get(id).count(count).build()));
+            departmentFacets.sort(Comparator.comparing(PaperFacets.DepartmentCount::getDepartmentName));
+
+            List<PaperFacets.YearCount> yearFacets = new ArrayList<>();
+            yearCounts.forEach((year, count) -> yearFacets.add(
+                    PaperFacets.YearCount.builder().year(year).count(count).build()));
+            yearFacets.sort(Comparator.comparing(PaperFacets.YearCount::getYear).reversed());
+
+            List<PaperFacets.ArchivedCount> archivedFacets = new ArrayList<>();
+            for (int i = 0; i < archivedCounts.length; i++) {
+                if (archivedCounts[i] > 0) {
+                    archivedFacets.add(PaperFacets.ArchivedCount.builder()
+                            .archived(i == 1)
+                            .count(archivedCounts[i])
+                            .build());
+                }
+            }
+
+            return PaperFacets.builder()
+                    .departments(departmentFacets)
+                    .years(yearFacets)
+                    .archived(archivedFacets)
+                    .build();
+        }
+    }
+
+    private record IndexedPaper(
+            ResearchPaperDto dto,
+            Integer departmentId,
+            Integer year,
+            boolean archived,
+            int length,
+            List<String> terms) {
+
+        IndexedPaper archived(LocalDateTime archivedAt) {
+            return new IndexedPaper(
+                    dto.toBuilder().archived(true).archivedAt(archivedAt).build(),
+                    departmentId, year, true, length, terms);
+        }
+    }
+
+    private record ScoredPaper(IndexedPaper paper, double score) {
+    }
+}
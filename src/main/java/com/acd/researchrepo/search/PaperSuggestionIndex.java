@@ -0,0 +1,216 @@
+package com.acd.researchrepo.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.acd.researchrepo.dto.external.papers.PaperSuggestion;
+import com.acd.researchrepo.dto.internal.PaperSuggestionRow;
+import com.acd.researchrepo.event.PaperChangedEvent;
+import com.acd.researchrepo.event.PapersArchivedEvent;
+import com.acd.researchrepo.repository.ResearchPaperRepository;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Search-as-you-type over paper titles and author names. Every title and author
+ * name is added to a {@link SuggestionTrie} under its full text and under each
+ * later word start, so "learn" also completes "Deep Learning for ...". Loaded at
+ * startup and kept current from committed {@link PaperChangedEvent}s, a lookup
+ * never leaves memory.
+ */
+@Slf4j
+@Component
+public class PaperSuggestionIndex implements InitializingBean {
+
+    public static final String TYPE_TITLE = "title";
+    public static final String TYPE_AUTHOR = "author";
+
+    // Longer keys add nodes but no selectivity, queries are cut to the same length
+    private static final int MAX_KEY_LENGTH = 64;
+
+    private final ResearchPaperRepository researchPaperRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final SuggestionTrie trie = new SuggestionTrie();
+    private final Map<Integer, IndexedPaper> papers = new HashMap<>();
+
+    public PaperSuggestionIndex(ResearchPaperRepository researchPaperRepository) {
+        this.researchPaperRepository = researchPaperRepository;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        long start = System.nanoTime();
+        List<PaperSuggestionRow> all = researchPaperRepository.findAllSuggestionRows();
+
+        lock.writeLock().lock();
+        try {
+            for (PaperSuggestionRow paper : all) {
+                add(paper);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("Loaded suggestions for {} papers in {} ms", all.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPaperChanged(PaperChangedEvent event) {
+        if (event.getType() == PaperChangedEvent.Type.DELETED) {
+            remove(event.getPaperId());
+            return;
+        }
+
+        researchPaperRepository.findSuggestionRowById(event.getPaperId())
+                .ifPresentOrElse(this::upsert, () -> remove(event.getPaperId()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPapersArchived(PapersArchivedEvent event) {
+        // Titles and authors are unchanged, only the archived flag the keys carry moves
+        lock.writeLock().lock();
+        try {
+            for (Integer paperId : event.getPaperIds()) {
+                IndexedPaper indexed = papers.get(paperId);
+                if (indexed != null && !indexed.archived()) {
+                    removeKeys(paperId);
+                    add(paperId, new IndexedPaper(indexed.title(), indexed.author(), true));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void upsert(PaperSuggestionRow paper) {
+        lock.writeLock().lock();
+        try {
+            removeKeys(paper.paperId());
+            add(paper);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Integer paperId) {
+        lock.writeLock().lock();
+        try {
+            removeKeys(paperId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Titles and author names completing the query.
+     *
+     * @param query      what the user typed so far
+     * @param onlyActive only suggest from non-archived papers
+     * @param limit      maximum number of suggestions
+     * @return distinct suggestions, empty for a blank query
+     */
+    public List<PaperSuggestion> suggest(String query, boolean onlyActive, int limit) {
+        String prefix = truncate(normalize(query));
+        if (prefix.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            return trie.collect(prefix, onlyActive, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Callers hold the write lock
+    private void add(PaperSuggestionRow paper) {
+        add(paper.paperId(), new IndexedPaper(
+                PaperSuggestion.builder().text(paper.title()).type(TYPE_TITLE).build(),
+                PaperSuggestion.builder().text(paper.authorName()).type(TYPE_AUTHOR).build(),
+                Boolean.TRUE.equals(paper.archived())));
+    }
+
+    // Callers hold the write lock
+    private void add(Integer paperId, IndexedPaper indexed) {
+        for (String key : keys(indexed.title().getText())) {
+            trie.add(key, indexed.title(), indexed.archived());
+        }
+        for (String key : keys(indexed.author().getText())) {
+            trie.add(key, indexed.author(), indexed.archived());
+        }
+        papers.put(paperId, indexed);
+    }
+
+    // Callers hold the write lock
+    private void removeKeys(Integer paperId) {
+        IndexedPaper indexed = papers.remove(paperId);
+        if (indexed == null) {
+            return;
+        }
+
+        for (String key : keys(indexed.title().getText())) {
+            trie.remove(key, indexed.title(), indexed.archived());
+        }
+        for (String key : keys(indexed.author().getText())) {
+            trie.remove(key, indexed.author(), indexed.archived());
+        }
+    }
+
+    // The normalized text and every suffix of it that starts a word
+    private static List<String> keys(String text) {
+        String normalized = normalize(text);
+        List<String> keys = new ArrayList<>();
+        if (normalized.isEmpty()) {
+            return keys;
+        }
+
+        keys.add(truncate(normalized));
+        for (int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+            String key = truncate(normalized.substring(i + 1));
+            if (!keys.contains(key)) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+
+    // Lowercase, punctuation and whitespace runs collapsed to one space
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+
+        StringBuilder normalized = new StringBuilder(text.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && !normalized.isEmpty()) {
+                    normalized.append(' ');
+                }
+                normalized.append(c);
+                pendingSpace = false;
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return normalized.toString();
+    }
+
+    private static String truncate(String key) {
+        return key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key;
+    }
+
+    private record IndexedPaper(PaperSuggestion title, PaperSuggestion author, boolean archived) {
+    }
+}
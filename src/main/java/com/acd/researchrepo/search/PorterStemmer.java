@@ -0,0 +1,342 @@
+package com.acd.researchrepo.search;
+
+import java.util.Arrays;
+
+/**
+ * Porter (1980) suffix stripping stemmer for lowercase English words.
+ * Follows the reference implementation, one instance per word so it is
+ * trivially thread safe.
+ */
+final class PorterStemmer {
+
+    private char[] b;
+    private int k; // end of the current stem
+    private int j; // end of the stem before the matched suffix
+
+    private PorterStemmer(String word) {
+        // one spare char, step 1b can grow "at" -> "ate"
+        this.b = Arrays.copyOf(word.toCharArray(), word.length() + 1);
+        this.k = word.length() - 1;
+    }
+
+    static String stem(String word) {
+        if (word.length() <= 2 || !isLowercaseAlpha(word)) {
+            return word;
+        }
+
+        PorterStemmer stemmer = new PorterStemmer(word);
+        stemmer.step1ab();
+        if (stemmer.k > 0) {
+            stemmer.step1c();
+            stemmer.step2();
+            stemmer.step3();
+            stemmer.step4();
+            stemmer.step5();
+        }
+        return new String(stemmer.b, 0, stemmer.k + 1);
+    }
+
+    private static boolean isLowercaseAlpha(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            if (c < 'a' || c > 'z') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isConsonant(int i) {
+        switch (b[i]) {
+            case 'a', 'e', 'i', 'o', 'u':
+                return false;
+            case 'y':
+                return i == 0 || !isConsonant(i - 1);
+            default:
+                return true;
+        }
+    }
+
+    // Number of consonant-vowel sequences in b[0..j]
+    private int measure() {
+        int n = 0;
+        int i = 0;
+        while (true) {
+            if (i > j) {
+                return n;
+            }
+            if (!isConsonant(i)) {
+                break;
+            }
+            i++;
+        }
+        i++;
+        while (true) {
+            while (true) {
+                if (i > j) {
+                    return n;
+                }
+                if (isConsonant(i)) {
+                    break;
+                }
+                i++;
+            }
+            i++;
+            n++;
+            while (true) {
+                if (i > j) {
+                    return n;
+                }
+                if (!isConsonant(i)) {
+                    break;
+                }
+                i++;
+            }
+            i++;
+        }
+    }
+
+    private boolean vowelInStem() {
+        for (int i = 0; i <= j; i++) {
+            if (!isConsonant(i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean doubleConsonant(int i) {
+        return i >= 1 && b[i] == b[i - 1] && isConsonant(i);
+    }
+
+    // consonant-vowel-consonant ending at i, where the last consonant is not w, x or y
+    private boolean cvc(int i) {
+        if (i < 2 || !isConsonant(i) || isConsonant(i - 1) || !isConsonant(i - 2)) {
+            return false;
+        }
+        char ch = b[i];
+        return ch != 'w' && ch != 'x' && ch != 'y';
+    }
+
+    private boolean endsWith(String suffix) {
+        int length = suffix.length();
+        int offset = k - length + 1;
+        if (offset < 0) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (b[offset + i] != suffix.charAt(i)) {
+                return false;
+            }
+        }
+        j = k - length;
+        return true;
+    }
+
+    private void setTo(String replacement) {
+        int length = replacement.length();
+        int offset = j + 1;
+        if (offset + length > b.length) {
+            b = Arrays.copyOf(b, offset + length);
+        }
+        for (int i = 0; i < length; i++) {
+            b[offset + i] = replacement.charAt(i);
+        }
+        k = j + length;
+    }
+
+    private void replaceIfMeasured(String replacement) {
+        if (measure() > 0) {
+            setTo(replacement);
+        }
+    }
+
+    // Plurals and -ed / -ing
+    private void step1ab() {
+        if (b[k] == 's') {
+            if (endsWith("sses")) {
+                k -= 2;
+            } else if (endsWith("ies")) {
+                setTo("i");
+            } else if (b[k - 1] != 's') {
+                k--;
+            }
+        }
+        if (endsWith("eed")) {
+            if (measure() > 0) {
+                k--;
+            }
+        } else if ((endsWith("ed") || endsWith("ing")) && vowelInStem()) {
+            k = j;
+            if (endsWith("at")) {
+                setTo("ate");
+            } else if (endsWith("bl")) {
+                setTo("ble");
+            } else if (endsWith("iz")) {
+                setTo("ize");
+            } else if (doubleConsonant(k)) {
+                k--;
+                char ch = b[k];
+                if (ch == 'l' || ch == 's' || ch == 'z') {
+                    k++;
+                }
+            } else {
+                j = k;
+                if (measure() == 1 && cvc(k)) {
+                    setTo("e");
+                }
+            }
+        }
+    }
+
+    // Terminal y -> i when there is another vowel in the stem
+    private void step1c() {
+        if (endsWith("y") && vowelInStem()) {
+            b[k] = 'i';
+        }
+    }
+
+    // Double suffixes -> single ones
+    private void step2() {
+        switch (b[k - 1]) {
+            case 'a' -> {
+                if (endsWith("ational")) {
+                    replaceIfMeasured("ate");
+                } else if (endsWith("tional")) {
+                    replaceIfMeasured("tion");
+                }
+            }
+            case 'c' -> {
+                if (endsWith("enci")) {
+                    replaceIfMeasured("ence");
+                } else if (endsWith("anci")) {
+                    replaceIfMeasured("ance");
+                }
+            }
+            case 'e' -> {
+                if (endsWith("izer")) {
+                    replaceIfMeasured("ize");
+                }
+            }
+            case 'l' -> {
+                if (endsWith("bli")) {
+                    replaceIfMeasured("ble");
+                } else if (endsWith("alli")) {
+                    replaceIfMeasured("al");
+                } else if (endsWith("entli")) {
+                    replaceIfMeasured("ent");
+                } else if (endsWith("eli")) {
+                    replaceIfMeasured("e");
+                } else if (endsWith("ousli")) {
+                    replaceIfMeasured("ous");
+                }
+            }
+            case 'o' -> {
+                if (endsWith("ization")) {
+                    replaceIfMeasured("ize");
+                } else if (endsWith("ation")) {
+                    replaceIfMeasured("ate");
+                } else if (endsWith("ator")) {
+                    replaceIfMeasured("ate");
+                }
+            }
+            case 's' -> {
+                if (endsWith("alism")) {
+                    replaceIfMeasured("al");
+                } else if (endsWith("iveness")) {
+                    replaceIfMeasured("ive");
+                } else if (endsWith("fulness")) {
+                    replaceIfMeasured("ful");
+                } else if (endsWith("ousness")) {
+                    replaceIfMeasured("ous");
+                }
+            }
+            case 't' -> {
+                if (endsWith("aliti")) {
+                    replaceIfMeasured("al");
+                } else if (endsWith("iviti")) {
+                    replaceIfMeasured("ive");
+                } else if (endsWith("biliti")) {
+                    replaceIfMeasured("ble");
+                }
+            }
+            case 'g' -> {
+                if (endsWith("logi")) {
+                    replaceIfMeasured("log");
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    // -ic-, -full, -ness etc.
+    private void step3() {
+        switch (b[k]) {
+            case 'e' -> {
+                if (endsWith("icate")) {
+                    replaceIfMeasured("ic");
+                } else if (endsWith("ative")) {
+                    replaceIfMeasured("");
+                } else if (endsWith("alize")) {
+                    replaceIfMeasured("al");
+                }
+            }
+            case 'i' -> {
+                if (endsWith("iciti")) {
+                    replaceIfMeasured("ic");
+                }
+            }
+            case 'l' -> {
+                if (endsWith("ical")) {
+                    replaceIfMeasured("ic");
+                } else if (endsWith("ful")) {
+                    replaceIfMeasured("");
+                }
+            }
+            case 's' -> {
+                if (endsWith("ness")) {
+                    replaceIfMeasured("");
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    // -ant, -ence etc. in context <c>vcvc<v>
+    private void step4() {
+        boolean matched = switch (b[k - 1]) {
+            case 'a' -> endsWith("al");
+            case 'c' -> endsWith("ance") || endsWith("ence");
+            case 'e' -> endsWith("er");
+            case 'i' -> endsWith("ic");
+            case 'l' -> endsWith("able") || endsWith("ible");
+            case 'n' -> endsWith("ant") || endsWith("ement") || endsWith("ment") || endsWith("ent");
+            case 'o' -> (endsWith("ion") && j >= 0 && (b[j] == 's' || b[j] == 't')) || endsWith("ou");
+            case 's' -> endsWith("ism");
+            case 't' -> endsWith("ate") || endsWith("iti");
+            case 'u' -> endsWith("ous");
+            case 'v' -> endsWith("ive");
+            case 'z' -> endsWith("ize");
+            default -> false;
+        };
+        if (matched && measure() > 1) {
+            k = j;
+        }
+    }
+
+    // Final -e and -ll
+    private void step5() {
+        j = k;
+        if (b[k] == 'e') {
+            int m = measure();
+            if (m > 1 || (m == 1 && !cvc(k - 1))) {
+                k--;
+            }
+        }
+        if (b[k] == 'l' && doubleConsonant(k) && measure() > 1) {
+            k--;
+        }
+    }
+}
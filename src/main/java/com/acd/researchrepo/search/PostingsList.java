@@ -0,0 +1,132 @@
+package com.acd.researchrepo.search;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Immutable postings list of one term: (docId, term frequency) pairs sorted by
+ * docId and stored as varint encoded docId gaps followed by the frequency. Paper
+ * ids are dense so most gaps fit in a single byte, a posting usually costs two.
+ * Writers replace the whole list ({@link #with}, {@link #without}), readers can
+ * keep iterating an old instance without locking.
+ */
+final class PostingsList {
+
+    static final PostingsList EMPTY = new PostingsList(new byte[0], 0);
+
+    @FunctionalInterface
+    interface PostingConsumer {
+        void accept(int docId, int termFrequency);
+    }
+
+    private final byte[] data;
+    private final int documentFrequency;
+
+    private PostingsList(byte[] data, int documentFrequency) {
+        this.data = data;
+        this.documentFrequency = documentFrequency;
+    }
+
+    int documentFrequency() {
+        return documentFrequency;
+    }
+
+    boolean isEmpty() {
+        return documentFrequency == 0;
+    }
+
+    void forEach(PostingConsumer consumer) {
+        int position = 0;
+        int docId = 0;
+        while (position < data.length) {
+            long gap = readVarint(position);
+            position = (int) (gap >>> 32);
+            docId += (int) gap;
+
+            long tf = readVarint(position);
+            position = (int) (tf >>> 32);
+            consumer.accept(docId, (int) tf);
+        }
+    }
+
+    /**
+     * Returns a copy with docId set to the given frequency, added or replaced.
+     */
+    PostingsList with(int docId, int termFrequency) {
+        Builder builder = new Builder();
+        boolean[] written = { false };
+        forEach((existingId, existingTf) -> {
+            if (!written[0] && docId <= existingId) {
+                builder.add(docId, termFrequency);
+                written[0] = true;
+            }
+            if (existingId != docId) {
+                builder.add(existingId, existingTf);
+            }
+        });
+        if (!written[0]) {
+            builder.add(docId, termFrequency);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns a copy without docId, or this list if it was not present.
+     */
+    PostingsList without(int docId) {
+        Builder builder = new Builder();
+        boolean[] found = { false };
+        forEach((existingId, existingTf) -> {
+            if (existingId == docId) {
+                found[0] = true;
+            } else {
+                builder.add(existingId, existingTf);
+            }
+        });
+        return found[0] ? builder.build() : this;
+    }
+
+    // Low 32 bits: value, high 32 bits: position after the varint
+    private long readVarint(int position) {
+        int value = 0;
+        int shift = 0;
+        byte current;
+        do {
+            current = data[position++];
+            value |= (current & 0x7F) << shift;
+            shift += 7;
+        } while ((current & 0x80) != 0);
+        return ((long) position << 32) | (value & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Appends postings in ascending docId order.
+     */
+    static final class Builder {
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        private int lastDocId = 0;
+        private int count = 0;
+
+        Builder add(int docId, int termFrequency) {
+            if (count > 0 && docId <= lastDocId) {
+                throw new IllegalArgumentException("Postings must be added in ascending docId order");
+            }
+            writeVarint(docId - lastDocId);
+            writeVarint(termFrequency);
+            lastDocId = docId;
+            count++;
+            return this;
+        }
+
+        PostingsList build() {
+            return count == 0 ? EMPTY : new PostingsList(out.toByteArray(), count);
+        }
+
+        private void writeVarint(int value) {
+            while ((value & ~0x7F) != 0) {
+                out.write((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            out.write(value);
+        }
+    }
+}
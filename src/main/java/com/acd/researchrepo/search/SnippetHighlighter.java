@@ -0,0 +1,209 @@
+package com.acd.researchrepo.search;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import com.acd.researchrepo.dto.external.papers.AbstractSnippet;
+import com.acd.researchrepo.dto.external.papers.TextSpan;
+
+/**
+ * Finds the search terms in paper fields and cuts a bounded abstract snippet
+ * around them. Texts are tokenized exactly like {@link TextAnalyzer} in a single
+ * pass without regular expressions, so the cost is linear in the text length.
+ * Full-text searches match on the Porter stem, fuzzy searches also accept
+ * words within a small edit distance of a query word. Immutable, build one per
+ * search and reuse it for every hit.
+ */
+public final class SnippetHighlighter {
+
+    private final Set<String> stems;
+    private final List<String> fuzzyWords;
+
+    private SnippetHighlighter(Set<String> stems, List<String> fuzzyWords) {
+        this.stems = stems;
+        this.fuzzyWords = fuzzyWords;
+    }
+
+    public static SnippetHighlighter of(String search, boolean fuzzy) {
+        Set<String> stems = new HashSet<>(TextAnalyzer.analyze(search));
+        List<String> fuzzyWords = new ArrayList<>();
+        if (fuzzy && search != null) {
+            forEachWord(search, (start, end) -> fuzzyWords.add(search.substring(start, end).toLowerCase(Locale.ROOT)));
+        }
+        return new SnippetHighlighter(stems, fuzzyWords);
+    }
+
+    public boolean isEmpty() {
+        return stems.isEmpty() && fuzzyWords.isEmpty();
+    }
+
+    /**
+     * The matching words of a text, in order.
+     */
+    public List<TextSpan> highlight(String text) {
+        List<TextSpan> spans = new ArrayList<>();
+        if (text != null) {
+            forEachWord(text, (start, end) -> {
+                if (matches(text.substring(start, end).toLowerCase(Locale.ROOT))) {
+                    spans.add(TextSpan.builder().start(start).end(end).build());
+                }
+            });
+        }
+        return spans;
+    }
+
+    /**
+     * The window of at most maxLength characters holding the most matches, grown
+     * evenly around them and cut at word boundaries. Without matches it is the
+     * start of the text.
+     */
+    public AbstractSnippet snippet(String text, int maxLength) {
+        if (text == null) {
+            return null;
+        }
+
+        List<TextSpan> spans = highlight(text);
+        if (text.length() <= maxLength) {
+            return AbstractSnippet.builder()
+                    .text(text)
+                    .start(0)
+                    .end(text.length())
+                    .truncated(false)
+                    .highlights(spans)
+                    .build();
+        }
+
+        // Two pointers over the matches: the run of matches that fits in maxLength with the most matches
+        int bestFirst = -1;
+        int bestLast = -1;
+        int last = 0;
+        for (int first = 0; first < spans.size(); first++) {
+            last = Math.max(last, first);
+            while (last + 1 < spans.size() && spans.get(last + 1).getEnd() - spans.get(first).getStart() <= maxLength) {
+                last++;
+            }
+            if (spans.get(last).getEnd() - spans.get(first).getStart() <= maxLength
+                    && (bestFirst < 0 || last - first > bestLast - bestFirst)) {
+                bestFirst = first;
+                bestLast = last;
+            }
+        }
+
+        int start = 0;
+        int firstMatch = bestFirst < 0 ? -1 : spans.get(bestFirst).getStart();
+        int lastMatch = bestFirst < 0 ? -1 : spans.get(bestLast).getEnd();
+        if (bestFirst >= 0) {
+            start = firstMatch - (maxLength - (lastMatch - firstMatch)) / 2;
+        }
+        start = Math.max(0, Math.min(start, text.length() - maxLength));
+        int end = start + maxLength;
+
+        // Cut at word boundaries, never inside the chosen matches
+        if (start > 0) {
+            int limit = bestFirst < 0 ? end : firstMatch;
+            int wordStart = start;
+            while (wordStart < limit && !Character.isWhitespace(text.charAt(wordStart - 1))) {
+                wordStart++;
+            }
+            if (wordStart < limit || wordStart == firstMatch) {
+                start = wordStart;
+            }
+        }
+        if (end < text.length()) {
+            int limit = bestFirst < 0 ? start : lastMatch;
+            int wordEnd = end;
+            while (wordEnd > limit && !Character.isWhitespace(text.charAt(wordEnd))) {
+                wordEnd--;
+            }
+            if (wordEnd > limit || wordEnd == lastMatch) {
+                end = wordEnd;
+            } else if (Character.isLowSurrogate(text.charAt(end))) {
+                end--;
+            }
+        }
+        while (start < end && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+
+        List<TextSpan> highlights = new ArrayList<>();
+        for (TextSpan span : spans) {
+            if (span.getStart() >= start && span.getEnd() <= end) {
+                highlights.add(TextSpan.builder().start(span.getStart() - start).end(span.getEnd() - start).build());
+            }
+        }
+
+        return AbstractSnippet.builder()
+                .text(text.substring(start, end))
+                .start(start)
+                .end(end)
+                .truncated(true)
+                .highlights(highlights)
+                .build();
+    }
+
+    private boolean matches(String word) {
+        if (stems.contains(PorterStemmer.stem(word))) {
+            return true;
+        }
+        for (String fuzzyWord : fuzzyWords) {
+            if (withinDistance(word, fuzzyWord, fuzzyWord.length() <= 4 ? 1 : 2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Splits on anything that is not a letter or digit, like TextAnalyzer
+    private static void forEachWord(String text, WordConsumer consumer) {
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                consumer.accept(start, i);
+                start = -1;
+            }
+        }
+    }
+
+    // Levenshtein distance <= max, giving up as soon as a whole row exceeds it
+    private static boolean withinDistance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return false;
+        }
+
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return false;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()] <= max;
+    }
+
+    @FunctionalInterface
+    private interface WordConsumer {
+        void accept(int start, int end);
+    }
+}
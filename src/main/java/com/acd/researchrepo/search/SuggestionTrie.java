@@ -0,0 +1,179 @@
+package com.acd.researchrepo.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.acd.researchrepo.dto.external.papers.PaperSuggestion;
+
+/**
+ * Prefix tree over normalized suggestion keys. Children are kept in sorted
+ * parallel arrays instead of maps, and every node counts the entries below it
+ * (all papers and active papers only), so a lookup can skip subtrees that hold
+ * nothing the caller may see and stops as soon as it has enough suggestions.
+ * Not thread safe, the owner guards it.
+ */
+final class SuggestionTrie {
+
+    private static final char[] NO_LABELS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private static final class Node {
+        private char[] labels = NO_LABELS;
+        private Node[] children = NO_CHILDREN;
+        private int total; // papers in this subtree
+        private int active; // non-archived papers in this subtree
+        private Map<String, Entry> entries; // suggestions ending at this node, by type and text
+
+        private Node child(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            return index >= 0 ? children[index] : null;
+        }
+
+        private Node getOrAddChild(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            if (index >= 0) {
+                return children[index];
+            }
+
+            int insertAt = -index - 1;
+            Node child = new Node();
+            char[] newLabels = new char[labels.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            newLabels[insertAt] = label;
+            newChildren[insertAt] = child;
+            System.arraycopy(labels, insertAt, newLabels, insertAt + 1, labels.length - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+            labels = newLabels;
+            children = newChildren;
+            return child;
+        }
+
+        private void removeChild(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            if (index < 0) {
+                return;
+            }
+            char[] newLabels = new char[labels.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(labels, 0, newLabels, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(labels, index + 1, newLabels, index, labels.length - index - 1);
+            System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+            labels = newLabels.length == 0 ? NO_LABELS : newLabels;
+            children = newChildren.length == 0 ? NO_CHILDREN : newChildren;
+        }
+    }
+
+    private static final class Entry {
+        private final PaperSuggestion suggestion;
+        private int total;
+        private int active;
+
+        private Entry(PaperSuggestion suggestion) {
+            this.suggestion = suggestion;
+        }
+    }
+
+    private final Node root = new Node();
+
+    void add(String key, PaperSuggestion suggestion, boolean archived) {
+        int delta = archived ? 0 : 1;
+        Node node = root;
+        node.total++;
+        node.active += delta;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.getOrAddChild(key.charAt(i));
+            node.total++;
+            node.active += delta;
+        }
+
+        if (node.entries == null) {
+            node.entries = new HashMap<>(2);
+        }
+        Entry entry = node.entries.computeIfAbsent(entryKey(suggestion), ignored -> new Entry(suggestion));
+        entry.total++;
+        entry.active += delta;
+    }
+
+    void remove(String key, PaperSuggestion suggestion, boolean archived) {
+        Node[] path = new Node[key.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < key.length(); i++) {
+            path[i + 1] = path[i].child(key.charAt(i));
+            if (path[i + 1] == null) {
+                return;
+            }
+        }
+
+        Node terminal = path[key.length()];
+        Entry entry = terminal.entries == null ? null : terminal.entries.get(entryKey(suggestion));
+        if (entry == null) {
+            return;
+        }
+
+        int delta = archived ? 0 : 1;
+        entry.total--;
+        entry.active -= delta;
+        if (entry.total == 0) {
+            terminal.entries.remove(entryKey(suggestion));
+            if (terminal.entries.isEmpty()) {
+                terminal.entries = null;
+            }
+        }
+
+        for (int i = key.length(); i >= 0; i--) {
+            path[i].total--;
+            path[i].active -= delta;
+            if (i > 0 && path[i].total == 0) {
+                path[i - 1].removeChild(key.charAt(i - 1));
+            }
+        }
+    }
+
+    /**
+     * Suggestions whose key starts with prefix, in key order (a key comes before
+     * its extensions). Stops after limit distinct suggestions.
+     */
+    List<PaperSuggestion> collect(String prefix, boolean onlyActive, int limit) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.child(prefix.charAt(i));
+        }
+
+        List<PaperSuggestion> results = new ArrayList<>(limit);
+        if (node != null && limit > 0) {
+            collect(node, onlyActive, limit, results);
+        }
+        return results;
+    }
+
+    // Depth first with pruning, so the work is bounded by limit times the key length
+    // rather than by the size of the subtree. Returns true once the limit is reached.
+    private static boolean collect(Node node, boolean onlyActive, int limit, List<PaperSuggestion> results) {
+        if (node.entries != null) {
+            for (Entry entry : node.entries.values()) {
+                if ((onlyActive ? entry.active : entry.total) > 0 && !results.contains(entry.suggestion)) {
+                    results.add(entry.suggestion);
+                    if (results.size() == limit) {
+                        return true;
+                    }
+                }
+            }
+        }
+        for (Node child : node.children) {
+            if ((onlyActive ? child.active : child.total) > 0 && collect(child, onlyActive, limit, results)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String entryKey(PaperSuggestion suggestion) {
+        return suggestion.getType() + ":" + suggestion.getText();
+    }
+}
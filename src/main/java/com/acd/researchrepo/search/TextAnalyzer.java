@@ -0,0 +1,61 @@
+package com.acd.researchrepo.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Turns free text into index terms: lowercase, split on anything that is not a
+ * letter or digit, drop English stop words, Porter stem. Used for both indexed
+ * fields and queries so the two always agree.
+ */
+public final class TextAnalyzer {
+
+    // Roughly the english stop list Postgres uses, so both engines ignore the same words
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "about", "above", "after", "again", "against", "all", "am", "an", "and", "any", "are", "as",
+            "at", "be", "because", "been", "before", "being", "below", "between", "both", "but", "by", "can",
+            "did", "do", "does", "doing", "down", "during", "each", "few", "for", "from", "further", "had",
+            "has", "have", "having", "he", "her", "here", "hers", "herself", "him", "himself", "his", "how",
+            "i", "if", "in", "into", "is", "it", "its", "itself", "just", "me", "more", "most", "my", "myself",
+            "no", "nor", "not", "now", "of", "off", "on", "once", "only", "or", "other", "our", "ours",
+            "ourselves", "out", "over", "own", "s", "same", "she", "should", "so", "some", "such", "t", "than",
+            "that", "the", "their", "theirs", "them", "themselves", "then", "there", "these", "they", "this",
+            "those", "through", "to", "too", "under", "until", "up", "very", "was", "we", "were", "what",
+            "when", "where", "which", "while", "who", "whom", "why", "will", "with", "you", "your", "yours",
+            "yourself", "yourselves");
+
+    private TextAnalyzer() {
+    }
+
+    /**
+     * Analyzes text into terms, in order of appearance (duplicates kept).
+     */
+    public static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                addTerm(terms, lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    private static void addTerm(List<String> terms, String token) {
+        if (STOP_WORDS.contains(token)) {
+            return;
+        }
+        terms.add(PorterStemmer.stem(token));
+    }
+}
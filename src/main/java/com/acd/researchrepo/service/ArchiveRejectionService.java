@@ -0,0 +1,229 @@
+package com.acd.researchrepo.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import com.acd.researchrepo.dto.external.papers.RejectionJobDto;
+import com.acd.researchrepo.dto.internal.RejectedRequestRow;
+import com.acd.researchrepo.event.DocumentRequestChangedEvent;
+import com.acd.researchrepo.exception.ApiException;
+import com.acd.researchrepo.exception.ErrorCode;
+import com.acd.researchrepo.model.RequestStatus;
+import com.acd.researchrepo.repository.DocumentRequestRepository;
+import com.acd.researchrepo.security.CustomUserPrincipal;
+import com.acd.researchrepo.util.RoleBasedAccess;
+import com.acd.researchrepo.util.enums.JobStatus;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Rejects the PENDING and ACCEPTED requests of archived papers with set-based
+ * UPDATEs. Either in the archiving transaction, or for large fan-outs in the
+ * background: the archive commits at once and a single worker rejects in short
+ * chunk transactions, so no transaction holds many row locks for long. Job
+ * progress is kept in memory for a day. A job cut short by a restart leaves
+ * some requests active, archiving the paper again rejects them.
+ */
+@Slf4j
+@Service
+public class ArchiveRejectionService implements DisposableBean {
+
+    public static final String REJECTION_REASON = "Paper archived";
+
+    // Paper ids per statement, well below the bind parameter limit
+    private static final int PAPER_BATCH_SIZE = 1000;
+    // Requests per background transaction
+    private static final int CHUNK_SIZE = 500;
+
+    private final DocumentRequestRepository documentRequestRepository;
+    private final DepartmentStatisticsService departmentStatisticsService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    // One worker, so background rejections never compete with each other for locks
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "archive-rejection");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Cache<String, Job> jobs = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofDays(1))
+            .maximumSize(500)
+            .build();
+
+    public ArchiveRejectionService(
+            DocumentRequestRepository documentRequestRepository,
+            DepartmentStatisticsService departmentStatisticsService,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager) {
+        this.documentRequestRepository = documentRequestRepository;
+        this.departmentStatisticsService = departmentStatisticsService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Rejects all active requests of the papers in the caller's transaction, one
+     * UPDATE per batch of papers.
+     *
+     * @return the number of rejected requests
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long rejectAll(List<Integer> paperIds) {
+        long rejected = 0;
+        for (int from = 0; from < paperIds.size(); from += PAPER_BATCH_SIZE) {
+            List<Integer> batch = paperIds.subList(from, Math.min(from + PAPER_BATCH_SIZE, paperIds.size()));
+            rejected += apply(documentRequestRepository.rejectActiveRequests(batch, REJECTION_REASON, null));
+        }
+        return rejected;
+    }
+
+    /**
+     * Rejects the active requests of the papers in the background, starting once
+     * the current transaction commits. Nothing runs if it rolls back.
+     *
+     * @param paperIds     the archived papers
+     * @param departmentId the department of all papers, null if they span several;
+     *                     department admins only see jobs of their department
+     */
+    public RejectionJobDto submitAfterCommit(List<Integer> paperIds, Integer departmentId) {
+        Job job = new Job(UUID.randomUUID().toString(), List.copyOf(paperIds), departmentId);
+        jobs.put(job.id, job);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            executor.execute(() -> run(job));
+            return job.toDto();
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                executor.execute(() -> run(job));
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    job.finish(JobStatus.FAILED, "Archive rolled back");
+                }
+            }
+        });
+        return job.toDto();
+    }
+
+    public RejectionJobDto getJob(String jobId, CustomUserPrincipal principal) {
+        if (!RoleBasedAccess.isUserAdmin(principal)) {
+            throw new ApiException(ErrorCode.ACCESS_DENIED, "Admin privileges required");
+        }
+
+        Job job = jobs.getIfPresent(jobId);
+        if (job == null || (RoleBasedAccess.isUserDepartmentAdmin(principal)
+                && (job.departmentId == null || !job.departmentId.equals(principal.getDepartmentId())))) {
+            throw new ApiException(ErrorCode.RESOURCE_NOT_FOUND, "Job not found");
+        }
+        return job.toDto();
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Archive rejection still running at shutdown, archive the papers again to finish it");
+            executor.shutdownNow();
+        }
+    }
+
+    private void run(Job job) {
+        long start = System.nanoTime();
+        try {
+            for (int from = 0; from < job.paperIds.size(); from += PAPER_BATCH_SIZE) {
+                List<Integer> batch = job.paperIds.subList(
+                        from, Math.min(from + PAPER_BATCH_SIZE, job.paperIds.size()));
+                int rejected;
+                do {
+                    Integer chunk = transactionTemplate.execute(status -> (int) apply(
+                            documentRequestRepository.rejectActiveRequests(batch, REJECTION_REASON, CHUNK_SIZE)));
+                    rejected = chunk == null ? 0 : chunk;
+                    job.rejected.addAndGet(rejected);
+                } while (rejected == CHUNK_SIZE);
+            }
+            job.finish(JobStatus.COMPLETED, null);
+            log.info("Archive rejection job {} rejected {} requests of {} papers in {} ms",
+                    job.id, job.rejected.get(), job.paperIds.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Archive rejection job {} failed after {} requests", job.id, job.rejected.get(), e);
+            job.finish(JobStatus.FAILED, "Rejection failed, archive the papers again to retry");
+        }
+    }
+
+    // Statistics and change events for rejected rows, in the transaction that rejected them
+    private long apply(List<RejectedRequestRow> rows) {
+        Map<Integer, Map<RequestStatus, Long>> byDepartment = rows.stream()
+                .collect(Collectors.groupingBy(RejectedRequestRow::departmentId,
+                        Collectors.groupingBy(RejectedRequestRow::previousStatus, Collectors.counting())));
+        byDepartment.forEach((departmentId, byStatus) -> byStatus.forEach((status, count) -> departmentStatisticsService
+                .requestsChanged(departmentId, status, RequestStatus.REJECTED, count)));
+
+        for (RejectedRequestRow row : rows) {
+            eventPublisher.publishEvent(new DocumentRequestChangedEvent(
+                    row.requestId(), row.userId(), row.paperId(), row.departmentId(),
+                    DocumentRequestChangedEvent.Type.REJECTED));
+        }
+        return rows.size();
+    }
+
+    private static final class Job {
+        private final String id;
+        private final List<Integer> paperIds;
+        private final Integer departmentId;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicLong rejected = new AtomicLong();
+        private volatile JobStatus status = JobStatus.RUNNING;
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+
+        private Job(String id, List<Integer> paperIds, Integer departmentId) {
+            this.id = id;
+            this.paperIds = paperIds;
+            this.departmentId = departmentId;
+        }
+
+        private void finish(JobStatus status, String error) {
+            this.error = error;
+            this.finishedAt = LocalDateTime.now();
+            this.status = status;
+        }
+
+        private RejectionJobDto toDto() {
+            return RejectionJobDto.builder()
+                    .jobId(id)
+                    .status(status)
+                    .paperCount(paperIds.size())
+                    .rejectedCount(rejected.get())
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .error(error)
+                    .build();
+        }
+    }
+}
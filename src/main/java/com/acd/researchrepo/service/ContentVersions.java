@@ -0,0 +1,50 @@
+package com.acd.researchrepo.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.acd.researchrepo.event.DocumentRequestChangedEvent;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Version counters the listing ETags are built from. The catalog version moves
+ * after every committed paper change, once PaperSearchCache has evicted the
+ * affected pages, so a page read after the new version is never stale. Request
+ * versions move per user after every committed change to one of their document
+ * requests. Counters are per instance and restart at zero, ETags include the
+ * startup epoch so validators of an earlier run never match.
+ */
+@Component
+public class ContentVersions {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    private final AtomicLong catalog = new AtomicLong();
+    private final Map<Integer, Long> requests = new ConcurrentHashMap<>();
+
+    public String epoch() {
+        return epoch;
+    }
+
+    public long catalog() {
+        return catalog.get();
+    }
+
+    // Called by PaperSearchCache after eviction, not from a listener of its own:
+    // listener order between the two is not defined
+    void catalogChanged() {
+        catalog.incrementAndGet();
+    }
+
+    public long requests(Integer userId) {
+        return requests.getOrDefault(userId, 0L);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onDocumentRequestChanged(DocumentRequestChangedEvent event) {
+        requests.merge(event.getUserId(), 1L, Long::sum);
+    }
+}
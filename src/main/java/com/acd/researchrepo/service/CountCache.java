@@ -0,0 +1,59 @@
+package com.acd.researchrepo.service;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+import com.acd.researchrepo.environment.AppProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Short-lived cache of listing totals for count=estimated. Listings with the
+ * same (normalized) filters share one count(*) for the TTL instead of running it
+ * on every page, at the price of a total that can lag behind recent writes.
+ */
+@Component
+public class CountCache {
+    private final Cache<String, Long> counts;
+
+    public CountCache(AppProperties appProperties) {
+        this.counts = Caffeine.newBuilder()
+                .expireAfterWrite(appProperties.getPagination().getCountCacheTtl())
+                .maximumSize(appProperties.getPagination().getCountCacheMaxSize())
+                .build();
+    }
+
+    public long get(String key, LongSupplier counter) {
+        return counts.get(key, ignored -> counter.getAsLong());
+    }
+
+    /**
+     * Builds a cache key from filter values. Search terms are trimmed and
+     * lowercased and lists are sorted, so equivalent filters share an entry.
+     */
+    public static String key(String listing, Object... filters) {
+        StringBuilder key = new StringBuilder(listing);
+        for (Object filter : filters) {
+            key.append('|').append(normalize(filter));
+        }
+        return key.toString();
+    }
+
+    private static String normalize(Object filter) {
+        if (filter instanceof String text) {
+            return text.trim().toLowerCase();
+        }
+        if (filter instanceof List<?> values) {
+            return values.stream()
+                    .map(String::valueOf)
+                    .distinct()
+                    .sorted()
+                    .collect(Collectors.joining(","));
+        }
+        return Objects.toString(filter, "");
+    }
+}
@@ -2,15 +2,12 @@ package com.acd.researchrepo.service;
 
 import java.util.Comparator;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 import com.acd.researchrepo.dto.external.model.DepartmentDto;
 import com.acd.researchrepo.mapper.DepartmentMapper;
 import com.acd.researchrepo.model.Department;
 import com.acd.researchrepo.repository.DepartmentRepository;
-import com.acd.researchrepo.repository.ResearchPaperRepository;
-import com.acd.researchrepo.security.CustomUserPrincipal;
 
 import org.springframework.stereotype.Service;
 
@@ -19,41 +16,36 @@ public class DepartmentService {
 
     private final DepartmentRepository departmentRepository;
     private final DepartmentMapper departmentMapper;
-    private final ResearchPaperRepository researchPaperRepository;
+    private final PaperCountAggregate paperCountAggregate;
 
     public DepartmentService(
             DepartmentRepository departmentRepository,
-            ResearchPaperRepository researchPaperRepository,
+            PaperCountAggregate paperCountAggregate,
             DepartmentMapper departmentMapper) {
         this.departmentRepository = departmentRepository;
-        this.researchPaperRepository = researchPaperRepository;
+        this.paperCountAggregate = paperCountAggregate;
         this.departmentMapper = departmentMapper;
     }
 
     /**
-     * Retrieves a list of departments that have at least one associated research
-     * paper.
+     * Retrieves a list of departments that have at least one research paper in
+     * scope, with their paper counts. Counts come from the in-memory
+     * PaperCountAggregate, so the papers table is not read.
      *
-     * @param user the authenticated user requesting the departments
-     * @return a list of DepartmentDto objects
+     * @param onlyActive only count non-archived papers, the student scope
+     * @return a list of DepartmentDto objects, sorted by name
      */
-    public List<DepartmentDto> getAvailableDepartments(CustomUserPrincipal user) {
-        List<Department> departments;
+    public List<DepartmentDto> getAvailableDepartments(boolean onlyActive) {
+        Map<Integer, Long> paperCounts = paperCountAggregate.countByDepartment(onlyActive);
+        if (paperCounts.isEmpty()) {
+            return List.of();
+        }
 
-        departments = departmentRepository.findAll();
-
-        // Only include departments that have at least one paper in scope
-        Set<Integer> deptHasPaper = researchPaperRepository.findAll().stream()
-                .map(p -> p.getDepartment().getDepartmentId())
-                .collect(Collectors.toSet());
-
-        List<DepartmentDto> departmentDto = departments
+        return departmentRepository.findAll()
                 .stream()
-                .filter(deps -> deptHasPaper.contains(deps.getDepartmentId()))
+                .filter(department -> paperCounts.containsKey(department.getDepartmentId()))
                 .sorted(Comparator.comparing(Department::getDepartmentName))
-                .map(department -> departmentMapper.toDto(department))
-                .collect(Collectors.toList());
-
-        return departmentDto;
+                .map(department -> departmentMapper.toDto(department, paperCounts.get(department.getDepartmentId())))
+                .toList();
     }
 }
@@ -0,0 +1,284 @@
+package com.acd.researchrepo.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.acd.researchrepo.dto.external.statistics.DepartmentStatisticsDto;
+import com.acd.researchrepo.dto.external.statistics.DepartmentStatisticsListResponse;
+import com.acd.researchrepo.dto.external.statistics.StatisticsDrift;
+import com.acd.researchrepo.dto.external.statistics.StatisticsReconciliationResponse;
+import com.acd.researchrepo.dto.internal.PaperCountRow;
+import com.acd.researchrepo.dto.internal.RequestStatusCountRow;
+import com.acd.researchrepo.exception.ApiException;
+import com.acd.researchrepo.exception.ErrorCode;
+import com.acd.researchrepo.mapper.DepartmentMapper;
+import com.acd.researchrepo.model.Department;
+import com.acd.researchrepo.model.DepartmentStatistics;
+import com.acd.researchrepo.model.RequestStatus;
+import com.acd.researchrepo.repository.DepartmentRepository;
+import com.acd.researchrepo.repository.DepartmentStatisticsRepository;
+import com.acd.researchrepo.repository.DocumentRequestRepository;
+import com.acd.researchrepo.repository.ResearchPaperRepository;
+import com.acd.researchrepo.security.CustomUserPrincipal;
+import com.acd.researchrepo.util.RoleBasedAccess;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Per-department paper and request totals. Every paper and request write applies
+ * its delta here inside its own transaction (propagation MANDATORY), so the
+ * counters commit or roll back with the change. A nightly reconciliation recounts
+ * both tables, corrects the counters and reports the drift it found.
+ */
+@Slf4j
+@Service
+public class DepartmentStatisticsService {
+
+    private final DepartmentStatisticsRepository departmentStatisticsRepository;
+    private final DepartmentRepository departmentRepository;
+    private final ResearchPaperRepository researchPaperRepository;
+    private final DocumentRequestRepository documentRequestRepository;
+    private final DepartmentMapper departmentMapper;
+
+    // Counters corrected by the last reconciliation, published as department.statistics.drift
+    private final AtomicLong lastDrift = new AtomicLong();
+
+    public DepartmentStatisticsService(
+            DepartmentStatisticsRepository departmentStatisticsRepository,
+            DepartmentRepository departmentRepository,
+            ResearchPaperRepository researchPaperRepository,
+            DocumentRequestRepository documentRequestRepository,
+            DepartmentMapper departmentMapper,
+            MeterRegistry meterRegistry) {
+        this.departmentStatisticsRepository = departmentStatisticsRepository;
+        this.departmentRepository = departmentRepository;
+        this.researchPaperRepository = researchPaperRepository;
+        this.documentRequestRepository = documentRequestRepository;
+        this.departmentMapper = departmentMapper;
+        Gauge.builder("department.statistics.drift", lastDrift, AtomicLong::get)
+                .description("Counters corrected by the last statistics reconciliation")
+                .register(meterRegistry);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void paperAdded(Integer departmentId) {
+        departmentStatisticsRepository.add(departmentId, 1, 0, 0, 0, 0);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void paperArchiveChanged(Integer departmentId, boolean archived) {
+        paperArchiveChanged(departmentId, archived, 1);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void paperArchiveChanged(Integer departmentId, boolean archived, long count) {
+        departmentStatisticsRepository.add(departmentId, 0, archived ? count : -count, 0, 0, 0);
+    }
+
+    /**
+     * A deleted paper, with the requests that are deleted along with it.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void paperRemoved(Integer departmentId, boolean archived, List<RequestStatusCountRow> requests) {
+        Map<RequestStatus, Long> byStatus = byStatus(requests);
+        departmentStatisticsRepository.add(
+                departmentId,
+                -1,
+                archived ? -1 : 0,
+                -byStatus.get(RequestStatus.PENDING),
+                -byStatus.get(RequestStatus.ACCEPTED),
+                -byStatus.get(RequestStatus.REJECTED));
+    }
+
+    /**
+     * A paper moved to another department, its requests move with it.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void paperMoved(Integer fromDepartmentId, Integer toDepartmentId, boolean archived,
+            List<RequestStatusCountRow> requests) {
+        if (fromDepartmentId.equals(toDepartmentId)) {
+            return;
+        }
+        paperRemoved(fromDepartmentId, archived, requests);
+        Map<RequestStatus, Long> byStatus = byStatus(requests);
+        departmentStatisticsRepository.add(
+                toDepartmentId,
+                1,
+                archived ? 1 : 0,
+                byStatus.get(RequestStatus.PENDING),
+                byStatus.get(RequestStatus.ACCEPTED),
+                byStatus.get(RequestStatus.REJECTED));
+    }
+
+    /**
+     * Requests on a paper of this department changing status. A null status stands
+     * for a created (from) or deleted (to) request.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void requestsChanged(Integer departmentId, RequestStatus from, RequestStatus to, long count) {
+        if (from == to || count == 0) {
+            return;
+        }
+        departmentStatisticsRepository.add(
+                departmentId,
+                0,
+                0,
+                delta(RequestStatus.PENDING, from, to, count),
+                delta(RequestStatus.ACCEPTED, from, to, count),
+                delta(RequestStatus.REJECTED, from, to, count));
+    }
+
+    /**
+     * Statistics of the departments the admin manages: their own for a department
+     * admin, all for a super admin. Sorted by department name.
+     */
+    public DepartmentStatisticsListResponse getStatistics(CustomUserPrincipal principal) {
+        if (!RoleBasedAccess.isUserAdmin(principal)) {
+            throw new ApiException(ErrorCode.ACCESS_DENIED, "Admin privileges required");
+        }
+
+        List<Department> departments;
+        if (RoleBasedAccess.isUserDepartmentAdmin(principal)) {
+            if (principal.getDepartmentId() == null) {
+                throw new ApiException(ErrorCode.ACCESS_DENIED, "Department admin not assigned to a department");
+            }
+            departments = departmentRepository.findById(principal.getDepartmentId()).stream().toList();
+        } else {
+            departments = departmentRepository.findAll();
+        }
+
+        Map<Integer, DepartmentStatistics> statistics = new HashMap<>();
+        departmentStatisticsRepository.findAllById(departments.stream().map(Department::getDepartmentId).toList())
+                .forEach(row -> statistics.put(row.getDepartmentId(), row));
+
+        List<DepartmentStatisticsDto> rows = departments.stream()
+                .sorted(Comparator.comparing(Department::getDepartmentName))
+                .map(department -> departmentMapper.toStatisticsDto(
+                        statistics.getOrDefault(department.getDepartmentId(), empty(department.getDepartmentId())),
+                        department.getDepartmentName()))
+                .toList();
+
+        return DepartmentStatisticsListResponse.builder().departments(rows).build();
+    }
+
+    // Transactional itself, the call to reconcile below does not go through the proxy
+    @Scheduled(cron = "${app.statistics.reconcile-cron}")
+    @Transactional
+    public void scheduledReconcile() {
+        StatisticsReconciliationResponse report = reconcile();
+        if (report.getDrift().isEmpty()) {
+            log.info("Department statistics reconciled, {} departments without drift", report.getDepartmentsChecked());
+        }
+    }
+
+    /**
+     * Recounts papers and requests per department and overwrites the counters
+     * that drifted, with one GROUP BY over each table. Counter updates, and so
+     * paper and request writes, wait while it runs.
+     */
+    @Transactional
+    public StatisticsReconciliationResponse reconcile() {
+        departmentStatisticsRepository.lockForReconciliation();
+
+        Map<Integer, DepartmentStatistics> actual = new HashMap<>();
+        for (Department department : departmentRepository.findAll()) {
+            actual.put(department.getDepartmentId(), empty(department.getDepartmentId()));
+        }
+        for (PaperCountRow row : researchPaperRepository.countByDepartmentYearArchived()) {
+            DepartmentStatistics counts = actual.computeIfAbsent(row.departmentId(), DepartmentStatisticsService::empty);
+            counts.setPaperCount(counts.getPaperCount() + row.count());
+            if (Boolean.TRUE.equals(row.archived())) {
+                counts.setArchivedPaperCount(counts.getArchivedPaperCount() + row.count());
+            }
+        }
+        for (RequestStatusCountRow row : documentRequestRepository.countByDepartmentAndStatus()) {
+            DepartmentStatistics counts = actual.computeIfAbsent(row.departmentId(), DepartmentStatisticsService::empty);
+            switch (row.status()) {
+                case PENDING -> counts.setPendingRequestCount(row.count());
+                case ACCEPTED -> counts.setAcceptedRequestCount(row.count());
+                case REJECTED -> counts.setRejectedRequestCount(row.count());
+            }
+        }
+
+        Map<Integer, DepartmentStatistics> stored = new HashMap<>();
+        departmentStatisticsRepository.findAll().forEach(row -> stored.put(row.getDepartmentId(), row));
+
+        List<StatisticsDrift> drift = new ArrayList<>();
+        List<DepartmentStatistics> corrected = new ArrayList<>();
+        actual.forEach((departmentId, counts) -> {
+            DepartmentStatistics current = stored.getOrDefault(departmentId, empty(departmentId));
+            int before = drift.size();
+            compare(drift, departmentId, "paperCount", current.getPaperCount(), counts.getPaperCount());
+            compare(drift, departmentId, "archivedPaperCount",
+                    current.getArchivedPaperCount(), counts.getArchivedPaperCount());
+            compare(drift, departmentId, "pendingRequestCount",
+                    current.getPendingRequestCount(), counts.getPendingRequestCount());
+            compare(drift, departmentId, "acceptedRequestCount",
+                    current.getAcceptedRequestCount(), counts.getAcceptedRequestCount());
+            compare(drift, departmentId, "rejectedRequestCount",
+                    current.getRejectedRequestCount(), counts.getRejectedRequestCount());
+            if (drift.size() > before || !stored.containsKey(departmentId)) {
+                counts.setUpdatedAt(LocalDateTime.now());
+                corrected.add(counts);
+            }
+        });
+        departmentStatisticsRepository.saveAll(corrected);
+
+        for (StatisticsDrift entry : drift) {
+            log.warn("Department statistics drift: department {} {} was {}, recounted {}",
+                    entry.getDepartmentId(), entry.getCounter(), entry.getStored(), entry.getActual());
+        }
+        lastDrift.set(drift.size());
+
+        return StatisticsReconciliationResponse.builder()
+                .departmentsChecked(actual.size())
+                .drift(drift)
+                .build();
+    }
+
+    private static void compare(List<StatisticsDrift> drift, Integer departmentId, String counter, long stored,
+            long actual) {
+        if (stored != actual) {
+            drift.add(StatisticsDrift.builder()
+                    .departmentId(departmentId)
+                    .counter(counter)
+                    .stored(stored)
+                    .actual(actual)
+                    .build());
+        }
+    }
+
+    private static long delta(RequestStatus status, RequestStatus from, RequestStatus to, long count) {
+        return (status == to ? count : 0) - (status == from ? count : 0);
+    }
+
+    private static Map<RequestStatus, Long> byStatus(List<RequestStatusCountRow> requests) {
+        Map<RequestStatus, Long> byStatus = new HashMap<>();
+        for (RequestStatus status : RequestStatus.values()) {
+            byStatus.put(status, 0L);
+        }
+        for (RequestStatusCountRow row : requests) {
+            byStatus.merge(row.status(), row.count(), Long::sum);
+        }
+        return byStatus;
+    }
+
+    private static DepartmentStatistics empty(Integer departmentId) {
+        DepartmentStatistics statistics = new DepartmentStatistics();
+        statistics.setDepartmentId(departmentId);
+        return statistics;
+    }
+}
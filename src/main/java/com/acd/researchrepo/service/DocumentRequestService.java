@@ -1,15 +1,34 @@
 package com.acd.researchrepo.service;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import com.acd.researchrepo.dto.external.model.UserDocumentRequestDto;
 import com.acd.researchrepo.dto.external.papers.PaginatedResponse;
 import com.acd.researchrepo.dto.external.papers.PaperUserRequestResponse;
 import com.acd.researchrepo.dto.external.requests.AdminRequestResponse;
+import com.acd.researchrepo.dto.external.requests.BulkCreateRequest;
+import com.acd.researchrepo.dto.external.requests.BulkCreateResponse;
+import com.acd.researchrepo.dto.external.requests.BulkCreateResult;
+import com.acd.researchrepo.dto.external.requests.BulkDecisionRequest;
+import com.acd.researchrepo.dto.external.requests.BulkDecisionResponse;
+import com.acd.researchrepo.dto.external.requests.BulkDecisionResult;
 import com.acd.researchrepo.dto.external.requests.CreateRequestRequest;
 import com.acd.researchrepo.dto.external.requests.CreateRequestResponse;
 import com.acd.researchrepo.dto.external.requests.DocumentRequestSearchRequest;
+import com.acd.researchrepo.dto.internal.RequestDecisionRow;
+import com.acd.researchrepo.dto.internal.RequestListRow;
+import com.acd.researchrepo.dto.internal.RequestSubmissionRow;
+import com.acd.researchrepo.environment.AppProperties;
+import com.acd.researchrepo.event.DocumentRequestChangedEvent;
 import com.acd.researchrepo.exception.ApiException;
 import com.acd.researchrepo.exception.ErrorCode;
 import com.acd.researchrepo.mapper.DocumentRequestMapper;
@@ -20,26 +39,79 @@ import com.acd.researchrepo.repository.DocumentRequestRepository;
 import com.acd.researchrepo.repository.ResearchPaperRepository;
 import com.acd.researchrepo.security.CustomUserPrincipal;
 import com.acd.researchrepo.spec.DocumentRequestSpec;
+import com.acd.researchrepo.util.HttpCaching;
+import com.acd.researchrepo.util.PageCursor;
 import com.acd.researchrepo.util.RoleBasedAccess;
+import com.acd.researchrepo.util.enums.BulkCreateOutcome;
+import com.acd.researchrepo.util.enums.BulkDecisionOutcome;
+import com.acd.researchrepo.util.enums.CountMode;
+import com.acd.researchrepo.util.enums.DocumentRequestSortField;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @Service
 public class DocumentRequestService {
+
+    // Ids per scope query and UPDATE, well below the bind parameter limit
+    private static final int BULK_DECISION_BATCH_SIZE = 1000;
+
     private final DocumentRequestRepository documentRequestRepository;
     private final ResearchPaperRepository researchPaperRepository;
     private final DocumentRequestMapper documentRequestMapper;
+    private final CountCache countCache;
+    private final AppProperties appProperties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ContentVersions contentVersions;
+    private final DepartmentStatisticsService departmentStatisticsService;
+    private final RequestEventStream requestEventStream;
 
     public DocumentRequestService(
             DocumentRequestRepository documentRequestRepository,
             ResearchPaperRepository researchPaperRepository,
-            DocumentRequestMapper documentRequestMapper) {
+            DocumentRequestMapper documentRequestMapper,
+            CountCache countCache,
+            AppProperties appProperties,
+            ApplicationEventPublisher eventPublisher,
+            ContentVersions contentVersions,
+            DepartmentStatisticsService departmentStatisticsService,
+            RequestEventStream requestEventStream) {
         this.documentRequestRepository = documentRequestRepository;
         this.researchPaperRepository = researchPaperRepository;
         this.documentRequestMapper = documentRequestMapper;
+        this.countCache = countCache;
+        this.appProperties = appProperties;
+        this.eventPublisher = eventPublisher;
+        this.contentVersions = contentVersions;
+        this.departmentStatisticsService = departmentStatisticsService;
+        this.requestEventStream = requestEventStream;
+    }
+
+    /**
+     * ETag of the user's request listing. Moves with the user's own request
+     * changes and with the catalog, whose papers the listing embeds, so it is
+     * checked before any query runs.
+     */
+    public String getUserDocumentRequestsEtag(CustomUserPrincipal userPrincipal) {
+        if (!RoleBasedAccess.isUserStudentOrTeacher(userPrincipal)) {
+            throw new ApiException(ErrorCode.ACCESS_DENIED, "Access denied");
+        }
+
+        return HttpCaching.etag(
+                "requests",
+                userPrincipal.getUserId(),
+                contentVersions.epoch(),
+                contentVersions.catalog(),
+                contentVersions.requests(userPrincipal.getUserId()));
     }
 
     public PaginatedResponse<UserDocumentRequestDto> getUserDocumentRequests(
@@ -55,11 +127,15 @@ public class DocumentRequestService {
                 request.getStatus(),
                 request.getSearch());
 
-        Page<DocumentRequest> requestPage = documentRequestRepository.findAll(spec, request.toPageable());
-
-        return PaginatedResponse.fromPage(requestPage, documentRequestMapper::toDto);
+        String countKey = CountCache.key(
+                "requests:user", userPrincipal.getUserId(), request.getStatus(), request.getSearch());
+        return findPage(spec, request, countKey, documentRequestMapper::toDto);
     }
 
+    /**
+     * Creates a pending request in one statement, see
+     * {@link DocumentRequestRepository#insertPending}.
+     */
     @Transactional
     public CreateRequestResponse createRequest(
             CreateRequestRequest requestDto,
@@ -72,31 +148,80 @@ public class DocumentRequestService {
             throw new ApiException(ErrorCode.INVALID_REQUEST, "Invalid paper ID");
         }
 
-        ResearchPaper paper = researchPaperRepository.findById(requestDto.getPaperId())
-                .orElseThrow(() -> new ApiException(ErrorCode.RESOURCE_NOT_FOUND, "Paper not found"));
-
-        if (paper.getArchived()) {
+        List<RequestSubmissionRow> rows = submit(userPrincipal.getUserId(), List.of(requestDto.getPaperId()));
+        RequestSubmissionRow row = rows.isEmpty() ? null : rows.get(0);
+        BulkCreateOutcome outcome = outcome(row);
+        if (outcome == BulkCreateOutcome.NOT_FOUND || outcome == BulkCreateOutcome.PAPER_ARCHIVED) {
             throw new ApiException(ErrorCode.RESOURCE_NOT_FOUND, "Paper not found");
         }
-
-        List<DocumentRequest> existingActiveRequests = documentRequestRepository
-                .findByUserIdAndPaperIdAndActiveStatus(userPrincipal.getUserId(), requestDto.getPaperId());
-        if (!existingActiveRequests.isEmpty()) {
+        if (outcome == BulkCreateOutcome.DUPLICATE) {
             throw new ApiException(ErrorCode.DUPLICATE_REQUEST, "Duplicate active request exists");
         }
 
-        DocumentRequest newRequest = new DocumentRequest();
-        newRequest.setUser(userPrincipal.getUser());
-        newRequest.setPaper(paper);
-        newRequest.setStatus(RequestStatus.PENDING);
+        return CreateRequestResponse.builder()
+                .requestId(row.requestId())
+                .build();
+    }
 
-        DocumentRequest savedRequest = documentRequestRepository.save(newRequest);
+    /**
+     * Creates pending requests for a reading list of papers in one statement.
+     * Papers that are missing, archived or already requested are reported and
+     * skipped, requests for the others are still created.
+     */
+    @Transactional
+    public BulkCreateResponse bulkCreate(BulkCreateRequest bulk, CustomUserPrincipal userPrincipal) {
+        if (!RoleBasedAccess.isUserStudentOrTeacher(userPrincipal)) {
+            throw new ApiException(ErrorCode.ACCESS_DENIED, "Access denied");
+        }
 
-        return CreateRequestResponse.builder()
-                .requestId(savedRequest.getRequestId())
+        List<Integer> paperIds = bulk.getPaperIds().stream().distinct().toList();
+        Map<Integer, RequestSubmissionRow> rows = submit(userPrincipal.getUserId(), paperIds).stream()
+                .collect(Collectors.toMap(RequestSubmissionRow::paperId, Function.identity()));
+
+        List<BulkCreateResult> results = paperIds.stream()
+                .map(paperId -> {
+                    RequestSubmissionRow row = rows.get(paperId);
+                    return BulkCreateResult.builder()
+                            .paperId(paperId)
+                            .outcome(outcome(row))
+                            .requestId(row != null ? row.requestId() : null)
+                            .build();
+                })
+                .toList();
+
+        return BulkCreateResponse.builder()
+                .created((int) results.stream().filter(result -> result.getOutcome() == BulkCreateOutcome.CREATED).count())
+                .results(results)
                 .build();
     }
 
+    // Inserts the requests, then applies statistics and change events for the created ones
+    private List<RequestSubmissionRow> submit(Integer userId, List<Integer> paperIds) {
+        List<RequestSubmissionRow> rows = documentRequestRepository.insertPending(userId, paperIds);
+
+        List<RequestSubmissionRow> created = rows.stream().filter(row -> row.requestId() != null).toList();
+        created.stream()
+                .collect(Collectors.groupingBy(RequestSubmissionRow::departmentId, Collectors.counting()))
+                .forEach((departmentId, count) -> departmentStatisticsService.requestsChanged(
+                        departmentId, null, RequestStatus.PENDING, count));
+        for (RequestSubmissionRow row : created) {
+            eventPublisher.publishEvent(new DocumentRequestChangedEvent(
+                    row.requestId(), userId, row.paperId(), row.departmentId(),
+                    DocumentRequestChangedEvent.Type.CREATED));
+        }
+        return rows;
+    }
+
+    private static BulkCreateOutcome outcome(RequestSubmissionRow row) {
+        if (row == null) {
+            return BulkCreateOutcome.NOT_FOUND;
+        }
+        if (Boolean.TRUE.equals(row.paperArchived())) {
+            return BulkCreateOutcome.PAPER_ARCHIVED;
+        }
+        return row.requestId() != null ? BulkCreateOutcome.CREATED : BulkCreateOutcome.DUPLICATE;
+    }
+
     @Transactional
     public void deleteRequest(Integer requestId, CustomUserPrincipal userPrincipal) {
         if (!RoleBasedAccess.isUserStudentOrTeacher(userPrincipal)) {
@@ -117,6 +242,14 @@ public class DocumentRequestService {
 
         if (request.getStatus() == RequestStatus.REJECTED || request.getStatus() == RequestStatus.PENDING) {
             documentRequestRepository.delete(request);
+            departmentStatisticsService.requestsChanged(
+                    request.getPaper().getDepartment().getDepartmentId(), request.getStatus(), null, 1);
+            eventPublisher.publishEvent(new DocumentRequestChangedEvent(
+                    requestId,
+                    userPrincipal.getUserId(),
+                    request.getPaper().getPaperId(),
+                    request.getPaper().getDepartment().getDepartmentId(),
+                    DocumentRequestChangedEvent.Type.DELETED));
         } else {
             throw new ApiException(ErrorCode.ACCESS_DENIED, "Not allowed to delete this request");
         }
@@ -172,9 +305,96 @@ public class DocumentRequestService {
                 request.getStatus(),
                 request.getSearch());
 
-        Page<DocumentRequest> requestPage = documentRequestRepository.findAll(spec, request.toPageable());
+        String countKey = CountCache.key(
+                "requests:admin", filterDepartmentId, request.getStatus(), request.getSearch());
+        return findPage(spec, request, countKey, documentRequestMapper::toAdminDto);
+    }
+
+    /**
+     * Opens a stream of the request changes in the admin's scope, the same scope
+     * as the admin request listing: their department for a department admin, all
+     * departments for a super admin.
+     *
+     * @param lastEventId the id of the last event the client received, null for a
+     *                    fresh stream
+     */
+    public SseEmitter subscribeToAdminRequestEvents(CustomUserPrincipal userPrincipal, String lastEventId) {
+        if (!RoleBasedAccess.isUserAdmin(userPrincipal)) {
+            throw new ApiException(ErrorCode.ACCESS_DENIED, "Access denied");
+        }
+
+        return requestEventStream.subscribeAdmin(
+                userPrincipal.getUserId(),
+                getUserDepartmentIdIfDepartmentAdmin(userPrincipal),
+                lastEventId);
+    }
+
+    /**
+     * Offset page, or keyset page when the request carries a cursor. Keyset pages
+     * seek past the cursor and fetch one extra row to know whether there is a next
+     * page. The total is counted, taken from the count cache or skipped depending
+     * on the count mode. Rows are read as projections with their requester and
+     * paper joined in, no entity is loaded.
+     */
+    private <T> PaginatedResponse<T> findPage(
+            Specification<DocumentRequest> spec,
+            DocumentRequestSearchRequest request,
+            String countKey,
+            Function<RequestListRow, T> mapper) {
+
+        CountMode countMode = request.resolveCountMode();
+        Pageable pageable = request.toPageable();
+        PaginatedResponse<T> response;
+        if (request.isCursorMode()) {
+            DocumentRequestSortField sortField = request.resolveSortField();
+            PageCursor cursor = PageCursor.decode(
+                    request.getAfter(), sortField.getApiField(), request.isAscendingSort());
+
+            List<RequestListRow> rows = findListRows(
+                    spec.and(DocumentRequestSpec.after(sortField, cursor)), pageable.getSort(), 0, request.getSize() + 1);
+            response = PaginatedResponse.fromKeyset(
+                    rows, request.getSize(), mapper, row -> cursorOf(row, request));
+        } else if (countMode == CountMode.EXACT) {
+            List<RequestListRow> rows = findListRows(
+                    spec, pageable.getSort(), pageable.getOffset(), pageable.getPageSize());
+            Page<RequestListRow> requestPage = PageableExecutionUtils.getPage(
+                    rows, pageable, () -> documentRequestRepository.count(spec));
+            return PaginatedResponse.fromPage(requestPage, mapper, row -> cursorOf(row, request));
+        } else {
+            List<RequestListRow> rows = findListRows(
+                    spec, pageable.getSort(), pageable.getOffset(), pageable.getPageSize() + 1);
+            boolean hasNext = rows.size() > pageable.getPageSize();
+            Slice<RequestListRow> requestSlice = new SliceImpl<>(
+                    hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+            response = PaginatedResponse.fromSlice(requestSlice, mapper, row -> cursorOf(row, request));
+        }
+
+        return switch (countMode) {
+            case NONE -> response;
+            case EXACT -> response.withTotal(documentRequestRepository.count(spec), CountMode.EXACT);
+            case ESTIMATED -> response.withTotal(
+                    countCache.get(countKey, () -> documentRequestRepository.count(spec)), CountMode.ESTIMATED);
+        };
+    }
+
+    private List<RequestListRow> findListRows(
+            Specification<DocumentRequest> spec,
+            Sort sort,
+            long offset,
+            int limit) {
+        return documentRequestRepository.findListRows(
+                spec, sort, offset, limit, appProperties.getPagination().getAbstractPreviewLength());
+    }
 
-        return PaginatedResponse.fromPage(requestPage, documentRequestMapper::toAdminDto);
+    private String cursorOf(RequestListRow row, DocumentRequestSearchRequest request) {
+        DocumentRequestSortField sortField = request.resolveSortField();
+        Object value = switch (sortField) {
+            case CREATED_AT -> row.createdAt();
+            case STATUS -> row.status().name();
+            case PAPER_TITLE -> row.paper().title();
+            case USER_FULL_NAME -> row.user().fullName();
+        };
+        return PageCursor.of(sortField.getApiField(), request.isAscendingSort(), row.requestId(), value).encode();
     }
 
     private Integer getUserDepartmentIdIfDepartmentAdmin(CustomUserPrincipal principal) {
@@ -196,7 +416,7 @@ public class DocumentRequestService {
         }
 
         // Find the request
-        DocumentRequest request = documentRequestRepository.findById(requestId)
+        DocumentRequest request = documentRequestRepository.findWithUserAndPaperByRequestId(requestId)
                 .orElseThrow(() -> new ApiException(ErrorCode.RESOURCE_NOT_FOUND, "Request not found"));
 
         // Check if request is in PENDING status
@@ -219,11 +439,24 @@ public class DocumentRequestService {
             }
         }
 
-        // Update request status
+        // Guarded on the status read above, a concurrent decision makes it match no row
+        LocalDateTime now = LocalDateTime.now();
+        if (documentRequestRepository.transition(
+                requestId, RequestStatus.PENDING, RequestStatus.ACCEPTED, request.getRejectionReason(), now) == 0) {
+            throw new ApiException(ErrorCode.REQUEST_STATE_CONFLICT, "Request was changed by another admin, reload it");
+        }
         request.setStatus(RequestStatus.ACCEPTED);
-        DocumentRequest savedRequest = documentRequestRepository.save(request);
-
-        return documentRequestMapper.toAdminDto(savedRequest);
+        request.setUpdatedAt(now);
+        departmentStatisticsService.requestsChanged(
+                request.getPaper().getDepartment().getDepartmentId(), RequestStatus.PENDING, RequestStatus.ACCEPTED, 1);
+        eventPublisher.publishEvent(new DocumentRequestChangedEvent(
+                requestId,
+                request.getUser().getUserId(),
+                request.getPaper().getPaperId(),
+                request.getPaper().getDepartment().getDepartmentId(),
+                DocumentRequestChangedEvent.Type.ACCEPTED));
+
+        return documentRequestMapper.toAdminDto(request);
     }
 
     @Transactional
@@ -234,7 +467,7 @@ public class DocumentRequestService {
         }
 
         // Find the request
-        DocumentRequest request = documentRequestRepository.findById(requestId)
+        DocumentRequest request = documentRequestRepository.findWithUserAndPaperByRequestId(requestId)
                 .orElseThrow(() -> new ApiException(ErrorCode.RESOURCE_NOT_FOUND, "Request not found"));
 
         // Check if request is already REJECTED (terminal state)
@@ -257,11 +490,115 @@ public class DocumentRequestService {
             }
         }
 
-        // Update request status and reason
+        // Guarded on the status read above, a concurrent decision makes it match no row
+        RequestStatus previousStatus = request.getStatus();
+        LocalDateTime now = LocalDateTime.now();
+        if (documentRequestRepository.transition(
+                requestId, previousStatus, RequestStatus.REJECTED, reason, now) == 0) {
+            throw new ApiException(ErrorCode.REQUEST_STATE_CONFLICT, "Request was changed by another admin, reload it");
+        }
         request.setStatus(RequestStatus.REJECTED);
         request.setRejectionReason(reason);
-        DocumentRequest savedRequest = documentRequestRepository.save(request);
+        request.setUpdatedAt(now);
+        departmentStatisticsService.requestsChanged(
+                request.getPaper().getDepartment().getDepartmentId(), previousStatus, RequestStatus.REJECTED, 1);
+        eventPublisher.publishEvent(new DocumentRequestChangedEvent(
+                requestId,
+                request.getUser().getUserId(),
+                request.getPaper().getPaperId(),
+                request.getPaper().getDepartment().getDepartmentId(),
+                DocumentRequestChangedEvent.Type.REJECTED));
+
+        return documentRequestMapper.toAdminDto(request);
+    }
+
+    /**
+     * Accepts or rejects many pending requests at once. Per batch of ids, scope,
+     * paper and status are checked with one projection query and the transition
+     * is one UPDATE guarded by status = 'PENDING', so the cost grows with the
+     * number of batches rather than requests. Requests failing a check are
+     * reported and skipped, the others are still decided.
+     */
+    @Transactional
+    public BulkDecisionResponse bulkDecide(BulkDecisionRequest bulk, CustomUserPrincipal userPrincipal) {
+        if (!RoleBasedAccess.isUserAdmin(userPrincipal)) {
+            throw new ApiException(ErrorCode.ACCESS_DENIED, "Admin privileges required");
+        }
+
+        Integer scopeDepartmentId = getUserDepartmentIdIfDepartmentAdmin(userPrincipal);
+        RequestStatus target = bulk.getDecision().getTargetStatus();
+        String reason = target == RequestStatus.REJECTED ? bulk.getReason() : null;
+        List<Integer> requestIds = bulk.getRequestIds().stream().distinct().toList();
+
+        Map<Integer, BulkDecisionOutcome> outcomes = new HashMap<>();
+        List<RequestDecisionRow> decided = new ArrayList<>();
+        for (int from = 0; from < requestIds.size(); from += BULK_DECISION_BATCH_SIZE) {
+            List<Integer> batch = requestIds.subList(from, Math.min(from + BULK_DECISION_BATCH_SIZE, requestIds.size()));
+            Map<Integer, RequestDecisionRow> rows = documentRequestRepository.findDecisionRows(batch).stream()
+                    .collect(Collectors.toMap(RequestDecisionRow::requestId, Function.identity()));
+
+            List<Integer> eligible = new ArrayList<>();
+            for (Integer requestId : batch) {
+                BulkDecisionOutcome outcome = check(rows.get(requestId), scopeDepartmentId);
+                if (outcome == null) {
+                    eligible.add(requestId);
+                } else {
+                    outcomes.put(requestId, outcome);
+                }
+            }
+            if (eligible.isEmpty()) {
+                continue;
+            }
+
+            Set<Integer> updated = new HashSet<>(documentRequestRepository.decidePending(eligible, target.name(), reason));
+            for (Integer requestId : eligible) {
+                if (updated.contains(requestId)) {
+                    outcomes.put(requestId, BulkDecisionOutcome.UPDATED);
+                    decided.add(rows.get(requestId));
+                } else {
+                    // Decided by someone else between the check and the update
+                    outcomes.put(requestId, BulkDecisionOutcome.NOT_PENDING);
+                }
+            }
+        }
+
+        decided.stream()
+                .collect(Collectors.groupingBy(RequestDecisionRow::departmentId, Collectors.counting()))
+                .forEach((departmentId, count) -> departmentStatisticsService.requestsChanged(
+                        departmentId, RequestStatus.PENDING, target, count));
+        DocumentRequestChangedEvent.Type eventType = target == RequestStatus.ACCEPTED
+                ? DocumentRequestChangedEvent.Type.ACCEPTED
+                : DocumentRequestChangedEvent.Type.REJECTED;
+        for (RequestDecisionRow row : decided) {
+            eventPublisher.publishEvent(new DocumentRequestChangedEvent(
+                    row.requestId(), row.userId(), row.paperId(), row.departmentId(), eventType));
+        }
 
-        return documentRequestMapper.toAdminDto(savedRequest);
+        return BulkDecisionResponse.builder()
+                .updated(decided.size())
+                .results(requestIds.stream()
+                        .map(requestId -> BulkDecisionResult.builder()
+                                .requestId(requestId)
+                                .outcome(outcomes.get(requestId))
+                                .build())
+                        .toList())
+                .build();
+    }
+
+    // Same checks as acceptRequest/rejectRequest, null when the request can be decided
+    private static BulkDecisionOutcome check(RequestDecisionRow row, Integer scopeDepartmentId) {
+        if (row == null) {
+            return BulkDecisionOutcome.NOT_FOUND;
+        }
+        if (scopeDepartmentId != null && !scopeDepartmentId.equals(row.departmentId())) {
+            return BulkDecisionOutcome.ACCESS_DENIED;
+        }
+        if (Boolean.TRUE.equals(row.paperArchived())) {
+            return BulkDecisionOutcome.PAPER_ARCHIVED;
+        }
+        if (row.status() != RequestStatus.PENDING) {
+            return BulkDecisionOutcome.NOT_PENDING;
+        }
+        return null;
     }
 }
@@ -0,0 +1,173 @@
+package com.acd.researchrepo.service;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.acd.researchrepo.dto.internal.PaperFile;
+import com.acd.researchrepo.environment.AppProperties;
+import com.acd.researchrepo.event.DocumentRequestChangedEvent;
+import com.acd.researchrepo.event.PaperChangedEvent;
+import com.acd.researchrepo.event.PapersArchivedEvent;
+import com.acd.researchrepo.model.RequestStatus;
+import com.acd.researchrepo.repository.DocumentRequestRepository;
+import com.acd.researchrepo.repository.ResearchPaperRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Cached inputs of the download access check, so a download that hits them runs
+ * no query: per user the sorted ids of the papers they hold an accepted request
+ * for, per paper its department, archived flag and file. Both are loaded on
+ * first use and kept current from committed request and paper events.
+ * <p>
+ * Events only reach the instance that committed the change, so a grant cached
+ * here may outlive an archive or a reject made elsewhere by up to the cache
+ * ttl, a deliberate tradeoff kept short by app.entitlements.cache-ttl. Callers
+ * must only trust positive answers and confirm a denial against the database.
+ */
+@Component
+public class DownloadEntitlements {
+
+    private final DocumentRequestRepository documentRequestRepository;
+    private final ResearchPaperRepository researchPaperRepository;
+
+    private final Cache<Integer, int[]> acceptedPapers;
+    private final Cache<Integer, PaperFile> papers;
+
+    // Bumped by every change. A load that overlapped one is not cached, it may
+    // have read the state from before the change.
+    private final AtomicLong changes = new AtomicLong();
+
+    public DownloadEntitlements(
+            DocumentRequestRepository documentRequestRepository,
+            ResearchPaperRepository researchPaperRepository,
+            AppProperties appProperties,
+            MeterRegistry meterRegistry) {
+        this.documentRequestRepository = documentRequestRepository;
+        this.researchPaperRepository = researchPaperRepository;
+
+        AppProperties.Entitlements config = appProperties.getEntitlements();
+        this.acceptedPapers = Caffeine.newBuilder()
+                .expireAfterWrite(config.getCacheTtl())
+                .maximumSize(config.getMaxUsers())
+                .recordStats()
+                .build();
+        this.papers = Caffeine.newBuilder()
+                .expireAfterWrite(config.getCacheTtl())
+                .maximumSize(config.getMaxPapers())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, acceptedPapers, "downloadGrants");
+        CaffeineCacheMetrics.monitor(meterRegistry, papers, "downloadPapers");
+    }
+
+    /**
+     * The paper's file and access columns, from the cache or one primary key
+     * lookup.
+     */
+    public Optional<PaperFile> getPaper(Integer paperId) {
+        PaperFile cached = papers.getIfPresent(paperId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        long changesBefore = changes.get();
+        Optional<PaperFile> paper = researchPaperRepository.findFileById(paperId);
+        if (paper.isPresent() && changes.get() == changesBefore) {
+            papers.put(paperId, paper.get());
+        }
+        return paper;
+    }
+
+    /**
+     * Whether the user holds an accepted request for the paper. Loads all of the
+     * user's accepted papers in one query on a miss.
+     */
+    public boolean hasAcceptedRequest(Integer userId, Integer paperId) {
+        int[] accepted = acceptedPapers.getIfPresent(userId);
+        if (accepted == null) {
+            long changesBefore = changes.get();
+            accepted = documentRequestRepository.findPaperIdsByUserIdAndStatus(userId, RequestStatus.ACCEPTED)
+                    .stream()
+                    .mapToInt(Integer::intValue)
+                    .sorted()
+                    .toArray();
+            if (changes.get() == changesBefore) {
+                acceptedPapers.put(userId, accepted);
+            }
+        }
+        return Arrays.binarySearch(accepted, paperId) >= 0;
+    }
+
+    /**
+     * Drops what is cached for the user and the paper, before a denial is checked
+     * against the database.
+     */
+    public void evict(Integer userId, Integer paperId) {
+        changes.incrementAndGet();
+        if (userId != null) {
+            acceptedPapers.invalidate(userId);
+        }
+        papers.invalidate(paperId);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onDocumentRequestChanged(DocumentRequestChangedEvent event) {
+        changes.incrementAndGet();
+        switch (event.getType()) {
+            case ACCEPTED -> acceptedPapers.asMap().computeIfPresent(
+                    event.getUserId(), (userId, accepted) -> with(accepted, event.getPaperId()));
+            // A user holds at most one pending or accepted request per paper, once that one is
+            // rejected or deleted the paper is no longer theirs
+            case REJECTED, DELETED -> acceptedPapers.asMap().computeIfPresent(
+                    event.getUserId(), (userId, accepted) -> without(accepted, event.getPaperId()));
+            case CREATED -> {
+                // Pending requests grant nothing
+            }
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPaperChanged(PaperChangedEvent event) {
+        changes.incrementAndGet();
+        papers.invalidate(event.getPaperId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPapersArchived(PapersArchivedEvent event) {
+        changes.incrementAndGet();
+        papers.invalidateAll(event.getPaperIds());
+    }
+
+    private static int[] with(int[] accepted, int paperId) {
+        int index = Arrays.binarySearch(accepted, paperId);
+        if (index >= 0) {
+            return accepted;
+        }
+        int at = -index - 1;
+        int[] next = new int[accepted.length + 1];
+        System.arraycopy(accepted, 0, next, 0, at);
+        next[at] = paperId;
+        System.arraycopy(accepted, at, next, at + 1, accepted.length - at);
+        return next;
+    }
+
+    private static int[] without(int[] accepted, int paperId) {
+        int index = Arrays.binarySearch(accepted, paperId);
+        if (index < 0) {
+            return accepted;
+        }
+        int[] next = new int[accepted.length - 1];
+        System.arraycopy(accepted, 0, next, 0, index);
+        System.arraycopy(accepted, index + 1, next, index, accepted.length - index - 1);
+        return next;
+    }
+}
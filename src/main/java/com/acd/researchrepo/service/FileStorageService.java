@@ -27,7 +27,7 @@ public class FileStorageService {
     private static final long MAX_FILE_SIZE = 20 * 1024 * 1024; // 20MB
 
     public FileStorageService(AppProperties appProperties) {
-        this.rootLocation = Paths.get(appProperties.getStorage().getUploadDir());
+        this.rootLocation = Paths.get(appProperties.getStorage().getUploadDir()).toAbsolutePath().normalize();
         try {
             Files.createDirectories(rootLocation);
         } catch (IOException e) {
@@ -0,0 +1,93 @@
+package com.acd.researchrepo.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.acd.researchrepo.dto.external.model.DepartmentDto;
+import com.acd.researchrepo.security.CustomUserPrincipal;
+import com.acd.researchrepo.util.HttpCaching;
+import com.acd.researchrepo.util.RoleBasedAccess;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Years and departments for the filter endpoints, computed once per role scope:
+ * students see active papers only, a department admin the years of their own
+ * department, everyone else all papers. Entries are tagged with the
+ * {@link PaperCountAggregate} version they were computed at and recomputed on
+ * the first read after a committed paper change, so an unchanged scope is
+ * served from memory together with a version-based ETag.
+ */
+@Slf4j
+@Component
+public class FilterMetadataCache implements InitializingBean {
+
+    private static final String SCOPE_STUDENT = "student";
+    private static final String SCOPE_DEPARTMENT = "department-";
+    private static final String SCOPE_ALL = "all";
+
+    private final ResearchPaperService researchPaperService;
+    private final DepartmentService departmentService;
+    private final PaperCountAggregate paperCountAggregate;
+    private final ContentVersions contentVersions;
+
+    private final Map<String, FilterMetadata> entries = new ConcurrentHashMap<>();
+
+    public FilterMetadataCache(
+            ResearchPaperService researchPaperService,
+            DepartmentService departmentService,
+            PaperCountAggregate paperCountAggregate,
+            ContentVersions contentVersions) {
+        this.researchPaperService = researchPaperService;
+        this.departmentService = departmentService;
+        this.paperCountAggregate = paperCountAggregate;
+        this.contentVersions = contentVersions;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        load(SCOPE_STUDENT, null, true);
+        load(SCOPE_ALL, null, false);
+        for (Integer departmentId : paperCountAggregate.countByDepartment(false).keySet()) {
+            load(SCOPE_DEPARTMENT + departmentId, departmentId, false);
+        }
+        log.info("Loaded filter metadata for {} scopes", entries.size());
+    }
+
+    public FilterMetadata get(CustomUserPrincipal user) {
+        if (RoleBasedAccess.isUserStudent(user)) {
+            return get(SCOPE_STUDENT, null, true);
+        }
+        if (RoleBasedAccess.isUserDepartmentAdmin(user)) {
+            return get(SCOPE_DEPARTMENT + user.getDepartmentId(), user.getDepartmentId(), false);
+        }
+        return get(SCOPE_ALL, null, false);
+    }
+
+    private FilterMetadata get(String scope, Integer departmentId, boolean onlyActive) {
+        FilterMetadata cached = entries.get(scope);
+        if (cached != null && cached.version() == paperCountAggregate.version()) {
+            return cached;
+        }
+        return load(scope, departmentId, onlyActive);
+    }
+
+    private FilterMetadata load(String scope, Integer departmentId, boolean onlyActive) {
+        // Read before computing: a change committed meanwhile leaves the entry stale and it is loaded again
+        long version = paperCountAggregate.version();
+        FilterMetadata metadata = new FilterMetadata(
+                version,
+                HttpCaching.etag("filters", scope, contentVersions.epoch(), version),
+                researchPaperService.getAvailableYears(departmentId, onlyActive),
+                departmentService.getAvailableDepartments(onlyActive));
+        entries.merge(scope, metadata, (current, loaded) -> current.version() > loaded.version() ? current : loaded);
+        return metadata;
+    }
+
+    public record FilterMetadata(long version, String etag, List<Integer> years, List<DepartmentDto> departments) {
+    }
+}
@@ -0,0 +1,105 @@
+package com.acd.researchrepo.service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.acd.researchrepo.dto.internal.PaperCountRow;
+import com.acd.researchrepo.event.PaperChangedEvent;
+import com.acd.researchrepo.event.PapersArchivedEvent;
+import com.acd.researchrepo.repository.ResearchPaperRepository;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Paper counts per (department, submission year, archived) cell, seeded by one
+ * GROUP BY at startup and kept current from committed {@link PaperChangedEvent}s:
+ * the before state of a change is decremented and the after state incremented.
+ * The filter endpoints read it in O(cells) without touching the papers table.
+ * Counts are per instance, writes made by another instance or by hand in SQL are
+ * only seen after a restart.
+ */
+@Slf4j
+@Component
+public class PaperCountAggregate implements InitializingBean {
+
+    private record Cell(Integer departmentId, Integer year, boolean archived) {
+    }
+
+    private final ResearchPaperRepository researchPaperRepository;
+    private final Map<Cell, Long> counts = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+
+    public PaperCountAggregate(ResearchPaperRepository researchPaperRepository) {
+        this.researchPaperRepository = researchPaperRepository;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        List<PaperCountRow> rows = researchPaperRepository.countByDepartmentYearArchived();
+        counts.clear();
+        for (PaperCountRow row : rows) {
+            counts.put(new Cell(row.departmentId(), row.year(), Boolean.TRUE.equals(row.archived())), row.count());
+        }
+        log.info("Loaded paper counts for {} department/year cells", counts.size());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPaperChanged(PaperChangedEvent event) {
+        add(event.getBefore(), -1);
+        add(event.getAfter(), 1);
+        // After the counts, so a reader that sees the new version also sees them
+        version.incrementAndGet();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPapersArchived(PapersArchivedEvent event) {
+        for (PaperChangedEvent change : event.getChanges()) {
+            add(change.getBefore(), -1);
+            add(change.getAfter(), 1);
+        }
+        version.incrementAndGet();
+    }
+
+    /**
+     * Incremented after every applied change. Anything derived from the counts,
+     * or from papers committed before the change, is current while it holds.
+     */
+    public long version() {
+        return version.get();
+    }
+
+    /**
+     * Papers per department, departments without papers left out.
+     *
+     * @param onlyActive only count non-archived papers
+     */
+    public Map<Integer, Long> countByDepartment(boolean onlyActive) {
+        Map<Integer, Long> byDepartment = new HashMap<>();
+        counts.forEach((cell, count) -> {
+            if (!onlyActive || !cell.archived()) {
+                byDepartment.merge(cell.departmentId(), count, Long::sum);
+            }
+        });
+        return byDepartment;
+    }
+
+    private void add(PaperChangedEvent.Snapshot paper, long delta) {
+        if (paper == null) {
+            return;
+        }
+        Cell cell = new Cell(paper.departmentId(), paper.year(), paper.archived());
+        // Drop emptied cells so reads only see non-empty ones
+        counts.compute(cell, (ignored, count) -> {
+            long updated = (count == null ? 0 : count) + delta;
+            return updated > 0 ? updated : null;
+        });
+    }
+}
@@ -0,0 +1,202 @@
+package com.acd.researchrepo.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import com.acd.researchrepo.dto.external.model.ResearchPaperDto;
+import com.acd.researchrepo.dto.external.papers.PaginatedResponse;
+import com.acd.researchrepo.dto.external.papers.ResearchPaperSearchRequest;
+import com.acd.researchrepo.dto.internal.PaperSearchCriteria;
+import com.acd.researchrepo.environment.AppProperties;
+import com.acd.researchrepo.event.PaperChangedEvent;
+import com.acd.researchrepo.event.PapersArchivedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded cache of paper listing pages, keyed by the normalized request and the
+ * caller's role scope. A committed paper change evicts only the entries whose
+ * filters admit the paper before or after the change, every other listing keeps
+ * its page. Hit, miss and eviction counts are published as the cache.* meters
+ * with cache=paperSearch.
+ */
+@Slf4j
+@Component
+public class PaperSearchCache {
+
+    private static final String CACHE_NAME = "paperSearch";
+
+    private final Cache<String, Entry> pages;
+
+    // Bumped by every invalidation. Entries carry the value they are current for:
+    // a search stamps the value read before it ran, a sweep re-stamps the entries
+    // it keeps. An entry with an older stamp was written while a sweep was running
+    // and may predate its change, reads treat it as a miss.
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final ContentVersions contentVersions;
+
+    public PaperSearchCache(
+            AppProperties appProperties,
+            MeterRegistry meterRegistry,
+            ContentVersions contentVersions) {
+        this.contentVersions = contentVersions;
+        this.pages = Caffeine.newBuilder()
+                .expireAfterWrite(appProperties.getSearch().getResultCacheTtl())
+                .maximumSize(appProperties.getSearch().getResultCacheMaxSize())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, CACHE_NAME);
+    }
+
+    public PaginatedResponse<ResearchPaperDto> get(
+            PaperSearchCriteria criteria,
+            Supplier<PaginatedResponse<ResearchPaperDto>> search) {
+
+        String key = key(criteria);
+        Entry cached = pages.getIfPresent(key);
+        if (cached != null && cached.version() == invalidations.get()) {
+            return cached.response();
+        }
+
+        long version = invalidations.get();
+        PaginatedResponse<ResearchPaperDto> response = search.get();
+        if (invalidations.get() == version) {
+            pages.put(key, new Entry(criteria, response, version));
+        }
+        return response;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPaperChanged(PaperChangedEvent event) {
+        int evicted = evict(Stream.of(event.getBefore(), event.getAfter()).filter(Objects::nonNull).toList());
+        contentVersions.catalogChanged();
+        log.debug("Paper {} {}: evicted {} cached listing pages", event.getPaperId(), event.getType(), evicted);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPapersArchived(PapersArchivedEvent event) {
+        // Distinct listing attributes first, a bulk archive is usually a handful of department/year cells
+        List<PaperChangedEvent.Snapshot> snapshots = event.getChanges().stream()
+                .flatMap(change -> Stream.of(change.getBefore(), change.getAfter()))
+                .distinct()
+                .toList();
+        int evicted = evict(snapshots);
+        contentVersions.catalogChanged();
+        log.debug("{} papers archived: evicted {} cached listing pages", event.getChanges().size(), evicted);
+    }
+
+    /**
+     * Removes the entries admitting any of the snapshots and re-stamps the rest
+     * in place, so their write time and expiry are kept. Sweeps are serialized so
+     * one cannot re-stamp an entry another is about to remove. Entries stamped
+     * before the previous sweep were written while it ran and are removed too.
+     */
+    private synchronized int evict(List<PaperChangedEvent.Snapshot> snapshots) {
+        long version = invalidations.incrementAndGet();
+        int evicted = 0;
+        for (Map.Entry<String, Entry> page : pages.asMap().entrySet()) {
+            Entry entry = page.getValue();
+            if (entry.version() < version - 1
+                    || snapshots.stream().anyMatch(snapshot -> admits(entry.criteria(), snapshot))) {
+                // Only this instance, a page written meanwhile carries its own older stamp
+                if (pages.asMap().remove(page.getKey(), entry)) {
+                    evicted++;
+                }
+            } else {
+                entry.restamp(version);
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * Whether a listing with these criteria can contain, count or facet a paper
+     * in this state. Search terms are not evaluated, a paper inside the filters
+     * is assumed to match.
+     */
+    private static boolean admits(PaperSearchCriteria criteria, PaperChangedEvent.Snapshot paper) {
+        if (paper == null) {
+            return false;
+        }
+        if (criteria.isOnlyActive() && paper.archived()) {
+            return false;
+        }
+        if (criteria.getScopeDepartmentId() != null && !criteria.getScopeDepartmentId().equals(paper.departmentId())) {
+            return false;
+        }
+        // Each facet dimension ignores its own filter, so the role scope is all that applies
+        if (criteria.getRequest().isFacets()) {
+            return true;
+        }
+
+        List<Integer> departmentIds = criteria.getDepartmentIds();
+        List<Integer> years = criteria.getRequest().getYear();
+        return (departmentIds == null || departmentIds.isEmpty() || departmentIds.contains(paper.departmentId()))
+                && (years == null || years.isEmpty() || years.contains(paper.year()))
+                && (criteria.getArchived() == null || criteria.getArchived() == paper.archived());
+    }
+
+    private static String key(PaperSearchCriteria criteria) {
+        ResearchPaperSearchRequest request = criteria.getRequest();
+        return CountCache.key(
+                criteria.isAdmin() ? "papers:admin" : "papers",
+                request.getSearch(),
+                request.isFuzzy(),
+                criteria.getDepartmentIds(),
+                request.getYear(),
+                criteria.getArchived(),
+                criteria.isOnlyActive(),
+                criteria.getScopeDepartmentId(),
+                request.isRelevanceSort() ? "relevance" : request.resolveSortField().getApiField(),
+                request.isAscendingSort(),
+                request.getPage(),
+                request.getSize(),
+                request.resolveCountMode(),
+                request.isFacets(),
+                request.isHighlight())
+                // Cursors are case sensitive, CountCache.key lowercases strings
+                + "|" + Objects.toString(request.getAfter(), "");
+    }
+
+    private static final class Entry {
+        private final PaperSearchCriteria criteria;
+        private final PaginatedResponse<ResearchPaperDto> response;
+        private volatile long version;
+
+        private Entry(PaperSearchCriteria criteria, PaginatedResponse<ResearchPaperDto> response, long version) {
+            this.criteria = criteria;
+            this.response = response;
+            this.version = version;
+        }
+
+        PaperSearchCriteria criteria() {
+            return criteria;
+        }
+
+        PaginatedResponse<ResearchPaperDto> response() {
+            return response;
+        }
+
+        long version() {
+            return version;
+        }
+
+        void restamp(long version) {
+            this.version = version;
+        }
+    }
+}
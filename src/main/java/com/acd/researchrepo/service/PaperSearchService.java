@@ -0,0 +1,208 @@
+package com.acd.researchrepo.service;
+
+import java.util.List;
+
+import com.acd.researchrepo.dto.external.model.ResearchPaperDto;
+import com.acd.researchrepo.dto.external.papers.PaginatedResponse;
+import com.acd.researchrepo.dto.external.papers.ResearchPaperSearchRequest;
+import com.acd.researchrepo.dto.internal.PaperListRow;
+import com.acd.researchrepo.dto.internal.PaperSearchCriteria;
+import com.acd.researchrepo.environment.AppProperties;
+import com.acd.researchrepo.mapper.ResearchPaperMapper;
+import com.acd.researchrepo.model.ResearchPaper;
+import com.acd.researchrepo.repository.ResearchPaperRepository;
+import com.acd.researchrepo.spec.ResearchPaperSpec;
+import com.acd.researchrepo.util.PageCursor;
+import com.acd.researchrepo.util.enums.CountMode;
+import com.acd.researchrepo.util.enums.ResearchPaperSortField;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Database (JPA Specification) search engine for the paper catalog.
+ */
+@Service
+public class PaperSearchService {
+    private final ResearchPaperRepository researchPaperRepository;
+    private final ResearchPaperMapper researchPaperMapper;
+    private final AppProperties appProperties;
+    private final CountCache countCache;
+
+    public PaperSearchService(
+            ResearchPaperRepository researchPaperRepository,
+            ResearchPaperMapper researchPaperMapper,
+            AppProperties appProperties,
+            CountCache countCache) {
+        this.researchPaperRepository = researchPaperRepository;
+        this.researchPaperMapper = researchPaperMapper;
+        this.appProperties = appProperties;
+        this.countCache = countCache;
+    }
+
+    // Transactional so the fuzzy threshold set_config applies to the search query
+    @Transactional(readOnly = true)
+    public PaginatedResponse<ResearchPaperDto> search(PaperSearchCriteria criteria) {
+        ResearchPaperSearchRequest request = criteria.getRequest();
+
+        Specification<ResearchPaper> spec = criteria.isAdmin()
+                ? ResearchPaperSpec.buildAdmin(
+                        request.getSearch(),
+                        request.isFuzzy(),
+                        criteria.getDepartmentIds(),
+                        request.getYear(),
+                        criteria.getArchived(),
+                        request.isRelevanceSort())
+                : ResearchPaperSpec.build(
+                        request.getSearch(),
+                        request.isFuzzy(),
+                        criteria.getDepartmentIds(),
+                        request.getYear(),
+                        criteria.getArchived(),
+                        request.isRelevanceSort());
+
+        if (request.isFuzzy()) {
+            applyWordSimilarityThreshold(appProperties.getSearch().getFuzzyThreshold());
+        }
+
+        // Listings read only the list columns into rows, the entity is loaded by getPaperById
+        CountMode countMode = request.resolveCountMode();
+        Pageable pageable = request.toPageable();
+        PaginatedResponse<ResearchPaperDto> response;
+        if (request.isCursorMode()) {
+            response = searchAfterCursor(spec, request);
+        } else if (countMode == CountMode.EXACT) {
+            List<PaperListRow> rows = findListRows(spec, pageable, pageable.getPageSize());
+            Page<PaperListRow> paperPage = PageableExecutionUtils.getPage(
+                    rows, pageable, () -> researchPaperRepository.count(spec));
+            response = PaginatedResponse.fromPage(
+                    paperPage,
+                    researchPaperMapper::toListDto,
+                    paper -> cursorOf(paper, request));
+        } else {
+            // Reads size + 1 rows for hasNext, no count query
+            List<PaperListRow> rows = findListRows(spec, pageable, pageable.getPageSize() + 1);
+            boolean hasNext = rows.size() > pageable.getPageSize();
+            Slice<PaperListRow> paperSlice = new SliceImpl<>(
+                    hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+            response = PaginatedResponse.fromSlice(
+                    paperSlice,
+                    researchPaperMapper::toListDto,
+                    paper -> cursorOf(paper, request));
+        }
+
+        response = withCount(response, spec, criteria, countMode);
+        if (request.isFacets()) {
+            response = response.toBuilder().facets(researchPaperRepository.findFacets(criteria)).build();
+        }
+        return withSuggestion(response, criteria);
+    }
+
+    private PaginatedResponse<ResearchPaperDto> withCount(
+            PaginatedResponse<ResearchPaperDto> response,
+            Specification<ResearchPaper> spec,
+            PaperSearchCriteria criteria,
+            CountMode countMode) {
+
+        if (countMode == CountMode.NONE || response.getCountMode() == countMode) {
+            return response;
+        }
+        if (countMode == CountMode.EXACT) {
+            return response.withTotal(researchPaperRepository.count(spec), CountMode.EXACT);
+        }
+
+        ResearchPaperSearchRequest request = criteria.getRequest();
+        String key = CountCache.key(
+                "papers",
+                request.getSearch(),
+                request.isFuzzy(),
+                criteria.getDepartmentIds(),
+                request.getYear(),
+                criteria.getArchived());
+        long estimate = countCache.get(key, () -> researchPaperRepository.count(spec));
+        return response.withTotal(estimate, CountMode.ESTIMATED);
+    }
+
+    /**
+     * Keyset page: seeks past the cursor instead of skipping rows and fetches one
+     * extra row to know whether there is a next page.
+     */
+    private PaginatedResponse<ResearchPaperDto> searchAfterCursor(
+            Specification<ResearchPaper> spec,
+            ResearchPaperSearchRequest request) {
+
+        ResearchPaperSortField sortField = request.resolveSortField();
+        PageCursor cursor = PageCursor.decode(
+                request.getAfter(), sortField.getApiField(), request.isAscendingSort());
+        Specification<ResearchPaper> keysetSpec = spec.and(
+                ResearchPaperSpec.after(sortField, cursor, request.getSearch(), request.isFuzzy()));
+
+        List<PaperListRow> rows = researchPaperRepository.findListRows(
+                keysetSpec,
+                request.toPageable().getSort(),
+                0,
+                request.getSize() + 1,
+                appProperties.getPagination().getAbstractPreviewLength());
+
+        return PaginatedResponse.fromKeyset(
+                rows,
+                request.getSize(),
+                researchPaperMapper::toListDto,
+                paper -> cursorOf(paper, request));
+    }
+
+    private List<PaperListRow> findListRows(Specification<ResearchPaper> spec, Pageable pageable, int limit) {
+        return researchPaperRepository.findListRows(
+                spec,
+                pageable.getSort(),
+                pageable.getOffset(),
+                limit,
+                appProperties.getPagination().getAbstractPreviewLength());
+    }
+
+    private String cursorOf(PaperListRow paper, ResearchPaperSearchRequest request) {
+        ResearchPaperSortField sortField = request.resolveSortField();
+        Object value = switch (sortField) {
+            case RELEVANCE -> researchPaperRepository.findRelevance(
+                    paper.paperId(), request.getSearch().trim(), request.isFuzzy());
+            case TITLE -> paper.title();
+            case AUTHOR_NAME -> paper.authorName();
+            case SUBMISSION_DATE -> paper.submissionDate();
+        };
+        return PageCursor.of(sortField.getApiField(), request.isAscendingSort(), paper.paperId(), value).encode();
+    }
+
+    /**
+     * Adds a "did you mean" suggestion when a search came back empty. The closest
+     * title or author name within the caller's scope is looked up through the
+     * trigram indexes, using the (lower) suggestion threshold.
+     */
+    private PaginatedResponse<ResearchPaperDto> withSuggestion(
+            PaginatedResponse<ResearchPaperDto> response,
+            PaperSearchCriteria criteria) {
+
+        String search = criteria.getRequest().getSearch();
+        if (search == null || search.trim().isEmpty() || !response.getContent().isEmpty()
+                || criteria.getRequest().isCursorMode()) {
+            return response;
+        }
+
+        String term = search.trim();
+        applyWordSimilarityThreshold(appProperties.getSearch().getSuggestionThreshold());
+        return researchPaperRepository
+                .findClosestTitleOrAuthor(term, criteria.isOnlyActive(), criteria.getScopeDepartmentId())
+                .filter(suggestion -> !suggestion.equalsIgnoreCase(term))
+                .map(suggestion -> response.toBuilder().suggestion(suggestion).build())
+                .orElse(response);
+    }
+
+    private void applyWordSimilarityThreshold(double threshold) {
+        researchPaperRepository.setWordSimilarityThreshold(String.valueOf(threshold));
+    }
+}
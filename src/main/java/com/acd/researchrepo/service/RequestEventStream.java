@@ -0,0 +1,256 @@
+package com.acd.researchrepo.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import com.acd.researchrepo.dto.external.requests.RequestChangeDto;
+import com.acd.researchrepo.environment.AppProperties;
+import com.acd.researchrepo.event.DocumentRequestChangedEvent;
+import com.acd.researchrepo.exception.ApiException;
+import com.acd.researchrepo.exception.ErrorCode;
+import com.acd.researchrepo.mapper.DocumentRequestMapper;
+import com.acd.researchrepo.security.CustomUserPrincipal;
+import com.acd.researchrepo.util.RoleBasedAccess;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Pushes committed document request changes to open event streams, in place of
+ * polling: a user's streams carry the changes of their own requests, an admin's
+ * streams those of the department they manage, or of all departments for a
+ * super admin. One listener receives every change and fans it out in memory,
+ * streams never query the database.
+ * <p>
+ * Every stream starts with a "ready" event, after which the client loads its
+ * list once; then "request" events follow, and "resync" whenever the client
+ * must reload because it lost events. Events carry ids and the most recent ones
+ * are kept, so a client that reconnects with its last event id is sent what it
+ * missed instead of reloading. Ids and streams are per instance: behind a load
+ * balancer a stream only sees changes committed on its own instance.
+ * <p>
+ * Most streams sit idle between heartbeats, so a few sender threads serve
+ * thousands of them; a client that stops reading is dropped after
+ * app.sse.send-timeout instead of holding a thread, see {@link SseSender}.
+ */
+@Component
+public class RequestEventStream implements DisposableBean {
+
+    static final String READY_EVENT = "ready";
+    static final String REQUEST_EVENT = "request";
+
+    private static final int SENDER_THREADS = 2;
+
+    private final AppProperties.Sse config;
+    private final DocumentRequestMapper documentRequestMapper;
+
+    // Streams per subscribing user
+    private final Map<Integer, List<Stream>> userStreams = new ConcurrentHashMap<>();
+    private final Map<Integer, List<Stream>> adminStreams = new ConcurrentHashMap<>();
+    private final SseSender sender;
+
+    // Event ids are <epoch>-<sequence>, ids of an earlier run of the application never match
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    // Publishing and subscribing both hold the lock, so a resuming stream neither misses nor repeats a change
+    private final Object lock = new Object();
+    private final Change[] recent;
+    private long sequence;
+
+    public RequestEventStream(
+            AppProperties appProperties,
+            DocumentRequestMapper documentRequestMapper,
+            MeterRegistry meterRegistry) {
+        this.config = appProperties.getSse();
+        this.documentRequestMapper = documentRequestMapper;
+        this.recent = new Change[config.getReplayCapacity()];
+
+        this.sender = new SseSender("request-events", SENDER_THREADS, config.getSendTimeout());
+        sender.scheduleAtFixedRate(this::heartbeat, config.getHeartbeatInterval());
+
+        Gauge.builder("sse.request.streams", userStreams, RequestEventStream::count)
+                .description("Open request event streams")
+                .tag("audience", "user")
+                .register(meterRegistry);
+        Gauge.builder("sse.request.streams", adminStreams, RequestEventStream::count)
+                .description("Open request event streams")
+                .tag("audience", "admin")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a stream of the caller's request changes. Beyond the per-user limit
+     * the user's oldest stream is closed.
+     *
+     * @param lastEventId the id of the last event the client received, null for a
+     *                    fresh stream
+     */
+    public SseEmitter subscribe(CustomUserPrincipal principal, String lastEventId) {
+        if (!RoleBasedAccess.isUserStudentOrTeacher(principal)) {
+            throw new ApiException(ErrorCode.ACCESS_DENIED, "Access denied");
+        }
+
+        Integer userId = principal.getUserId();
+        return open(userStreams, userId, event -> userId.equals(event.getUserId()), lastEventId);
+    }
+
+    /**
+     * Opens a stream of the request changes of one department, or of all. The
+     * caller resolves the admin's scope.
+     *
+     * @param adminUserId  the subscribing admin, for the per-user stream limit
+     * @param departmentId the department, null for all departments
+     * @param lastEventId  the id of the last event the client received, null for
+     *                     a fresh stream
+     */
+    public SseEmitter subscribeAdmin(Integer adminUserId, Integer departmentId, String lastEventId) {
+        Predicate<DocumentRequestChangedEvent> scope = departmentId == null
+                ? event -> true
+                : event -> departmentId.equals(event.getDepartmentId());
+        return open(adminStreams, adminUserId, scope, lastEventId);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onDocumentRequestChanged(DocumentRequestChangedEvent event) {
+        RequestChangeDto dto = documentRequestMapper.toChangeDto(event);
+
+        synchronized (lock) {
+            Change change = new Change(++sequence, event, dto);
+            recent[(int) (change.sequence() % recent.length)] = change;
+
+            List<Stream> owner = userStreams.get(event.getUserId());
+            if (owner != null) {
+                owner.forEach(stream -> send(stream, change));
+            }
+            for (List<Stream> streams : adminStreams.values()) {
+                streams.forEach(stream -> send(stream, change));
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        for (Map<Integer, List<Stream>> streams : List.of(userStreams, adminStreams)) {
+            streams.values().forEach(list -> list.forEach(stream -> stream.connection().close()));
+            streams.clear();
+        }
+        sender.shutdown();
+    }
+
+    private SseEmitter open(
+            Map<Integer, List<Stream>> streams,
+            Integer subscriberId,
+            Predicate<DocumentRequestChangedEvent> scope,
+            String lastEventId) {
+        SseEmitter emitter = new SseEmitter(config.getTimeout().toMillis());
+        SseConnection connection = new SseConnection(
+                emitter, sender, config.getQueueCapacity(), () -> remove(streams, subscriberId, emitter));
+        Stream stream = new Stream(connection, scope);
+        emitter.onCompletion(() -> remove(streams, subscriberId, emitter));
+        emitter.onError(e -> remove(streams, subscriberId, emitter));
+        emitter.onTimeout(connection::close);
+
+        List<Stream> evicted = new ArrayList<>();
+        synchronized (lock) {
+            streams.compute(subscriberId, (id, current) -> {
+                List<Stream> next = current == null ? new ArrayList<>() : new ArrayList<>(current);
+                next.add(stream);
+                while (next.size() > config.getMaxStreamsPerUser()) {
+                    evicted.add(next.remove(0));
+                }
+                return List.copyOf(next);
+            });
+
+            List<Change> missed = lastEventId == null ? null : changesAfter(lastEventId);
+            if (missed == null) {
+                // The id of the ready event is where the client resumes from if it reconnects right away
+                String head = eventId(sequence);
+                connection.send(() -> SseEmitter.event().name(READY_EVENT).id(head).data(""));
+                if (lastEventId != null) {
+                    connection.send(() -> SseEmitter.event().name(SseConnection.RESYNC_EVENT).data(""));
+                }
+            } else {
+                connection.send(() -> SseEmitter.event().name(READY_EVENT).data(""));
+                missed.forEach(change -> send(stream, change));
+            }
+        }
+
+        evicted.forEach(old -> old.connection().close());
+        return emitter;
+    }
+
+    // The kept changes after the given event id, null if the id is unknown or too old to resume from
+    private List<Change> changesAfter(String lastEventId) {
+        int separator = lastEventId.lastIndexOf('-');
+        if (separator < 0 || !epoch.equals(lastEventId.substring(0, separator))) {
+            return null;
+        }
+
+        long last;
+        try {
+            last = Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (last > sequence || last < sequence - recent.length) {
+            return null;
+        }
+
+        List<Change> missed = new ArrayList<>((int) (sequence - last));
+        for (long next = last + 1; next <= sequence; next++) {
+            missed.add(recent[(int) (next % recent.length)]);
+        }
+        return missed;
+    }
+
+    private void send(Stream stream, Change change) {
+        if (!stream.scope().test(change.event())) {
+            return;
+        }
+        String id = eventId(change.sequence());
+        stream.connection().send(() -> SseEmitter.event()
+                .name(REQUEST_EVENT)
+                .id(id)
+                .data(change.dto(), MediaType.APPLICATION_JSON));
+    }
+
+    private String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    private void heartbeat() {
+        for (Map<Integer, List<Stream>> streams : List.of(userStreams, adminStreams)) {
+            for (List<Stream> list : streams.values()) {
+                list.forEach(stream -> stream.connection().send(() -> SseEmitter.event().comment("heartbeat")));
+            }
+        }
+    }
+
+    private static void remove(Map<Integer, List<Stream>> streams, Integer subscriberId, SseEmitter emitter) {
+        streams.computeIfPresent(subscriberId, (id, current) -> {
+            List<Stream> next = current.stream()
+                    .filter(stream -> stream.connection().emitter() != emitter)
+                    .toList();
+            return next.isEmpty() ? null : next;
+        });
+    }
+
+    private static int count(Map<Integer, List<Stream>> streams) {
+        return streams.values().stream().mapToInt(List::size).sum();
+    }
+
+    private record Stream(SseConnection connection, Predicate<DocumentRequestChangedEvent> scope) {
+    }
+
+    private record Change(long sequence, DocumentRequestChangedEvent event, RequestChangeDto dto) {
+    }
+}
@@ -2,30 +2,49 @@ package com.acd.researchrepo.service;
 
 import java.nio.file.Path;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import com.acd.researchrepo.dto.external.model.ResearchPaperDto;
+import com.acd.researchrepo.dto.external.papers.BulkArchiveRequest;
+import com.acd.researchrepo.dto.external.papers.BulkArchiveResponse;
 import com.acd.researchrepo.dto.external.papers.PaginatedResponse;
 import com.acd.researchrepo.dto.external.papers.PaperCreateRequest;
+import com.acd.researchrepo.dto.external.papers.PaperSuggestion;
 import com.acd.researchrepo.dto.external.papers.PaperUpdateRequest;
 import com.acd.researchrepo.dto.external.papers.PaperUserRequestResponse;
+import com.acd.researchrepo.dto.external.papers.RejectionJobDto;
 import com.acd.researchrepo.dto.external.papers.ResearchPaperSearchRequest;
+import com.acd.researchrepo.dto.external.papers.PaperHighlights;
+import com.acd.researchrepo.dto.internal.ArchivedPaperRow;
+import com.acd.researchrepo.dto.internal.PaperAbstract;
+import com.acd.researchrepo.dto.internal.PaperFile;
+import com.acd.researchrepo.dto.internal.PaperSearchCriteria;
+import com.acd.researchrepo.dto.internal.PaperVersion;
+import com.acd.researchrepo.environment.AppProperties;
+import com.acd.researchrepo.event.PaperChangedEvent;
+import com.acd.researchrepo.event.PapersArchivedEvent;
 import com.acd.researchrepo.exception.ApiException;
 import com.acd.researchrepo.exception.ErrorCode;
 import com.acd.researchrepo.mapper.ResearchPaperMapper;
-import com.acd.researchrepo.model.DocumentRequest;
 import com.acd.researchrepo.model.RequestStatus;
 import com.acd.researchrepo.model.ResearchPaper;
 import com.acd.researchrepo.repository.DepartmentRepository;
 import com.acd.researchrepo.repository.DocumentRequestRepository;
 import com.acd.researchrepo.repository.ResearchPaperRepository;
+import com.acd.researchrepo.search.InMemoryPaperIndex;
+import com.acd.researchrepo.search.PaperSuggestionIndex;
+import com.acd.researchrepo.search.SnippetHighlighter;
 import com.acd.researchrepo.security.CustomUserPrincipal;
-import com.acd.researchrepo.spec.ResearchPaperSpec;
+import com.acd.researchrepo.util.HttpCaching;
 import com.acd.researchrepo.util.RoleBasedAccess;
+import com.acd.researchrepo.util.enums.SearchEngine;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.jpa.domain.Specification;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -41,6 +60,16 @@ public class ResearchPaperService {
     private final DocumentRequestService documentRequestService;
     private final FileStorageService fileStorageService;
     private final DepartmentRepository departmentRepository;
+    private final PaperSearchService paperSearchService;
+    private final Optional<InMemoryPaperIndex> paperIndex;
+    private final PaperSuggestionIndex paperSuggestionIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AppProperties appProperties;
+    private final PaperSearchCache paperSearchCache;
+    private final ContentVersions contentVersions;
+    private final DepartmentStatisticsService departmentStatisticsService;
+    private final ArchiveRejectionService archiveRejectionService;
+    private final DownloadEntitlements downloadEntitlements;
 
     public ResearchPaperService(
             ResearchPaperRepository researchPaperRepository,
@@ -48,13 +77,46 @@ public class ResearchPaperService {
             ResearchPaperMapper researchPaperMapper,
             DocumentRequestService documentRequestService,
             FileStorageService fileStorageService,
-            DepartmentRepository departmentRepository) {
+            DepartmentRepository departmentRepository,
+            PaperSearchService paperSearchService,
+            Optional<InMemoryPaperIndex> paperIndex,
+            PaperSuggestionIndex paperSuggestionIndex,
+            ApplicationEventPublisher eventPublisher,
+            AppProperties appProperties,
+            PaperSearchCache paperSearchCache,
+            ContentVersions contentVersions,
+            DepartmentStatisticsService departmentStatisticsService,
+            ArchiveRejectionService archiveRejectionService,
+            DownloadEntitlements downloadEntitlements) {
         this.researchPaperRepository = researchPaperRepository;
         this.documentRequestRepository = documentRequestRepository;
         this.researchPaperMapper = researchPaperMapper;
         this.documentRequestService = documentRequestService;
         this.fileStorageService = fileStorageService;
         this.departmentRepository = departmentRepository;
+        this.paperSearchService = paperSearchService;
+        this.paperIndex = paperIndex;
+        this.paperSuggestionIndex = paperSuggestionIndex;
+        this.eventPublisher = eventPublisher;
+        this.appProperties = appProperties;
+        this.paperSearchCache = paperSearchCache;
+        this.contentVersions = contentVersions;
+        this.departmentStatisticsService = departmentStatisticsService;
+        this.archiveRejectionService = archiveRejectionService;
+        this.downloadEntitlements = downloadEntitlements;
+    }
+
+    /**
+     * ETag of a paper listing for this user. Moves with every committed paper
+     * change, students and everyone else get different ETags as they see
+     * different papers.
+     */
+    public String getPapersEtag(CustomUserPrincipal userPrincipal) {
+        return HttpCaching.etag(
+                "papers",
+                RoleBasedAccess.isUserStudent(userPrincipal) ? "active" : "all",
+                contentVersions.epoch(),
+                contentVersions.catalog());
     }
 
     public PaginatedResponse<ResearchPaperDto> getPapers(
@@ -66,15 +128,15 @@ public class ResearchPaperService {
             archived = false;
         }
 
-        Specification<ResearchPaper> spec = ResearchPaperSpec.build(
-                request.getSearch(),
-                request.getDepartmentId(),
-                request.getYear(),
-                archived);
-
-        Page<ResearchPaper> paperPage = researchPaperRepository.findAll(spec, request.toPageable());
+        PaperSearchCriteria criteria = PaperSearchCriteria.builder()
+                .request(request)
+                .departmentIds(request.getDepartmentId())
+                .archived(archived)
+                .admin(false)
+                .onlyActive(RoleBasedAccess.isUserStudent(userPrincipal))
+                .build();
 
-        return PaginatedResponse.fromPage(paperPage, researchPaperMapper::toDto);
+        return paperSearchCache.get(criteria, () -> search(criteria));
     }
 
     /**
@@ -98,6 +160,7 @@ public class ResearchPaperService {
 
         // Determine department filtering based on role
         List<Integer> effectiveDepartmentIds = null;
+        Integer scopeDepartmentId = null;
         if (RoleBasedAccess.isUserDepartmentAdmin(userPrincipal)) {
             // Ignore departmentIds param, always scope to their department
             Integer userDeptId = userPrincipal.getDepartmentId();
@@ -105,24 +168,97 @@ public class ResearchPaperService {
                 throw new ApiException(ErrorCode.ACCESS_DENIED, "Department admin not assigned to a department");
             }
             effectiveDepartmentIds = List.of(userDeptId);
+            scopeDepartmentId = userDeptId;
         } else {
             // For SuperAdmin use provided departmentIds (can be null for all departments)
             effectiveDepartmentIds = request.getDepartmentId();
         }
 
-        Specification<ResearchPaper> spec = ResearchPaperSpec.buildAdmin(
-                request.getSearch(),
-                effectiveDepartmentIds,
-                request.getYear(),
-                request.getArchived());
+        PaperSearchCriteria criteria = PaperSearchCriteria.builder()
+                .request(request)
+                .departmentIds(effectiveDepartmentIds)
+                .archived(request.getArchived())
+                .admin(true)
+                .onlyActive(false)
+                .scopeDepartmentId(scopeDepartmentId)
+                .build();
+
+        return paperSearchCache.get(criteria, () -> search(criteria));
+    }
+
+    /**
+     * Runs the search on the configured engine. Fuzzy searches always go to the
+     * database, the in-memory index has no trigram matching.
+     */
+    private PaginatedResponse<ResearchPaperDto> search(PaperSearchCriteria criteria) {
+        long start = System.nanoTime();
+        boolean inMemory = paperIndex.isPresent() && !criteria.getRequest().isFuzzy();
+
+        PaginatedResponse<ResearchPaperDto> response = inMemory
+                ? paperIndex.get().search(criteria)
+                : paperSearchService.search(criteria);
+
+        log.debug("Paper search on {} engine took {} us ({} rows)",
+                inMemory ? SearchEngine.MEMORY : SearchEngine.DATABASE,
+                (System.nanoTime() - start) / 1_000,
+                response.getContent().size());
+        return criteria.getRequest().isHighlight() ? withHighlights(response, criteria.getRequest()) : response;
+    }
+
+    /**
+     * Replaces each abstract with match offsets and a bounded snippet around the
+     * matches. The page carries abstract previews, so the full abstracts of the
+     * page are read once by id and every hit is scanned once.
+     */
+    private PaginatedResponse<ResearchPaperDto> withHighlights(
+            PaginatedResponse<ResearchPaperDto> response,
+            ResearchPaperSearchRequest request) {
+
+        SnippetHighlighter highlighter = SnippetHighlighter.of(request.getSearch(), request.isFuzzy());
+        if (highlighter.isEmpty() || response.getContent().isEmpty()) {
+            return response;
+        }
+
+        List<Integer> paperIds = response.getContent().stream().map(ResearchPaperDto::getPaperId).toList();
+        Map<Integer, String> abstracts = researchPaperRepository.findAbstracts(paperIds).stream()
+                .collect(Collectors.toMap(PaperAbstract::paperId, PaperAbstract::abstractText));
+
+        int snippetLength = appProperties.getSearch().getSnippetLength();
+        List<ResearchPaperDto> content = response.getContent().stream()
+                .map(paper -> paper.toBuilder()
+                        .abstractText(null)
+                        .abstractTruncated(null)
+                        .highlights(PaperHighlights.builder()
+                                .title(highlighter.highlight(paper.getTitle()))
+                                .authorName(highlighter.highlight(paper.getAuthorName()))
+                                .abstractSnippet(highlighter.snippet(abstracts.get(paper.getPaperId()), snippetLength))
+                                .build())
+                        .build())
+                .toList();
+        return response.toBuilder().content(content).build();
+    }
+
+    /**
+     * ETag of a single paper, from its updatedAt and archivedAt. Read through a
+     * column projection, applies the same visibility rule as getPaperById.
+     */
+    public String getPaperEtag(Integer id, CustomUserPrincipal userPrincipal) {
+        PaperVersion version = researchPaperRepository.findVersionById(id)
+                .orElseThrow(() -> new ApiException(ErrorCode.RESOURCE_NOT_FOUND, "Paper not found"));
 
-        Page<ResearchPaper> paperPage = researchPaperRepository.findAll(spec, request.toPageable());
+        if (RoleBasedAccess.isUserStudent(userPrincipal) && version.archived()) {
+            throw new ApiException(ErrorCode.RESOURCE_NOT_FOUND, "Paper not found");
+        }
 
-        return PaginatedResponse.fromPage(paperPage, researchPaperMapper::toDto);
+        return HttpCaching.etag(
+                "paper",
+                id,
+                version.updatedAt().toEpochSecond(ZoneOffset.UTC) + "." + version.updatedAt().getNano(),
+                version.archivedAt() == null ? 0 : version.archivedAt().toEpochSecond(ZoneOffset.UTC));
     }
 
     public ResearchPaperDto getPaperById(Integer id, CustomUserPrincipal userPrincipal) {
-        Optional<ResearchPaper> paperOpt = researchPaperRepository.findById(id);
+        Optional<ResearchPaper> paperOpt = researchPaperRepository.findWithDepartmentByPaperId(id);
 
         if (paperOpt.isEmpty()) {
             throw new ApiException(ErrorCode.RESOURCE_NOT_FOUND, "Paper not found");
@@ -137,33 +273,133 @@ public class ResearchPaperService {
         return researchPaperMapper.toDto(paper);
     }
 
-    public List<Integer> getAvailableYears(CustomUserPrincipal user) {
-        Integer deptId = RoleBasedAccess.isUserDepartmentAdmin(user) ? user.getDepartmentId() : null;
-        boolean onlyActive = RoleBasedAccess.isUserStudent(user);
-        return researchPaperRepository.findDistinctYears(deptId, onlyActive);
+    /**
+     * Distinct submission years, newest first. Read by FilterMetadataCache, which
+     * only calls it again after a paper change.
+     *
+     * @param departmentId only years of this department, null for all
+     * @param onlyActive   only years of non-archived papers
+     */
+    public List<Integer> getAvailableYears(Integer departmentId, boolean onlyActive) {
+        // An IN list rather than an optional predicate, so the archived flag stays an index condition
+        List<Boolean> archived = onlyActive ? List.of(false) : List.of(false, true);
+        return departmentId == null
+                ? researchPaperRepository.findDistinctYears(archived)
+                : researchPaperRepository.findDistinctYearsByDepartment(departmentId, archived);
+    }
+
+    /**
+     * Search-as-you-type completions. Same role rule as getPapers: students only
+     * get suggestions from non-archived papers.
+     */
+    public List<PaperSuggestion> suggest(String query, int limit, CustomUserPrincipal userPrincipal) {
+        if (limit < 1 || limit > 20) {
+            throw new ApiException(ErrorCode.INVALID_REQUEST, "limit must be between 1 and 20");
+        }
+        return paperSuggestionIndex.suggest(query, RoleBasedAccess.isUserStudent(userPrincipal), limit);
     }
 
     public PaperUserRequestResponse getUserRequestForPaper(Integer paperId, CustomUserPrincipal userPrincipal) {
         return documentRequestService.getUserRequestForPaper(paperId, userPrincipal);
     }
 
+    /**
+     * Archives a paper and rejects its PENDING and ACCEPTED requests with one
+     * set-based UPDATE. With async the archive commits at once and the requests
+     * are rejected in the background, the returned job shows the progress.
+     *
+     * @return the rejection job with async, otherwise null
+     */
     @Transactional
-    public void archivePaper(Integer id, CustomUserPrincipal principal) {
+    public RejectionJobDto archivePaper(Integer id, boolean async, CustomUserPrincipal principal) {
         ResearchPaper paper = getAndVerifyAdminAccess(id, principal);
+        PaperChangedEvent.Snapshot before = PaperChangedEvent.Snapshot.of(paper);
 
         paper.setArchived(true);
         paper.setArchivedAt(LocalDateTime.now());
         researchPaperRepository.save(paper);
+        if (!before.archived()) {
+            departmentStatisticsService.paperArchiveChanged(before.departmentId(), true);
+        }
+
+        eventPublisher.publishEvent(new PaperChangedEvent(
+                id, PaperChangedEvent.Type.ARCHIVED, before, PaperChangedEvent.Snapshot.of(paper)));
 
         // side-effects: Reject all active requests
-        List<DocumentRequest> activeRequests = documentRequestRepository.findByPaperPaperIdAndStatusIn(
-                id, List.of(RequestStatus.PENDING, RequestStatus.ACCEPTED));
+        if (async) {
+            return archiveRejectionService.submitAfterCommit(List.of(id), before.departmentId());
+        }
+        archiveRejectionService.rejectAll(List.of(id));
+        return null;
+    }
 
-        for (DocumentRequest request : activeRequests) {
-            request.setStatus(RequestStatus.REJECTED);
-            request.setRejectionReason("Paper archived");
-            documentRequestRepository.save(request);
+    /**
+     * Archives every active paper matching the filters with one UPDATE, then
+     * rejects their requests like archivePaper. Department admins are scoped to
+     * their department, super admins must give at least one filter.
+     */
+    @Transactional
+    public BulkArchiveResponse bulkArchive(BulkArchiveRequest request, CustomUserPrincipal principal) {
+        if (!RoleBasedAccess.isUserAdmin(principal)) {
+            throw new ApiException(ErrorCode.ACCESS_DENIED, "Admin privileges required");
+        }
+
+        Integer departmentId = request.getDepartmentId();
+        if (RoleBasedAccess.isUserDepartmentAdmin(principal)) {
+            Integer userDeptId = principal.getDepartmentId();
+            if (userDeptId == null) {
+                throw new ApiException(ErrorCode.ACCESS_DENIED, "Department admin not assigned to a department");
+            }
+            if (departmentId != null && !departmentId.equals(userDeptId)) {
+                throw new ApiException(ErrorCode.ACCESS_DENIED, "You can only manage papers within your department");
+            }
+            departmentId = userDeptId;
+        } else if (departmentId == null
+                && (request.getYears() == null || request.getYears().isEmpty())
+                && (request.getPaperIds() == null || request.getPaperIds().isEmpty())) {
+            throw new ApiException(ErrorCode.INVALID_REQUEST, "At least one of departmentId, years or paperIds is required");
+        }
+
+        LocalDateTime archivedAt = LocalDateTime.now();
+        List<ArchivedPaperRow> archived = researchPaperRepository.archiveMatching(
+                departmentId, request.getYears(), request.getPaperIds(), archivedAt);
+        List<Integer> paperIds = archived.stream().map(ArchivedPaperRow::paperId).toList();
+
+        archived.stream()
+                .collect(Collectors.groupingBy(ArchivedPaperRow::departmentId, Collectors.counting()))
+                .forEach((paperDepartmentId, count) -> departmentStatisticsService.paperArchiveChanged(
+                        paperDepartmentId, true, count));
+        if (paperIds.isEmpty()) {
+            return BulkArchiveResponse.builder().archivedPaperIds(paperIds).rejectedRequests(0L).build();
+        }
+
+        // One event for the batch, listeners apply the flag without reloading each paper
+        eventPublisher.publishEvent(new PapersArchivedEvent(
+                archived.stream()
+                        .map(row -> new PaperChangedEvent(
+                                row.paperId(),
+                                PaperChangedEvent.Type.ARCHIVED,
+                                new PaperChangedEvent.Snapshot(row.departmentId(), row.year(), false),
+                                new PaperChangedEvent.Snapshot(row.departmentId(), row.year(), true)))
+                        .toList(),
+                archivedAt));
+        if (request.isAsync()) {
+            Integer jobDepartmentId = archived.stream().map(ArchivedPaperRow::departmentId).distinct().count() == 1
+                    ? archived.get(0).departmentId()
+                    : null;
+            return BulkArchiveResponse.builder()
+                    .archivedPaperIds(paperIds)
+                    .job(archiveRejectionService.submitAfterCommit(paperIds, jobDepartmentId))
+                    .build();
         }
+        return BulkArchiveResponse.builder()
+                .archivedPaperIds(paperIds)
+                .rejectedRequests(archiveRejectionService.rejectAll(paperIds))
+                .build();
+    }
+
+    public RejectionJobDto getArchiveJob(String jobId, CustomUserPrincipal principal) {
+        return archiveRejectionService.getJob(jobId, principal);
     }
 
     @Transactional
@@ -172,7 +408,10 @@ public class ResearchPaperService {
             PaperUpdateRequest metadata,
             CustomUserPrincipal principal) {
 
-        ResearchPaper paper = getAndVerifyAdminAccess(id, principal);
+        // With the department, the response carries its name
+        ResearchPaper paper = getAndVerifyAdminAccess(
+                id, researchPaperRepository::findWithDepartmentByPaperId, principal);
+        PaperChangedEvent.Snapshot before = PaperChangedEvent.Snapshot.of(paper);
 
         // Update basic fields
         paper.setTitle(metadata.getTitle());
@@ -189,10 +428,17 @@ public class ResearchPaperService {
 
             var department = departmentRepository.findById(metadata.getDepartmentId())
                     .orElseThrow(() -> new ApiException(ErrorCode.VALIDATION_ERROR, "Department not found"));
+            departmentStatisticsService.paperMoved(
+                    before.departmentId(),
+                    department.getDepartmentId(),
+                    before.archived(),
+                    documentRequestRepository.countByStatusForPaper(id));
             paper.setDepartment(department);
         }
 
         ResearchPaper savedPaper = researchPaperRepository.save(paper);
+        eventPublisher.publishEvent(new PaperChangedEvent(
+                id, PaperChangedEvent.Type.UPDATED, before, PaperChangedEvent.Snapshot.of(savedPaper)));
         return researchPaperMapper.toDto(savedPaper);
     }
 
@@ -200,30 +446,59 @@ public class ResearchPaperService {
     public void deletePaper(Integer id, CustomUserPrincipal principal) {
         ResearchPaper paper = getAndVerifyAdminAccess(id, principal);
         String relativePath = paper.getFilePath();
+        PaperChangedEvent.Snapshot before = PaperChangedEvent.Snapshot.of(paper);
 
-        // Delete from database
+        // Its requests are deleted by cascade, count them first
+        departmentStatisticsService.paperRemoved(
+                before.departmentId(), before.archived(), documentRequestRepository.countByStatusForPaper(id));
+
+        // Delete from database, the requests in one statement rather than through the cascade
+        documentRequestRepository.deleteByPaperId(id);
         researchPaperRepository.delete(paper);
 
         // Delete physical file
         fileStorageService.deleteFile(relativePath);
+
+        eventPublisher.publishEvent(new PaperChangedEvent(id, PaperChangedEvent.Type.DELETED, before, null));
     }
 
     @Transactional
     public void unarchivePaper(Integer id, CustomUserPrincipal principal) {
         ResearchPaper paper = getAndVerifyAdminAccess(id, principal);
+        PaperChangedEvent.Snapshot before = PaperChangedEvent.Snapshot.of(paper);
 
         paper.setArchived(false);
         paper.setArchivedAt(null);
         researchPaperRepository.save(paper);
+        if (before.archived()) {
+            departmentStatisticsService.paperArchiveChanged(before.departmentId(), false);
+        }
+
+        eventPublisher.publishEvent(new PaperChangedEvent(
+                id, PaperChangedEvent.Type.UNARCHIVED, before, PaperChangedEvent.Snapshot.of(paper)));
     }
 
+    /**
+     * Resolves the file of a paper the caller may download. Access is decided on
+     * cached entitlements first, so a grant runs no query. A denial is checked
+     * again against the database. An archive or reject committed on another
+     * instance is seen here only once the cached entries expire, after at most
+     * app.entitlements.cache-ttl.
+     */
     public Path downloadPaper(Integer paperId, CustomUserPrincipal principal) {
-        ResearchPaper paper = researchPaperRepository.findById(paperId)
+        PaperFile cached = downloadEntitlements.getPaper(paperId)
+                .orElseThrow(() -> new ApiException(ErrorCode.RESOURCE_NOT_FOUND, "Paper not found"));
+        if (hasDownloadAccess(cached, principal)) {
+            return fileStorageService.loadFile(cached.filePath());
+        }
+
+        downloadEntitlements.evict(principal.getUserId(), paperId);
+        PaperFile paper = researchPaperRepository.findFileById(paperId)
                 .orElseThrow(() -> new ApiException(ErrorCode.RESOURCE_NOT_FOUND, "Paper not found"));
 
         validateDownloadAccess(paper, principal);
 
-        return fileStorageService.loadFile(paper.getFilePath());
+        return fileStorageService.loadFile(paper.filePath());
     }
 
     @Transactional
@@ -277,16 +552,30 @@ public class ResearchPaperService {
         // Update entity with path and save
         paper.setFilePath(relativePath);
         ResearchPaper savedPaper = researchPaperRepository.save(paper);
+        departmentStatisticsService.paperAdded(department.getDepartmentId());
+        eventPublisher.publishEvent(
+                new PaperChangedEvent(
+                        savedPaper.getPaperId(),
+                        PaperChangedEvent.Type.CREATED,
+                        null,
+                        PaperChangedEvent.Snapshot.of(savedPaper)));
 
         return researchPaperMapper.toDto(savedPaper);
     }
 
     private ResearchPaper getAndVerifyAdminAccess(Integer id, CustomUserPrincipal principal) {
+        return getAndVerifyAdminAccess(id, researchPaperRepository::findById, principal);
+    }
+
+    private ResearchPaper getAndVerifyAdminAccess(
+            Integer id,
+            Function<Integer, Optional<ResearchPaper>> loader,
+            CustomUserPrincipal principal) {
         if (!RoleBasedAccess.isUserAdmin(principal)) {
             throw new ApiException(ErrorCode.ACCESS_DENIED, "Admin privileges required");
         }
 
-        ResearchPaper paper = researchPaperRepository.findById(id)
+        ResearchPaper paper = loader.apply(id)
                 .orElseThrow(() -> new ApiException(ErrorCode.RESOURCE_NOT_FOUND, "Paper not found"));
 
         if (RoleBasedAccess.isUserDepartmentAdmin(principal)) {
@@ -299,26 +588,39 @@ public class ResearchPaperService {
         return paper;
     }
 
-    private void validateDownloadAccess(ResearchPaper paper, CustomUserPrincipal principal) {
+    // Same rules as validateDownloadAccess, on cached entitlements and without the reason
+    private boolean hasDownloadAccess(PaperFile paper, CustomUserPrincipal principal) {
+        if (RoleBasedAccess.isUserSuperAdmin(principal)) {
+            return true;
+        }
+
+        if (RoleBasedAccess.isUserDepartmentAdmin(principal)) {
+            return principal.getDepartmentId() != null && principal.getDepartmentId().equals(paper.departmentId());
+        }
+
+        return !paper.archived() && downloadEntitlements.hasAcceptedRequest(principal.getUserId(), paper.paperId());
+    }
+
+    private void validateDownloadAccess(PaperFile paper, CustomUserPrincipal principal) {
         if (RoleBasedAccess.isUserSuperAdmin(principal)) {
             return;
         }
 
         if (RoleBasedAccess.isUserDepartmentAdmin(principal)) {
             if (principal.getDepartmentId() == null
-                    || !principal.getDepartmentId().equals(paper.getDepartment().getDepartmentId())) {
+                    || !principal.getDepartmentId().equals(paper.departmentId())) {
                 throw new ApiException(ErrorCode.ACCESS_DENIED, "You do not have access to files in this department");
             }
             return;
         }
 
         // Student/Teacher
-        if (paper.getArchived()) {
+        if (paper.archived()) {
             throw new ApiException(ErrorCode.RESOURCE_NOT_AVAILABLE, "Paper not available");
         }
 
         boolean hasAcceptedRequest = documentRequestRepository.existsByPaperPaperIdAndUserUserIdAndStatus(
-                paper.getPaperId(), principal.getUserId(), RequestStatus.ACCEPTED);
+                paper.paperId(), principal.getUserId(), RequestStatus.ACCEPTED);
 
         if (!hasAcceptedRequest) {
             throw new ApiException(ErrorCode.ACCESS_DENIED, "You do not have access to this file");
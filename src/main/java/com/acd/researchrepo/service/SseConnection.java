@@ -0,0 +1,175 @@
+package com.acd.researchrepo.service;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Supplier;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * One open event stream. Events are queued and written by the shared sender
+ * threads, never by the thread that publishes them, so a slow client cannot hold
+ * up a commit. The queue is bounded: a client that falls that far behind loses
+ * its pending events and gets a single resync event instead, telling it to
+ * reload what it shows. A drain writes at most a slice of the queue before
+ * giving its thread to the next stream, and {@link SseSender} closes the
+ * connection when a single write blocks past the send timeout.
+ */
+final class SseConnection {
+
+    static final String RESYNC_EVENT = "resync";
+
+    // Events written per turn on a sender thread, the rest waits behind the other streams
+    private static final int SLICE = 8;
+
+    private final SseEmitter emitter;
+    private final SseSender sender;
+    private final int capacity;
+    private final Runnable onClosed;
+
+    // Builders are single use, so each connection builds its own copy of an event
+    private final Deque<Supplier<SseEmitter.SseEventBuilder>> pending = new ArrayDeque<>();
+    private boolean overflowed;
+    private boolean draining;
+    private volatile boolean closed;
+    // System.nanoTime() when the write in progress started, 0 while none is
+    private volatile long sendStartedAt;
+
+    SseConnection(SseEmitter emitter, SseSender sender, int capacity, Runnable onClosed) {
+        this.emitter = emitter;
+        this.sender = sender;
+        this.capacity = capacity;
+        this.onClosed = onClosed;
+    }
+
+    SseEmitter emitter() {
+        return emitter;
+    }
+
+    void send(Supplier<SseEmitter.SseEventBuilder> event) {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            if (pending.size() >= capacity) {
+                pending.clear();
+                overflowed = true;
+            } else {
+                pending.add(event);
+            }
+            if (draining) {
+                return;
+            }
+            draining = true;
+        }
+        sender.execute(this::drain);
+    }
+
+    /**
+     * Ends the stream. A write in progress holds the emitter, the sender thread
+     * completes it once the write returns.
+     */
+    void close() {
+        synchronized (this) {
+            closed = true;
+            pending.clear();
+            if (sendStartedAt != 0) {
+                return;
+            }
+        }
+        complete();
+    }
+
+    long sendStartedAt() {
+        return sendStartedAt;
+    }
+
+    /**
+     * Called by the watchdog when the write in progress blocked for too long: the
+     * stream is dropped at once, its blocked sender thread finishes it later.
+     */
+    void timeOut() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            pending.clear();
+        }
+        onClosed.run();
+    }
+
+    private void drain() {
+        for (int sent = 0; ; sent++) {
+            Supplier<SseEmitter.SseEventBuilder> event;
+            synchronized (this) {
+                if (closed) {
+                    pending.clear();
+                    draining = false;
+                    return;
+                }
+                if (sent == SLICE && (overflowed || !pending.isEmpty())) {
+                    // Still draining, back of the queue
+                    sender.execute(this::drain);
+                    return;
+                }
+                if (overflowed) {
+                    overflowed = false;
+                    event = () -> SseEmitter.event().name(RESYNC_EVENT).data("");
+                } else {
+                    event = pending.poll();
+                }
+                if (event == null) {
+                    draining = false;
+                    return;
+                }
+            }
+
+            sendStartedAt = System.nanoTime();
+            sender.sendStarted(this);
+            try {
+                emitter.send(event.get());
+            } catch (IOException | IllegalStateException e) {
+                // Client gone, the container completes the emitter
+                boolean wasOpen;
+                synchronized (this) {
+                    wasOpen = !closed;
+                    closed = true;
+                    pending.clear();
+                    draining = false;
+                    sendStartedAt = 0;
+                }
+                sender.sendFinished(this);
+                if (wasOpen) {
+                    onClosed.run();
+                }
+                return;
+            }
+
+            boolean completeNow;
+            synchronized (this) {
+                sendStartedAt = 0;
+                // Closed or timed out while the write was in progress
+                completeNow = closed;
+                if (completeNow) {
+                    pending.clear();
+                    draining = false;
+                }
+            }
+            sender.sendFinished(this);
+            if (completeNow) {
+                complete();
+                return;
+            }
+        }
+    }
+
+    private void complete() {
+        try {
+            emitter.complete();
+        } catch (IllegalStateException e) {
+            // Already completed
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.acd.researchrepo.service;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The threads that write queued events to open streams. SseEmitter.send blocks
+ * while the client's socket buffer is full, until the container's write timeout,
+ * so a handful of stalled clients could hold every sender thread and starve all
+ * other streams. A watchdog lends the pool one more thread for every send that
+ * has been blocked for a tick, for as long as it stays blocked, so the other
+ * streams keep being served, and closes a connection whose send has run longer
+ * than the send timeout.
+ */
+final class SseSender {
+
+    private static final Duration WATCHDOG_INTERVAL = Duration.ofMillis(100);
+    // Blocked sends the pool makes up for with extra threads, past this the others wait until the
+    // container's write timeout (server.tomcat.connection-timeout) fails a blocked write
+    private static final int MAX_EXTRA_THREADS = 32;
+
+    private final int threads;
+    private final long sendTimeoutNanos;
+    private final ThreadPoolExecutor pool;
+    private final ScheduledExecutorService timer;
+    private final Set<SseConnection> sending = ConcurrentHashMap.newKeySet();
+
+    SseSender(String name, int threads, Duration sendTimeout) {
+        this.threads = threads;
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        this.pool = new ThreadPoolExecutor(threads, threads + MAX_EXTRA_THREADS, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), daemon(name));
+        this.timer = Executors.newSingleThreadScheduledExecutor(daemon(name + "-timer"));
+        long interval = WATCHDOG_INTERVAL.toMillis();
+        timer.scheduleAtFixedRate(this::watch, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    void execute(Runnable drain) {
+        pool.execute(drain);
+    }
+
+    /**
+     * Runs a task on the timer thread, which never writes to a stream. Tasks must
+     * only queue events.
+     */
+    void scheduleAtFixedRate(Runnable task, Duration period) {
+        timer.scheduleAtFixedRate(task, period.toMillis(), period.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    void sendStarted(SseConnection connection) {
+        sending.add(connection);
+    }
+
+    void sendFinished(SseConnection connection) {
+        sending.remove(connection);
+    }
+
+    void shutdown() {
+        timer.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    private void watch() {
+        long now = System.nanoTime();
+        int blocked = 0;
+        for (SseConnection connection : sending) {
+            long started = connection.sendStartedAt();
+            if (started != 0 && now - started > WATCHDOG_INTERVAL.toNanos()) {
+                blocked++;
+                if (now - started > sendTimeoutNanos) {
+                    connection.timeOut();
+                }
+            }
+        }
+        // Shrinking lets the extra threads end once idle, growing starts them on the queued drains
+        int size = threads + Math.min(blocked, MAX_EXTRA_THREADS);
+        if (pool.getCorePoolSize() != size) {
+            pool.setCorePoolSize(size);
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
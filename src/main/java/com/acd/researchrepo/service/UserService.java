@@ -101,7 +101,10 @@ public class UserService {
             changed = true;
         }
 
-        if (!Objects.equals(user.getDepartment(), newDepartment)) {
+        // By id, entities have no value equality
+        Integer currentDepartmentId = user.getDepartment() != null ? user.getDepartment().getDepartmentId() : null;
+        Integer newDepartmentId = newDepartment != null ? newDepartment.getDepartmentId() : null;
+        if (!Objects.equals(currentDepartmentId, newDepartmentId)) {
             user.setDepartment(newDepartment);
             changed = true;
         }
@@ -1,9 +1,12 @@
 package com.acd.researchrepo.spec;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import com.acd.researchrepo.model.DocumentRequest;
 import com.acd.researchrepo.model.RequestStatus;
+import com.acd.researchrepo.util.PageCursor;
+import com.acd.researchrepo.util.enums.DocumentRequestSortField;
 
 import org.springframework.data.jpa.domain.Specification;
 
@@ -24,16 +27,18 @@ public class DocumentRequestSpec {
         return (root, query, criteriaBuilder) -> root.get("status").in(statuses);
     }
 
+    /**
+     * Substring match on the requester's name or email or the paper title,
+     * case-insensitive. Runs on the denormalized search_text column, served by
+     * its trigram index without joining users or papers.
+     */
     public static Specification<DocumentRequest> hasSearchTerm(String searchTerm) {
         if (searchTerm == null || searchTerm.trim().isEmpty()) {
             return (root, query, criteriaBuilder) -> criteriaBuilder.conjunction(); // Always true
         }
 
         String lowerCaseSearchTerm = "%" + searchTerm.toLowerCase().trim() + "%";
-        return (root, query, criteriaBuilder) -> criteriaBuilder.or(
-                criteriaBuilder.like(criteriaBuilder.lower(root.get("user").get("fullName")), lowerCaseSearchTerm),
-                criteriaBuilder.like(criteriaBuilder.lower(root.get("user").get("email")), lowerCaseSearchTerm),
-                criteriaBuilder.like(criteriaBuilder.lower(root.get("paper").get("title")), lowerCaseSearchTerm));
+        return (root, query, criteriaBuilder) -> criteriaBuilder.like(root.get("searchText"), lowerCaseSearchTerm);
     }
 
     public static Specification<DocumentRequest> adminRequestFilter(
@@ -72,4 +77,22 @@ public class DocumentRequestSpec {
                 .and(paperNotArchived());
         return spec;
     }
+
+    /**
+     * Keyset predicate for cursor pagination: the requests after the cursor in
+     * (sort field, requestId) order.
+     */
+    public static Specification<DocumentRequest> after(DocumentRequestSortField sortField, PageCursor cursor) {
+        return switch (sortField) {
+            case CREATED_AT -> KeysetSpec.<DocumentRequest, LocalDateTime>after(
+                    (root, cb) -> root.get("createdAt"),
+                    cursor.value(LocalDateTime::parse), "requestId", cursor.getId(), cursor.isAscending());
+            case STATUS -> KeysetSpec.<DocumentRequest, RequestStatus>after(
+                    (root, cb) -> root.get("status"),
+                    cursor.value(RequestStatus::valueOf), "requestId", cursor.getId(), cursor.isAscending());
+            case PAPER_TITLE, USER_FULL_NAME -> KeysetSpec.<DocumentRequest, String>after(
+                    (root, cb) -> KeysetSpec.path(root, sortField.getEntityField()),
+                    cursor.getValue(), "requestId", cursor.getId(), cursor.isAscending());
+        };
+    }
 }
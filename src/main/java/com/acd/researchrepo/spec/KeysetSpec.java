@@ -0,0 +1,69 @@
+package com.acd.researchrepo.spec;
+
+import java.util.function.BiFunction;
+
+import com.acd.researchrepo.config.SearchFunctionContributor;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Keyset ("seek") pagination predicates. Instead of skipping OFFSET rows, the
+ * next page starts right after the (sort key, id) of the last row already seen,
+ * which a composite (key, id) index answers directly however deep the page is.
+ * The query must be ordered by the same key and then id, in the same direction.
+ * The seek is a row value comparison, {@code (key, id) > (:key, :id)}: unlike the
+ * equivalent OR of comparisons it gives the index scan its start key.
+ */
+public class KeysetSpec {
+
+    /**
+     * Rows strictly after (value, id) in (key, id) order.
+     *
+     * @param key         the sort key expression
+     * @param value       the sort key of the last row already returned
+     * @param idAttribute the id attribute used as tiebreaker
+     * @param id          the id of the last row already returned
+     * @param ascending   direction of both the key and the id ordering
+     * @return Specification matching the rows of the next page.
+     */
+    public static <T, V extends Comparable<? super V>> Specification<T> after(
+            BiFunction<Root<T>, CriteriaBuilder, Expression<? extends V>> key,
+            V value,
+            String idAttribute,
+            Integer id,
+            boolean ascending) {
+
+        // Enum keys are stored as their name, an enum literal outside an attribute would bind its ordinal
+        Object boundValue = value instanceof Enum<?> constant ? constant.name() : value;
+        return (root, query, cb) -> {
+            Expression<? extends V> keyExpression = key.apply(root, cb);
+            Path<Integer> idPath = root.get(idAttribute);
+
+            return cb.isTrue(cb.function(
+                    ascending ? SearchFunctionContributor.KEYSET_AFTER : SearchFunctionContributor.KEYSET_BEFORE,
+                    Boolean.class,
+                    keyExpression,
+                    idPath,
+                    cb.literal(boundValue),
+                    cb.literal(id)));
+        };
+    }
+
+    /**
+     * Resolves a dotted attribute path such as "paper.title" against the root.
+     */
+    public static <T, V> Path<V> path(Root<T> root, String attributePath) {
+        Path<?> path = root;
+        for (String attribute : attributePath.split("\\.")) {
+            path = path.get(attribute);
+        }
+        @SuppressWarnings("unchecked")
+        Path<V> typed = (Path<V>) path;
+        return typed;
+    }
+}
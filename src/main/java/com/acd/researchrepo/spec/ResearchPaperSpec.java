@@ -4,11 +4,16 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.acd.researchrepo.config.SearchFunctionContributor;
 import com.acd.researchrepo.model.ResearchPaper;
+import com.acd.researchrepo.util.PageCursor;
+import com.acd.researchrepo.util.enums.ResearchPaperSortField;
 
 import org.springframework.data.jpa.domain.Specification;
 
 import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 
@@ -19,22 +24,30 @@ public class ResearchPaperSpec {
      * search term,
      * department IDs, years, and archived status.
      *
-     * @param searchTerm    Text to search in title, author, or abstract
-     *                      (case-insensitive).
-     * @param departmentIds List of department IDs to filter by.
-     * @param years         List of years to filter submission dates.
-     * @param archived      Archived status to filter by.
+     * @param searchTerm        Full-text query matched against title, author and
+     *                          abstract (web search syntax).
+     * @param fuzzy             Match searchTerm by trigram similarity against
+     *                          title and author instead of full-text.
+     * @param departmentIds     List of department IDs to filter by.
+     * @param years             List of years to filter submission dates.
+     * @param archived          Archived status to filter by.
+     * @param orderByRelevance  Order by search rank, best match first.
      * @return Specification for querying ResearchPaper entities.
      */
     public static Specification<ResearchPaper> build(
             String searchTerm,
+            boolean fuzzy,
             List<Integer> departmentIds,
             List<Integer> years,
-            Boolean archived) {
+            Boolean archived,
+            boolean orderByRelevance) {
 
         return (root, query, cb) -> {
             List<Predicate> predicates = new ArrayList<>();
-            addCommonPredicates(root, cb, predicates, searchTerm, departmentIds, years, archived);
+            addCommonPredicates(root, cb, predicates, searchTerm, fuzzy, departmentIds, years, archived);
+            if (orderByRelevance) {
+                addRelevanceOrder(root, query, cb, searchTerm, fuzzy);
+            }
             return cb.and(predicates.toArray(new Predicate[0]));
         };
     }
@@ -42,44 +55,96 @@ public class ResearchPaperSpec {
     /**
      * Builds a JPA Specification for admin paper listing with department scoping.
      *
-     * @param searchTerm    Text to search in title, author, or abstract
-     *                      (case-insensitive).
-     * @param departmentIds List of department IDs to filter by (for SUPER_ADMIN
-     *                      multiselect,
-     *                      or single-item list for DEPARTMENT_ADMIN scoping).
-     * @param years         List of years to filter submission dates.
-     * @param archived      Archived status to filter by (null returns both).
+     * @param searchTerm        Full-text query matched against title, author and
+     *                          abstract (web search syntax).
+     * @param fuzzy             Match searchTerm by trigram similarity against
+     *                          title and author instead of full-text.
+     * @param departmentIds     List of department IDs to filter by (for SUPER_ADMIN
+     *                          multiselect,
+     *                          or single-item list for DEPARTMENT_ADMIN scoping).
+     * @param years             List of years to filter submission dates.
+     * @param archived          Archived status to filter by (null returns both).
+     * @param orderByRelevance  Order by search rank, best match first.
      * @return Specification for querying ResearchPaper entities.
      */
     public static Specification<ResearchPaper> buildAdmin(
             String searchTerm,
+            boolean fuzzy,
             List<Integer> departmentIds,
             List<Integer> years,
-            Boolean archived) {
+            Boolean archived,
+            boolean orderByRelevance) {
 
         return (root, query, cb) -> {
             List<Predicate> predicates = new ArrayList<>();
-            addCommonPredicates(root, cb, predicates, searchTerm, departmentIds, years, archived);
+            addCommonPredicates(root, cb, predicates, searchTerm, fuzzy, departmentIds, years, archived);
+            if (orderByRelevance) {
+                addRelevanceOrder(root, query, cb, searchTerm, fuzzy);
+            }
             return cb.and(predicates.toArray(new Predicate[0]));
         };
     }
 
+    /**
+     * Builds the keyset predicate for cursor pagination: the papers after the
+     * cursor in (sort field, paperId) order. Relevance cursors carry the rank of
+     * the last paper and are always descending.
+     *
+     * @param sortField   The effective sort field of the request.
+     * @param cursor      The decoded cursor of the previous page.
+     * @param searchTerm  Search term, needed to recompute the rank.
+     * @param fuzzy       Whether the rank is trigram similarity.
+     * @return Specification matching the papers of the next page.
+     */
+    public static Specification<ResearchPaper> after(
+            ResearchPaperSortField sortField,
+            PageCursor cursor,
+            String searchTerm,
+            boolean fuzzy) {
+
+        return switch (sortField) {
+            case RELEVANCE -> KeysetSpec.<ResearchPaper, Float>after(
+                    (root, cb) -> relevance(root, cb, searchTerm, fuzzy),
+                    cursor.value(Float::valueOf), "paperId", cursor.getId(), false);
+            case SUBMISSION_DATE -> KeysetSpec.<ResearchPaper, LocalDate>after(
+                    (root, cb) -> root.get("submissionDate"),
+                    cursor.value(LocalDate::parse), "paperId", cursor.getId(), cursor.isAscending());
+            case TITLE, AUTHOR_NAME -> KeysetSpec.<ResearchPaper, String>after(
+                    (root, cb) -> root.get(sortField.getEntityField()),
+                    cursor.getValue(), "paperId", cursor.getId(), cursor.isAscending());
+        };
+    }
+
     private static void addCommonPredicates(
             Root<ResearchPaper> root,
             CriteriaBuilder cb,
             List<Predicate> predicates,
             String searchTerm,
+            boolean fuzzy,
             List<Integer> departmentIds,
             List<Integer> years,
             Boolean archived) {
 
-        // 1. Search (Title, Author, Abstract)
-        if (searchTerm != null && !searchTerm.trim().isEmpty()) {
-            String like = "%" + searchTerm.toLowerCase().trim() + "%";
+        // 1. Search (Title, Author, Abstract) through the GIN indexed search_vector,
+        // or typo tolerant (Title, Author) through the trigram indexes
+        if (hasText(searchTerm) && fuzzy) {
             predicates.add(cb.or(
-                    cb.like(cb.lower(root.get("title")), like),
-                    cb.like(cb.lower(root.get("authorName")), like),
-                    cb.like(cb.lower(root.get("abstractText")), like)));
+                    cb.isTrue(cb.function(
+                            SearchFunctionContributor.FUZZY_MATCH,
+                            Boolean.class,
+                            root.get("title"),
+                            cb.literal(searchTerm.trim()))),
+                    cb.isTrue(cb.function(
+                            SearchFunctionContributor.FUZZY_MATCH,
+                            Boolean.class,
+                            root.get("authorName"),
+                            cb.literal(searchTerm.trim())))));
+        } else if (hasText(searchTerm)) {
+            predicates.add(cb.isTrue(cb.function(
+                    SearchFunctionContributor.FTS_MATCH,
+                    Boolean.class,
+                    root.get("searchVector"),
+                    cb.literal(searchTerm.trim()))));
         }
 
         // Department filtering
@@ -87,16 +152,9 @@ public class ResearchPaperSpec {
             predicates.add(root.get("department").get("departmentId").in(departmentIds));
         }
 
-        // Year filtering
+        // Year filtering on the generated submission_year column
         if (years != null && !years.isEmpty()) {
-            List<Predicate> yearPredicates = new ArrayList<>();
-            for (Integer year : years) {
-                yearPredicates.add(cb.between(
-                        root.get("submissionDate"),
-                        LocalDate.of(year, 1, 1),
-                        LocalDate.of(year, 12, 31)));
-            }
-            predicates.add(cb.or(yearPredicates.toArray(new Predicate[0])));
+            predicates.add(root.get("submissionYear").in(years));
         }
 
         // Archive filtering
@@ -104,4 +162,48 @@ public class ResearchPaperSpec {
             predicates.add(cb.equal(root.get("archived"), archived));
         }
     }
+
+    /**
+     * Orders by search rank (ts_rank_cd, or trigram similarity when fuzzy), with
+     * paperId as a stable tiebreaker. Skipped for the count query and when there is
+     * nothing to rank.
+     */
+    private static void addRelevanceOrder(
+            Root<ResearchPaper> root,
+            CriteriaQuery<?> query,
+            CriteriaBuilder cb,
+            String searchTerm,
+            boolean fuzzy) {
+
+        if (!hasText(searchTerm) || Long.class.equals(query.getResultType())) {
+            return;
+        }
+
+        query.orderBy(cb.desc(relevance(root, cb, searchTerm, fuzzy)), cb.desc(root.get("paperId")));
+    }
+
+    public static Expression<Float> relevance(
+            Root<ResearchPaper> root,
+            CriteriaBuilder cb,
+            String searchTerm,
+            boolean fuzzy) {
+
+        if (fuzzy) {
+            return cb.function(
+                    SearchFunctionContributor.FUZZY_RANK,
+                    Float.class,
+                    root.get("title"),
+                    root.get("authorName"),
+                    cb.literal(searchTerm.trim()));
+        }
+        return cb.function(
+                SearchFunctionContributor.FTS_RANK,
+                Float.class,
+                root.get("searchVector"),
+                cb.literal(searchTerm.trim()));
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.trim().isEmpty();
+    }
 }
@@ -0,0 +1,73 @@
+package com.acd.researchrepo.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.function.Function;
+
+import com.acd.researchrepo.exception.ApiException;
+import com.acd.researchrepo.exception.ErrorCode;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Opaque keyset pagination cursor: the sort field and direction it was issued
+ * for, plus the sort key and id of the last row of the previous page. Encoded
+ * as base64url so clients treat it as a token and pass it back unchanged in
+ * {@code after}.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class PageCursor {
+    private static final String SEPARATOR = "|";
+
+    private final String sortField; // API field name, e.g. submissionDate
+    private final boolean ascending;
+    private final Integer id;
+    private final String value;
+
+    public static PageCursor of(String sortField, boolean ascending, Integer id, Object value) {
+        return new PageCursor(sortField, ascending, id, String.valueOf(value));
+    }
+
+    public String encode() {
+        // value goes last, it is the only part that can contain the separator
+        String raw = sortField + SEPARATOR + (ascending ? "asc" : "desc") + SEPARATOR + id + SEPARATOR + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor and checks it was issued for the same sort the request
+     * asks for, a cursor is meaningless under any other order.
+     */
+    public static PageCursor decode(String token, String expectedSortField, boolean expectedAscending) {
+        PageCursor cursor;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, 4);
+            if (parts.length != 4 || !("asc".equals(parts[1]) || "desc".equals(parts[1]))) {
+                throw new ApiException(ErrorCode.INVALID_REQUEST, "Invalid cursor");
+            }
+            cursor = new PageCursor(parts[0], "asc".equals(parts[1]), Integer.valueOf(parts[2]), parts[3]);
+        } catch (IllegalArgumentException e) {
+            throw new ApiException(ErrorCode.INVALID_REQUEST, "Invalid cursor");
+        }
+
+        if (!cursor.sortField.equals(expectedSortField) || cursor.ascending != expectedAscending) {
+            throw new ApiException(ErrorCode.INVALID_REQUEST, "Cursor does not match the requested sort");
+        }
+        return cursor;
+    }
+
+    /**
+     * Parses the sort key into its typed value.
+     */
+    public <V> V value(Function<String, V> parser) {
+        try {
+            return parser.apply(value);
+        } catch (RuntimeException e) {
+            throw new ApiException(ErrorCode.INVALID_REQUEST, "Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.acd.researchrepo.util.enums;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import lombok.Getter;
+
+/**
+ * Result of one paper in a bulk request submission.
+ */
+@Getter
+public enum BulkCreateOutcome {
+    CREATED("created"),
+    DUPLICATE("duplicate"), // a pending or accepted request already exists
+    PAPER_ARCHIVED("paper_archived"),
+    NOT_FOUND("not_found");
+
+    @JsonValue
+    private final String apiValue;
+
+    BulkCreateOutcome(String apiValue) {
+        this.apiValue = apiValue;
+    }
+}
@@ -0,0 +1,24 @@
+package com.acd.researchrepo.util.enums;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import lombok.Getter;
+
+/**
+ * Result of one request in a bulk decision.
+ */
+@Getter
+public enum BulkDecisionOutcome {
+    UPDATED("updated"),
+    NOT_FOUND("not_found"),
+    ACCESS_DENIED("access_denied"), // paper of another department
+    PAPER_ARCHIVED("paper_archived"),
+    NOT_PENDING("not_pending"); // already decided, possibly by a concurrent admin
+
+    @JsonValue
+    private final String apiValue;
+
+    BulkDecisionOutcome(String apiValue) {
+        this.apiValue = apiValue;
+    }
+}
@@ -0,0 +1,35 @@
+package com.acd.researchrepo.util.enums;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import lombok.Getter;
+
+/**
+ * How a paginated listing reports its total.
+ */
+@Getter
+public enum CountMode {
+    EXACT("exact"), // count(*) with the same filters, every request
+    ESTIMATED("estimated"), // short-lived cached count per filter
+    NONE("none"); // no total, only whether there is a next page
+
+    @JsonValue
+    private final String apiValue;
+
+    CountMode(String apiValue) {
+        this.apiValue = apiValue;
+    }
+
+    /**
+     * Resolves the count parameter. Without one, offset pages are counted exactly
+     * (the original behavior) and keyset pages are not counted.
+     */
+    public static CountMode resolve(String apiValue, boolean cursorMode) {
+        for (CountMode mode : values()) {
+            if (mode.apiValue.equalsIgnoreCase(apiValue)) {
+                return mode;
+            }
+        }
+        return cursorMode ? NONE : EXACT;
+    }
+}
@@ -25,4 +25,13 @@ public enum DocumentRequestSortField {
         }
         return defaultField;
     }
+
+    public static DocumentRequestSortField resolve(String apiField, DocumentRequestSortField defaultField) {
+        for (DocumentRequestSortField field : values()) {
+            if (field.apiField.equalsIgnoreCase(apiField)) {
+                return field;
+            }
+        }
+        return defaultField;
+    }
 }
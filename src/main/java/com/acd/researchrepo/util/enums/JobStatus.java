@@ -0,0 +1,22 @@
+package com.acd.researchrepo.util.enums;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import lombok.Getter;
+
+/**
+ * State of a background job.
+ */
+@Getter
+public enum JobStatus {
+    RUNNING("running"),
+    COMPLETED("completed"),
+    FAILED("failed");
+
+    @JsonValue
+    private final String apiValue;
+
+    JobStatus(String apiValue) {
+        this.apiValue = apiValue;
+    }
+}
@@ -0,0 +1,23 @@
+package com.acd.researchrepo.util.enums;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import lombok.Getter;
+
+/**
+ * What happened to a document request, as pushed on the request event streams.
+ */
+@Getter
+public enum RequestChangeType {
+    CREATED("created"),
+    ACCEPTED("accepted"),
+    REJECTED("rejected"),
+    DELETED("deleted");
+
+    @JsonValue
+    private final String apiValue;
+
+    RequestChangeType(String apiValue) {
+        this.apiValue = apiValue;
+    }
+}
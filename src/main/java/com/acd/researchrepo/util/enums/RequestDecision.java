@@ -0,0 +1,24 @@
+package com.acd.researchrepo.util.enums;
+
+import com.acd.researchrepo.model.RequestStatus;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import lombok.Getter;
+
+/**
+ * What an admin decides for a pending request in a bulk decision.
+ */
+@Getter
+public enum RequestDecision {
+    ACCEPT("accept", RequestStatus.ACCEPTED),
+    REJECT("reject", RequestStatus.REJECTED);
+
+    @JsonValue
+    private final String apiValue;
+    private final RequestStatus targetStatus;
+
+    RequestDecision(String apiValue, RequestStatus targetStatus) {
+        this.apiValue = apiValue;
+        this.targetStatus = targetStatus;
+    }
+}
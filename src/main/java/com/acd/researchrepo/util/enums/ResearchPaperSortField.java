@@ -6,7 +6,8 @@ import lombok.Getter;
 public enum ResearchPaperSortField {
     TITLE("title", "title"),
     AUTHOR_NAME("authorName", "authorName"),
-    SUBMISSION_DATE("submissionDate", "submissionDate");
+    SUBMISSION_DATE("submissionDate", "submissionDate"),
+    RELEVANCE("relevance", "relevance");
 
     private final String apiField;
     private final String entityField;
@@ -24,4 +25,13 @@ public enum ResearchPaperSortField {
         }
         return defaultField;
     }
+
+    public static ResearchPaperSortField resolve(String apiField, ResearchPaperSortField defaultField) {
+        for (ResearchPaperSortField field : values()) {
+            if (field.apiField.equalsIgnoreCase(apiField)) {
+                return field;
+            }
+        }
+        return defaultField;
+    }
 }
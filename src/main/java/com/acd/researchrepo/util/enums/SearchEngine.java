@@ -0,0 +1,11 @@
+package com.acd.researchrepo.util.enums;
+
+/**
+ * Which engine answers paper searches, see app.search.engine.
+ */
+public enum SearchEngine {
+    // JPA Specifications against PostgreSQL (full-text / trigram indexes)
+    DATABASE,
+    // In-process inverted index, Postgres is only used to keep it in sync
+    MEMORY
+}
@@ -0,0 +1,68 @@
+-- Denormalized, trigram-indexed search text for the request queue.
+-- WHY: request search ORed lower(col) LIKE '%term%' over users.full_name, users.email and
+-- research_papers.title. The predicate spans three tables, so no index can serve it and every
+-- search joined and scanned all requests. The three values now live lowercased in one column
+-- of document_requests behind a trigram GIN index, which answers LIKE '%term%' directly.
+-- Department scope and status filters still apply through their own predicates.
+-- Triggers keep the copy current on every write path: request inserts and moves compute it,
+-- renamed users and retitled papers rewrite the requests that show them.
+
+ALTER TABLE document_requests ADD COLUMN search_text TEXT;
+
+-- Fields are joined with a newline so a term cannot match across two of them
+CREATE FUNCTION document_requests_search_text(p_user_id INT, p_paper_id INT) RETURNS TEXT AS $$
+    SELECT lower(u.full_name || E'\n' || u.email || E'\n' || p.title)
+    FROM users u, research_papers p
+    WHERE u.user_id = p_user_id AND p.paper_id = p_paper_id
+$$ LANGUAGE sql STABLE;
+
+CREATE FUNCTION document_requests_search_text_update() RETURNS trigger AS $$
+BEGIN
+    NEW.search_text := document_requests_search_text(NEW.user_id, NEW.paper_id);
+    RETURN NEW;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_document_requests_search_text
+BEFORE INSERT OR UPDATE OF user_id, paper_id ON document_requests
+FOR EACH ROW EXECUTE FUNCTION document_requests_search_text_update();
+
+CREATE FUNCTION users_request_search_text_update() RETURNS trigger AS $$
+BEGIN
+    UPDATE document_requests
+    SET search_text = document_requests_search_text(user_id, paper_id)
+    WHERE user_id = NEW.user_id;
+    RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_users_request_search_text
+AFTER UPDATE OF full_name, email ON users
+FOR EACH ROW
+WHEN (OLD.full_name IS DISTINCT FROM NEW.full_name OR OLD.email IS DISTINCT FROM NEW.email)
+EXECUTE FUNCTION users_request_search_text_update();
+
+CREATE FUNCTION research_papers_request_search_text_update() RETURNS trigger AS $$
+BEGIN
+    UPDATE document_requests
+    SET search_text = document_requests_search_text(user_id, paper_id)
+    WHERE paper_id = NEW.paper_id;
+    RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_research_papers_request_search_text
+AFTER UPDATE OF title ON research_papers
+FOR EACH ROW
+WHEN (OLD.title IS DISTINCT FROM NEW.title)
+EXECUTE FUNCTION research_papers_request_search_text_update();
+
+-- Backfill existing rows
+UPDATE document_requests r
+SET search_text = lower(u.full_name || E'\n' || u.email || E'\n' || p.title)
+FROM users u, research_papers p
+WHERE u.user_id = r.user_id AND p.paper_id = r.paper_id;
+
+ALTER TABLE document_requests ALTER COLUMN search_text SET NOT NULL;
+
+CREATE INDEX idx_requests_search_text_trgm ON document_requests USING GIN (search_text gin_trgm_ops);
@@ -0,0 +1,32 @@
+-- Full-text search for the paper catalog.
+-- WHY: the previous search used lower(col) LIKE '%term%' over title, author_name and abstract_text,
+-- which cannot use any index and turns every search into a sequential scan.
+-- A weighted tsvector (title > author > abstract) behind a GIN index keeps the search cost
+-- proportional to the number of matches instead of the size of the catalog.
+-- The vector is maintained by a trigger so every write path (JPA or SQL) keeps it current.
+
+ALTER TABLE research_papers ADD COLUMN search_vector TSVECTOR;
+
+CREATE FUNCTION research_papers_search_vector_update() RETURNS trigger AS $$
+BEGIN
+    NEW.search_vector :=
+        setweight(to_tsvector('english', coalesce(NEW.title, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(NEW.author_name, '')), 'B') ||
+        setweight(to_tsvector('english', coalesce(NEW.abstract_text, '')), 'C');
+    RETURN NEW;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_research_papers_search_vector
+BEFORE INSERT OR UPDATE OF title, author_name, abstract_text ON research_papers
+FOR EACH ROW EXECUTE FUNCTION research_papers_search_vector_update();
+
+-- Backfill existing rows
+UPDATE research_papers SET search_vector =
+    setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('english', coalesce(author_name, '')), 'B') ||
+    setweight(to_tsvector('english', coalesce(abstract_text, '')), 'C');
+
+ALTER TABLE research_papers ALTER COLUMN search_vector SET NOT NULL;
+
+CREATE INDEX idx_papers_search_vector ON research_papers USING GIN (search_vector);
@@ -0,0 +1,9 @@
+-- Trigram indexes for fuzzy title/author search and "did you mean" suggestions.
+-- WHY: full-text search matches whole (stemmed) words, so a misspelled author name returns nothing.
+-- pg_trgm word similarity (the <% operator) tolerates typos and is served by these GIN indexes,
+-- so neither the fuzzy search nor the suggestion lookup needs a table scan.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_papers_title_trgm ON research_papers USING GIN (title gin_trgm_ops);
+CREATE INDEX idx_papers_author_trgm ON research_papers USING GIN (author_name gin_trgm_ops);
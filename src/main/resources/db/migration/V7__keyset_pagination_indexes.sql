@@ -0,0 +1,26 @@
+-- Composite (sort key, id) indexes for keyset pagination.
+-- WHY: OFFSET pagination reads and throws away every skipped row, so deep pages of the catalog
+-- and the admin request queue get slower as the tables grow. Keyset pages seek to
+-- (key, id) > (last key, last id) instead, which these indexes answer with one range scan in
+-- either direction. The id column makes the order total, so no row is skipped or repeated
+-- between pages.
+
+-- Paper catalog: one per ResearchPaperSortField (relevance is ranked, not indexed)
+CREATE INDEX idx_papers_submission_date_id ON research_papers(submission_date, paper_id);
+CREATE INDEX idx_papers_title_id ON research_papers(title, paper_id);
+CREATE INDEX idx_papers_author_id ON research_papers(author_name, paper_id);
+
+-- Covered by idx_papers_submission_date_id
+DROP INDEX idx_papers_submission_date;
+
+-- Request listings: one per DocumentRequestSortField. paper.title and user.fullName sort on
+-- joined tables, the title index above and the full name index below serve those joins.
+CREATE INDEX idx_requests_created_at_id ON document_requests(created_at, request_id);
+CREATE INDEX idx_requests_status_id ON document_requests(status, request_id);
+CREATE INDEX idx_users_full_name_id ON users(full_name, user_id);
+
+-- /api/users/me/requests always filters by user, default sort is createdAt
+CREATE INDEX idx_requests_user_created_at_id ON document_requests(user_id, created_at, request_id);
+
+-- Covered by idx_requests_created_at_id
+DROP INDEX idx_requests_created_at;
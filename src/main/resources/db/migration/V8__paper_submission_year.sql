@@ -0,0 +1,20 @@
+-- Stored submission_year column and a composite index for the year filter.
+-- WHY: the catalog filtered years with one submission_date BETWEEN per requested year, ORed
+-- together, and /api/filters/years ran YEAR(submission_date) over every row. Neither shape
+-- lines up with an index, and each extra year made the plan worse. A generated column turns
+-- the filter into submission_year IN (...), and the composite index below serves the usual
+-- catalog shape (archived flag, department scope, years, newest first) with one index scan.
+
+ALTER TABLE research_papers
+    ADD COLUMN submission_year INTEGER
+        GENERATED ALWAYS AS (CAST(EXTRACT(YEAR FROM submission_date) AS INTEGER)) STORED;
+
+-- Catalog filter: archived and department are equality or IN, then years, then the date sort
+CREATE INDEX idx_papers_archived_dept_year_date
+    ON research_papers(archived, department_id, submission_year, submission_date);
+
+-- Distinct years without a department scope, answered from this index alone
+CREATE INDEX idx_papers_archived_year ON research_papers(archived, submission_year);
+
+-- Covered by the two indexes above, both lead with archived
+DROP INDEX idx_papers_archived;
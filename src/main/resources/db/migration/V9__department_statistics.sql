@@ -0,0 +1,43 @@
+-- Per-department counters for the admin statistics endpoint.
+-- WHY: the totals (papers, archived papers, requests per status) were only available by paging
+-- /api/admin/requests or running ad-hoc counts over both tables. The services now apply deltas
+-- to one row per department inside the transaction of each write, so reading the statistics is
+-- a primary key scan. A nightly job recounts both tables and corrects any drift.
+
+CREATE TABLE department_statistics (
+    department_id INT PRIMARY KEY REFERENCES departments(department_id) ON DELETE CASCADE,
+    paper_count BIGINT NOT NULL DEFAULT 0,
+    archived_paper_count BIGINT NOT NULL DEFAULT 0,
+    pending_request_count BIGINT NOT NULL DEFAULT 0,
+    accepted_request_count BIGINT NOT NULL DEFAULT 0,
+    rejected_request_count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT now()
+);
+
+-- Seed from the current data, one row per department including empty ones
+INSERT INTO department_statistics (
+    department_id, paper_count, archived_paper_count,
+    pending_request_count, accepted_request_count, rejected_request_count)
+SELECT d.department_id,
+       COALESCE(p.papers, 0),
+       COALESCE(p.archived, 0),
+       COALESCE(r.pending, 0),
+       COALESCE(r.accepted, 0),
+       COALESCE(r.rejected, 0)
+FROM departments d
+LEFT JOIN (
+    SELECT department_id,
+           count(*) AS papers,
+           count(*) FILTER (WHERE archived) AS archived
+    FROM research_papers
+    GROUP BY department_id
+) p ON p.department_id = d.department_id
+LEFT JOIN (
+    SELECT rp.department_id,
+           count(*) FILTER (WHERE dr.status = 'PENDING') AS pending,
+           count(*) FILTER (WHERE dr.status = 'ACCEPTED') AS accepted,
+           count(*) FILTER (WHERE dr.status = 'REJECTED') AS rejected
+    FROM document_requests dr
+    JOIN research_papers rp ON rp.paper_id = dr.paper_id
+    GROUP BY rp.department_id
+) r ON r.department_id = d.department_id;